@@ -0,0 +1,104 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.gemfire.function;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.gemstone.gemfire.cache.execute.ResultSender;
+
+/**
+ * Measures chunking function results with {@link BatchingResultSender}, for primitive arrays and for streamed
+ * iterators limited by element count or by estimated size. The chunks are handed to a {@link Blackhole} instead of
+ * being sent.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BatchingResultSenderBenchmark {
+
+	@Param({ "100", "10000" })
+	int size;
+
+	@Param({ "100" })
+	int batchSize;
+
+	int[] array;
+
+	List<Integer> list;
+
+	@Setup
+	public void setUp() {
+
+		array = new int[size];
+		list = new ArrayList<Integer>(size);
+
+		for (int i = 0; i < size; i++) {
+			array[i] = i;
+			list.add(i);
+		}
+	}
+
+	@Benchmark
+	public void sendPrimitiveArray(Blackhole blackhole) {
+		new BatchingResultSender(batchSize, new BlackholeResultSender(blackhole)).sendArrayResults(array);
+	}
+
+	@Benchmark
+	public void streamByCount(Blackhole blackhole) {
+		new BatchingResultSender(batchSize, new BlackholeResultSender(blackhole)).sendResults(list.iterator());
+	}
+
+	@Benchmark
+	public void streamByEstimatedSize(Blackhole blackhole) {
+		new BatchingResultSender(0, new BlackholeResultSender(blackhole)).sendResults(list.iterator());
+	}
+
+	private static class BlackholeResultSender implements ResultSender<Object> {
+
+		private final Blackhole blackhole;
+
+		BlackholeResultSender(Blackhole blackhole) {
+			this.blackhole = blackhole;
+		}
+
+		@Override
+		public void sendResult(Object oneResult) {
+			blackhole.consume(oneResult);
+		}
+
+		@Override
+		public void lastResult(Object oneResult) {
+			blackhole.consume(oneResult);
+		}
+
+		@Override
+		public void sendException(Throwable t) {
+			blackhole.consume(t);
+		}
+	}
+}
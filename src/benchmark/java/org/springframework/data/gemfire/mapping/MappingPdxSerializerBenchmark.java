@@ -0,0 +1,160 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.gemfire.mapping;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.annotation.Id;
+
+import com.gemstone.gemfire.pdx.PdxReader;
+import com.gemstone.gemfire.pdx.PdxWriter;
+
+/**
+ * Measures reading and writing an entity through {@link MappingPdxSerializer}, reflectively through the cached
+ * serialization plans or through generated serializers. The {@link PdxReader} and {@link PdxWriter} are backed by a
+ * {@link Map}, so that only the cost of the serializer itself is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MappingPdxSerializerBenchmark {
+
+	@Param({ "false", "true" })
+	boolean generatedSerializers;
+
+	MappingPdxSerializer serializer;
+
+	Person person;
+
+	PdxWriter writer;
+
+	PdxReader reader;
+
+	@Setup
+	public void setUp() {
+
+		serializer = new MappingPdxSerializer();
+		serializer.setUseGeneratedSerializers(generatedSerializers);
+
+		person = new Person();
+		person.setId(42L);
+		person.setFirstname("Dave");
+		person.setLastname("Matthews");
+		person.setAge(47);
+
+		Map<String, Object> fields = new HashMap<String, Object>();
+		writer = createProxy(PdxWriter.class, fields);
+		reader = createProxy(PdxReader.class, fields);
+
+		serializer.toData(person, writer);
+	}
+
+	@Benchmark
+	public boolean toData() {
+		return serializer.toData(person, writer);
+	}
+
+	@Benchmark
+	public Object fromData() {
+		return serializer.fromData(Person.class, reader);
+	}
+
+	/**
+	 * Creates a {@link PdxWriter} storing the written fields in the given {@link Map} or a {@link PdxReader} reading
+	 * them from it.
+	 */
+	private static <T> T createProxy(final Class<T> type, final Map<String, Object> fields) {
+
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new InvocationHandler() {
+
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) {
+
+				if (method.getReturnType().equals(PdxWriter.class)) {
+					if (method.getName().startsWith("write") && args[0] instanceof String) {
+						fields.put((String) args[0], args[1]);
+					}
+					return proxy;
+				}
+
+				Object value = args != null && args.length == 1 ? fields.get(args[0]) : null;
+
+				if (value == null && method.getReturnType().isPrimitive()) {
+					return method.getReturnType().equals(boolean.class) ? false : 0;
+				}
+
+				return value;
+			}
+		}));
+	}
+
+	public static class Person {
+
+		@Id
+		private Long id;
+
+		private String firstname;
+
+		private String lastname;
+
+		private int age;
+
+		public Long getId() {
+			return id;
+		}
+
+		public void setId(Long id) {
+			this.id = id;
+		}
+
+		public String getFirstname() {
+			return firstname;
+		}
+
+		public void setFirstname(String firstname) {
+			this.firstname = firstname;
+		}
+
+		public String getLastname() {
+			return lastname;
+		}
+
+		public void setLastname(String lastname) {
+			this.lastname = lastname;
+		}
+
+		public int getAge() {
+			return age;
+		}
+
+		public void setAge(int age) {
+			this.age = age;
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright 2010-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.gemfire;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.UncategorizedDataAccessException;
+
+/**
+ * GemFire-specific subclass of UncategorizedDataAccessException, thrown when one or more chunks of a batched
+ * (bulk) Region operation failed. The failures are reported per chunk, in the order the chunks were sent, together
+ * with the keys contained in each failed chunk so callers can retry or compensate selectively.
+ */
+@SuppressWarnings("serial")
+public class GemfireBatchOperationException extends UncategorizedDataAccessException {
+
+	private final Map<Integer, DataAccessException> failures;
+
+	private final Map<Integer, Collection<?>> failedKeys;
+
+	/**
+	 * Creates a new {@link GemfireBatchOperationException}.
+	 *
+	 * @param operation the name of the batched operation (e.g. <tt>putAll</tt>)
+	 * @param failures the failure of each failed chunk, keyed by chunk index
+	 * @param failedKeys the keys of each failed chunk, keyed by chunk index
+	 */
+	public GemfireBatchOperationException(String operation, Map<Integer, DataAccessException> failures,
+			Map<Integer, Collection<?>> failedKeys) {
+		super(String.format("%1$d chunk(s) of batched %2$s failed at chunk index(es) %3$s", failures.size(), operation,
+				failures.keySet()), failures.isEmpty() ? null : failures.values().iterator().next());
+
+		this.failures = Collections.unmodifiableMap(new TreeMap<Integer, DataAccessException>(failures));
+		this.failedKeys = Collections.unmodifiableMap(new TreeMap<Integer, Collection<?>>(failedKeys));
+	}
+
+	/**
+	 * Returns the failure of each failed chunk, keyed by the (zero-based) chunk index.
+	 *
+	 * @return the per chunk failures
+	 */
+	public Map<Integer, DataAccessException> getFailures() {
+		return failures;
+	}
+
+	/**
+	 * Returns the keys contained in each failed chunk, keyed by the (zero-based) chunk index.
+	 *
+	 * @return the keys of the failed chunks
+	 */
+	public Map<Integer, Collection<?>> getFailedKeys() {
+		return failedKeys;
+	}
+
+	/**
+	 * Returns the keys of all failed chunks.
+	 *
+	 * @return the keys which were not processed successfully
+	 */
+	public Collection<?> getAllFailedKeys() {
+		Collection<Object> result = new ArrayList<Object>();
+		for (Collection<?> keys : failedKeys.values()) {
+			result.addAll(keys);
+		}
+		return result;
+	}
+}
@@ -21,7 +21,9 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.dao.DataAccessException;
 import org.springframework.dao.InvalidDataAccessApiUsageException;
@@ -57,10 +59,23 @@ import com.gemstone.gemfire.internal.cache.LocalRegion;
  */
 public class GemfireTemplate extends GemfireAccessor implements GemfireOperations {
 
+	/**
+	 * The default maximum number of compiled queries cached by the template.
+	 */
+	public static final int DEFAULT_QUERY_CACHE_SIZE = 100;
+
 	private boolean exposeNativeRegion = false;
 
 	private Region<?, ?> regionProxy;
 
+	private volatile int queryCacheSize = DEFAULT_QUERY_CACHE_SIZE;
+
+	private volatile QueryCache queryCache = new QueryCache(DEFAULT_QUERY_CACHE_SIZE);
+
+	private final AtomicLong queryCacheHits = new AtomicLong();
+
+	private final AtomicLong queryCacheMisses = new AtomicLong();
+
 	public GemfireTemplate() {
 	}
 
@@ -96,6 +111,56 @@ public class GemfireTemplate extends GemfireAccessor implements GemfireOperation
 		return this.exposeNativeRegion;
 	}
 
+	/**
+	 * Sets the region the template operates on, discarding all cached queries.
+	 */
+	@Override
+	public void setRegion(Region<?, ?> region) {
+		super.setRegion(region);
+		clearQueryCache();
+	}
+
+	/**
+	 * Sets the maximum number of compiled {@link Query} objects, keyed by query string, the template keeps for reuse
+	 * by its find methods. The cache is shared by all threads using the template, least recently used queries are
+	 * evicted first. Default is {@value #DEFAULT_QUERY_CACHE_SIZE}, 0 disables caching.
+	 * 
+	 * @param queryCacheSize the maximum number of cached queries
+	 */
+	public void setQueryCacheSize(int queryCacheSize) {
+		Assert.isTrue(queryCacheSize >= 0, "queryCacheSize must be >= 0");
+		this.queryCacheSize = queryCacheSize;
+		this.queryCache = new QueryCache(queryCacheSize);
+	}
+
+	/**
+	 * Returns the maximum number of compiled queries cached by the template.
+	 */
+	public int getQueryCacheSize() {
+		return this.queryCacheSize;
+	}
+
+	/**
+	 * Returns the number of query executions which reused a cached, compiled {@link Query}.
+	 */
+	public long getQueryCacheHits() {
+		return this.queryCacheHits.get();
+	}
+
+	/**
+	 * Returns the number of query executions which had to create and compile a new {@link Query}.
+	 */
+	public long getQueryCacheMisses() {
+		return this.queryCacheMisses.get();
+	}
+
+	/**
+	 * Discards all cached queries.
+	 */
+	public void clearQueryCache() {
+		this.queryCache = new QueryCache(queryCacheSize);
+	}
+
 	/* (non-Javadoc)
 	 * @see org.springframework.data.gemfire.GemfireOperations#containsKey(java.lang.Object)
 	 */
@@ -285,8 +350,7 @@ public class GemfireTemplate extends GemfireAccessor implements GemfireOperation
 		return execute(new GemfireCallback<SelectResults<E>>() {
 			@SuppressWarnings({ "unchecked", "rawtypes" })
 			public SelectResults<E> doInGemfire(Region region) throws GemFireCheckedException, GemFireException {
-				QueryService queryService = lookupQueryService(region);
-				Query q = queryService.newQuery(query);
+				Query q = lookupQuery(region, query);
  				Object result = q.execute(params);
  				if (result instanceof SelectResults) {
 					return (SelectResults<E>) result;
@@ -305,8 +369,7 @@ public class GemfireTemplate extends GemfireAccessor implements GemfireOperation
 		return execute(new GemfireCallback<T>() {
 			@SuppressWarnings({ "unchecked", "rawtypes" })
 			public T doInGemfire(Region region) throws GemFireCheckedException, GemFireException {
-				QueryService queryService = lookupQueryService(region);
-				Query q = queryService.newQuery(query);
+				Query q = lookupQuery(region, query);
 				Object result = q.execute(params);
 				if (result instanceof SelectResults) {
 					SelectResults<T> selectResults = (SelectResults<T>)result;
@@ -323,6 +386,41 @@ public class GemfireTemplate extends GemfireAccessor implements GemfireOperation
 	}
 
 
+	/**
+	 * Returns the compiled {@link Query} for the given query string, reusing a cached one if available.
+	 * 
+	 * @param region region to find the query service from
+	 * @param query the OQL query string
+	 * @return the query to execute
+	 * @see #setQueryCacheSize(int)
+	 */
+	protected Query lookupQuery(Region<?, ?> region, String query) {
+		if (queryCacheSize == 0) {
+			return lookupQueryService(region).newQuery(query);
+		}
+
+		QueryCache cache = queryCache;
+		Query q;
+
+		synchronized (cache) {
+			q = cache.get(query);
+		}
+
+		if (q != null) {
+			queryCacheHits.incrementAndGet();
+			return q;
+		}
+
+		queryCacheMisses.incrementAndGet();
+		q = lookupQueryService(region).newQuery(query);
+
+		synchronized (cache) {
+			cache.put(query, q);
+		}
+
+		return q;
+	}
+
 	/**
 	 * Returns the query service used by the template in its find methods.
 	 * 
@@ -433,4 +531,23 @@ public class GemfireTemplate extends GemfireAccessor implements GemfireOperation
 			}
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Bounded LRU cache of compiled queries. Not thread-safe, access has to be synchronized on the cache.
+	 */
+	@SuppressWarnings("serial")
+	private static class QueryCache extends LinkedHashMap<String, Query> {
+
+		private final int maxSize;
+
+		QueryCache(int maxSize) {
+			super(16, 0.75f, true);
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Query> eldest) {
+			return size() > maxSize;
+		}
+	}
+}
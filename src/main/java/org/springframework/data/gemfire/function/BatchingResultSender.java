@@ -14,55 +14,140 @@ package org.springframework.data.gemfire.function;
 
 import java.lang.reflect.Array;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.springframework.util.Assert;
 import org.springframework.util.ObjectUtils;
 
 import com.gemstone.gemfire.cache.execute.ResultSender;
+import com.gemstone.gemfire.cache.util.ObjectSizer;
 
 /**
- * Sends collection results using a {@link ResultSender} in chunks determined by batchSize
+ * Sends collection results using a {@link ResultSender} in chunks determined by batchSize. Iterators and
+ * iterables other than collections are streamed, consuming only the elements of the chunk being sent, in chunks
+ * limited by element count, estimated serialized size (using an {@link ObjectSizer} on a sample of the elements)
+ * and latency.
  * 
  * @author David Turanski
  * @since 1.3.0
  */
 class BatchingResultSender  {
+
+	/**
+	 * The estimated serialized size of the chunks of streamed results when neither a batch size nor a byte budget is
+	 * set.
+	 */
+	static final long DEFAULT_BATCH_BYTES = 1024 * 1024;
+
+	// the first elements are all sized, later ones only every SAMPLE_INTERVAL elements
+	private static final int SAMPLE_INTERVAL = 16;
+
 	private final int batchSize;
+	private final long batchBytes;
+	private final long maxBatchLatency;
+	private final ObjectSizer objectSizer;
 	private ResultSender<Object> resultSender;
+
+	private long sampledBytes;
+	private long samples;
 	
 	public BatchingResultSender(int batchSize, ResultSender<Object> resultSender) {
+		this(batchSize, 0, 0, ObjectSizer.DEFAULT, resultSender);
+	}
+
+	/**
+	 * @param batchSize the maximum number of results per chunk, 0 for no limit
+	 * @param batchBytes the estimated serialized size at which a chunk is sent, 0 for no limit
+	 * @param maxBatchLatency the time in milliseconds after which a chunk is sent, 0 for no limit
+	 * @param objectSizer the sizer used to estimate the size of sampled results
+	 * @param resultSender the result sender
+	 */
+	public BatchingResultSender(int batchSize, long batchBytes, long maxBatchLatency, ObjectSizer objectSizer,
+			ResultSender<Object> resultSender) {
 		Assert.notNull(resultSender, "resultSender cannot be null");
+		Assert.notNull(objectSizer, "objectSizer cannot be null");
 		Assert.isTrue(batchSize >= 0, "batchSize must be >= 0");
+		Assert.isTrue(batchBytes >= 0, "batchBytes must be >= 0");
+		Assert.isTrue(maxBatchLatency >= 0, "maxBatchLatency must be >= 0");
 		this.batchSize = batchSize;
+		this.batchBytes = batchBytes;
+		this.maxBatchLatency = maxBatchLatency;
+		this.objectSizer = objectSizer;
 		this.resultSender = resultSender;
 	}
 	
- 
+	/**
+	 * Sends the given results. Collections are sent as a single result if no limit is set, all other iterables
+	 * are streamed like {@link #sendResults(Iterator)}.
+	 */
 	public void sendResults(Iterable<?> result) {
-		if (batchSize == 0) {
+		if (batchSize == 0 && batchBytes == 0 && maxBatchLatency == 0 && result instanceof Collection) {
 			resultSender.lastResult(result);
 			return;
-		}	
-	
-		List<Object> chunk = new ArrayList<Object>(batchSize);
-		
-		for (Iterator<?> it = result.iterator(); it.hasNext();) {
-		    if (chunk.size() < batchSize) {
-				chunk.add(it.next());
-		    }		    
-			 
-			if (chunk.size() == batchSize || !it.hasNext()) {
-                if (it.hasNext()) {
-                		resultSender.sendResult(chunk);
-                } else {
-                		resultSender.lastResult(chunk);
-                }
-           		chunk.clear();
+		}
+
+		sendResults(result.iterator());
+	}
+
+	/**
+	 * Sends the elements of the given iterator in chunks as they are produced, never holding more than one chunk. A
+	 * chunk is sent once it holds batchSize elements, its estimated size reaches batchBytes or maxBatchLatency
+	 * elapsed since its first element was produced, whichever comes first. Without any of these limits, chunks are
+	 * sized by {@link #DEFAULT_BATCH_BYTES}.
+	 */
+	public void sendResults(Iterator<?> result) {
+		long chunkBytesLimit = (batchSize == 0 && batchBytes == 0 && maxBatchLatency == 0 ? DEFAULT_BATCH_BYTES
+				: batchBytes);
+		long maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(maxBatchLatency);
+
+		List<Object> chunk = new ArrayList<Object>();
+		long chunkBytes = 0;
+		long chunkStart = 0;
+		long index = 0;
+
+		while (result.hasNext()) {
+			Object element = result.next();
+			if (chunk.isEmpty() && maxLatencyNanos > 0) {
+				chunkStart = System.nanoTime();
+			}
+			chunk.add(element);
+			if (chunkBytesLimit > 0) {
+				chunkBytes += estimateSize(element, index++);
+			}
+
+			// look ahead to tell the last chunk
+			if (!result.hasNext()) {
+				break;
+			}
+
+			if ((batchSize > 0 && chunk.size() >= batchSize) || (chunkBytesLimit > 0 && chunkBytes >= chunkBytesLimit)
+					|| (maxLatencyNanos > 0 && System.nanoTime() - chunkStart >= maxLatencyNanos)) {
+				resultSender.sendResult(chunk);
+				// the sent chunk may still be referenced, e.g. for in-VM executions
+				chunk = new ArrayList<Object>();
+				chunkBytes = 0;
 			}
 		}
+
+		resultSender.lastResult(chunk);
+	}
+
+	/**
+	 * Estimates the serialized size of the given element, sizing only a sample of the elements and assuming the
+	 * average sampled size for the others.
+	 */
+	private long estimateSize(Object element, long index) {
+		if (element == null) {
+			return 1;
+		}
+		if (samples == 0 || index < SAMPLE_INTERVAL || index % SAMPLE_INTERVAL == 0) {
+			sampledBytes += objectSizer.sizeof(element);
+			samples++;
+		}
+		return sampledBytes / samples;
 	}
 
 	
@@ -76,12 +161,17 @@ class BatchingResultSender  {
 		Assert.isTrue(ObjectUtils.isArray(result));		
 		
 		int length = Array.getLength(result);
+
+		if (length == 0) {
+			resultSender.lastResult(result);
+			return;
+		}
 		
 		for (int from =0; from <  length; from += batchSize) {		
 			int to = Math.min(length,from + batchSize);
 			Object chunk = copyOfRange(result,from, to);
 
-			if (to == length -1) {
+			if (to == length) {
 				resultSender.lastResult(chunk);
 			} else {
 				resultSender.sendResult(chunk);
@@ -91,81 +181,16 @@ class BatchingResultSender  {
 
 
 	/**
-	 * @param result
-	 * @param from
-	 * @param to
-	 * @return
+	 * Copies the given range of an array of any component type, primitive arrays included, using a bulk copy.
+	 * 
+	 * @param result the array
+	 * @param from the initial index, inclusive
+	 * @param to the final index, exclusive
+	 * @return a new array of the same component type
 	 */
 	private Object copyOfRange(Object result, int from, int to) {
-				
-		Class<?> arrayClass = result.getClass();
-		int size = to - from;
-		
-		if (int[].class.isAssignableFrom(arrayClass)) {
-			int[] array = new int[size];
-			for(int i = 0; i < size ; ++i){
-                array[i] = Array.getInt(result, from + i);
-            }
-			return array;
-		}
-		
-		if (float[].class.isAssignableFrom(arrayClass)) {
-			float[] array = new float[size];
-			for(int i = 0; i < size ; ++i){
-                array[i] = Array.getFloat(result, from + i);
-            }
-			return array;
-		}
-		
-		if (double[].class.isAssignableFrom(arrayClass)) {
-			double[] array = new double[size];
-			for(int i = 0; i < size ; ++i){
-                array[i] = Array.getDouble(result, from + i);
-            }
-			return array;
-		}
-		
-		if (boolean[].class.isAssignableFrom(arrayClass)) {
-			boolean[] array = new boolean[size];
-			for(int i = 0; i < size ; ++i){
-                array[i] = Array.getBoolean(result, from + i);
-            }
-			return array;
-		}
-		
-		if (byte[].class.isAssignableFrom(arrayClass)) {
-			byte[] array = new byte[size];
-			for(int i = 0; i < size ; ++i){
-                array[i] = Array.getByte(result, from + i);
-            }
-			return array;
-		}
-		
-		if (short[].class.isAssignableFrom(arrayClass)) {
-			short[] array = new short[size];
-			for(int i = 0; i < size ; ++i){
-                array[i] = Array.getShort(result, from + i);
-            }
-			return array;
-		}
-		
-		if (long[].class.isAssignableFrom(arrayClass)) {
-			long[] array = new long[size];
-			for(int i = 0; i < size ; ++i){
-                array[i] = Array.getLong(result, from + i);
-            }
-			return array;
-		}
-		
-		if (char[].class.isAssignableFrom(arrayClass)) {
-			char[] array = new char[size];
-			for(int i = 0; i < size ; ++i){
-                array[i] = Array.getChar(result, from + i);
-            }
-			return array;
-		}
-		
-	    return Arrays.copyOfRange((Object[])result, from, to);
-	 
+		Object array = Array.newInstance(result.getClass().getComponentType(), to - from);
+		System.arraycopy(result, from, array, 0, to - from);
+		return array;
 	}
 }
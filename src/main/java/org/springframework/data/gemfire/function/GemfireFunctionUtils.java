@@ -64,6 +64,24 @@ public abstract class GemfireFunctionUtils {
 			function.setBatchSize(batchSize);
 		}
 
+		if (attributes.containsKey("batchBytes")) {
+			long batchBytes = (Long) attributes.get("batchBytes");
+			Assert.isTrue(
+					batchBytes >= 0,
+					String.format("batchBytes must be a non-negative value %s.%s", target.getClass().getName(),
+							method.getName()));
+			function.setBatchBytes(batchBytes);
+		}
+
+		if (attributes.containsKey("maxBatchLatency")) {
+			long maxBatchLatency = (Long) attributes.get("maxBatchLatency");
+			Assert.isTrue(
+					maxBatchLatency >= 0,
+					String.format("maxBatchLatency must be a non-negative value %s.%s", target.getClass().getName(),
+							method.getName()));
+			function.setMaxBatchLatency(maxBatchLatency);
+		}
+
 		if (attributes.containsKey("hasResult")) {
 			boolean hasResult = (Boolean) attributes.get("hasResult");
 			//Only set if true
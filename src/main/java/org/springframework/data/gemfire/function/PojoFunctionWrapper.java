@@ -13,6 +13,7 @@
 package org.springframework.data.gemfire.function;
 
 import java.lang.reflect.Method;
+import java.util.Iterator;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -23,6 +24,7 @@ import org.springframework.util.StringUtils;
 import com.gemstone.gemfire.cache.execute.Function;
 import com.gemstone.gemfire.cache.execute.FunctionContext;
 import com.gemstone.gemfire.cache.execute.ResultSender;
+import com.gemstone.gemfire.cache.util.ObjectSizer;
 
 /**
  * Invokes a POJO's given method as a Gemfire remote function. 
@@ -47,6 +49,8 @@ public class PojoFunctionWrapper implements Function {
 	private final Method method;
 	private final String id;
 	private volatile int batchSize;
+	private volatile long batchBytes;
+	private volatile long maxBatchLatency;
 
 	private final FunctionArgumentResolver functionArgumentResolver;
 
@@ -97,6 +101,14 @@ public class PojoFunctionWrapper implements Function {
 		this.batchSize = batchSize;
 	}
 
+	public void setBatchBytes(long batchBytes) {
+		this.batchBytes = batchBytes;
+	}
+
+	public void setMaxBatchLatency(long maxBatchLatency) {
+		this.maxBatchLatency = maxBatchLatency;
+	}
+
 	public void setHasResult(boolean hasResult) {
 		this.hasResult = hasResult;
 	}
@@ -139,9 +151,15 @@ public class PojoFunctionWrapper implements Function {
 		if (ObjectUtils.isArray(result)) {	
 			new BatchingResultSender(batchSize, resultSender).sendArrayResults(result);
 		} else if (Iterable.class.isAssignableFrom(result.getClass())) {
-			new BatchingResultSender(batchSize, resultSender).sendResults((Iterable<?>) result);
+			newBatchingResultSender(resultSender).sendResults((Iterable<?>) result);
+		} else if (result instanceof Iterator) {
+			newBatchingResultSender(resultSender).sendResults((Iterator<?>) result);
 		} else {
 			resultSender.lastResult(result);
 		}
 	}
+
+	private BatchingResultSender newBatchingResultSender(ResultSender<Object> resultSender) {
+		return new BatchingResultSender(batchSize, batchBytes, maxBatchLatency, ObjectSizer.DEFAULT, resultSender);
+	}
 }
@@ -44,6 +44,18 @@ public @interface GemfireFunction {
 	 * controls the maximum number of results sent at one time
 	 */
 	int batchSize() default 0;
+	/**
+	 * controls the estimated size in bytes of the results sent at one time when returning an Iterator or an
+	 * Iterable. Collections are only split once any of batchSize, batchBytes or maxBatchLatency is set; if none is
+	 * set, they are sent as a single result while other results are sent in chunks of about 1MB
+	 */
+	long batchBytes() default 0;
+	/**
+	 * controls the maximum time in milliseconds results are held before being sent when returning an Iterator or
+	 * an Iterable, Collections included. The time is only checked as results are produced: results held longer are
+	 * sent once the next result is produced, or along with the last one
+	 */
+	long maxBatchLatency() default 0;
 	/**
 	 * normally follows the method return type, i.e., false if void, true otherwise. This allows overriding 
 	 * a void method which uses the resultSender directly.
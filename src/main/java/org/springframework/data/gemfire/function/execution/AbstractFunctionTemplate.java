@@ -12,11 +12,24 @@
  */
 package org.springframework.data.gemfire.function.execution;
 
+import java.util.Iterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.data.gemfire.support.DefaultTaskExecutor;
+import org.springframework.util.Assert;
 
 import com.gemstone.gemfire.cache.execute.Execution;
 import com.gemstone.gemfire.cache.execute.Function;
+import com.gemstone.gemfire.cache.execute.FunctionException;
+import com.gemstone.gemfire.cache.execute.FunctionService;
 import com.gemstone.gemfire.cache.execute.ResultCollector;
 
 /**
@@ -25,12 +38,15 @@ import com.gemstone.gemfire.cache.execute.ResultCollector;
  * @author David Turanski
  *
  */
-abstract class AbstractFunctionTemplate  implements GemfireFunctionOperations {
+abstract class AbstractFunctionTemplate  implements GemfireFunctionOperations, DisposableBean {
 
 	protected Log log = LogFactory.getLog(this.getClass());
 	 
 	protected long timeout;
 	protected volatile ResultCollector<?, ?> resultCollector;
+	protected AsyncTaskExecutor taskExecutor;
+	private DefaultTaskExecutor defaultTaskExecutor;
+	protected int streamingCapacity = StreamingResultCollector.DEFAULT_CAPACITY;
 	
 	@Override
 	public <T> Iterable<T> execute(Function function, Object... args) {
@@ -73,6 +89,38 @@ abstract class AbstractFunctionTemplate  implements GemfireFunctionOperations {
 		return this.<T>executeAndExtract(functionExecution);		
 	}
 
+	@Override
+	public <T> Iterator<T> executeAndStream(Function function, Object... args) {
+		AbstractFunctionExecution functionExecution = getFunctionExecution()
+				 .setArgs(args)
+				 .setFunction(function);
+		return executeAndStream(functionExecution);
+	}
+
+	@Override
+	public <T> Iterator<T> executeAndStream(String functionId, Object... args) {
+		AbstractFunctionExecution functionExecution = getFunctionExecution()
+				 .setArgs(args)
+				 .setFunctionId(functionId);
+		return executeAndStream(functionExecution);
+	}
+
+	@Override
+	public <T> Future<Iterable<T>> executeAsync(Function function, Object... args) {
+		AbstractFunctionExecution functionExecution = getFunctionExecution()
+				 .setArgs(args)
+				 .setFunction(function);
+		return executeAsync(functionExecution);
+	}
+
+	@Override
+	public <T> Future<Iterable<T>> executeAsync(String functionId, Object... args) {
+		AbstractFunctionExecution functionExecution = getFunctionExecution()
+				 .setArgs(args)
+				 .setFunctionId(functionId);
+		return executeAsync(functionExecution);
+	}
+
 	@Override
 	public <T> T execute(GemfireFunctionCallback<T> callback) {
 		Execution execution = getFunctionExecution().getExecution();
@@ -92,6 +140,69 @@ abstract class AbstractFunctionTemplate  implements GemfireFunctionOperations {
 		 return execution.execute(returnResult);
 	}
 	
+	protected <T> Future<Iterable<T>> executeAsync(final AbstractFunctionExecution execution) {
+		return getTaskExecutor().submit(new Callable<Iterable<T>>() {
+			public Iterable<T> call() {
+				return AbstractFunctionTemplate.this.<T> execute(execution);
+			}
+		});
+	}
+
+	/**
+	 * Executes the function on the task executor, as GemFire may only return once all results are received, and
+	 * returns an iterator over the results as they arrive. The iterator implements {@link java.io.Closeable} and
+	 * rethrows failures of the execution, including those thrown after GemFire ended the results.
+	 */
+	protected <T> Iterator<T> executeAndStream(final AbstractFunctionExecution execution) {
+		final boolean hasResult = hasResult(execution);
+		final StreamingResultCollector<T> collector = new StreamingResultCollector<T>(streamingCapacity);
+		collector.trackExecution();
+		execution.setTimeout(timeout)
+		.setResultCollector(collector);
+
+		getTaskExecutor().execute(new Runnable() {
+			public void run() {
+				RuntimeException failure = null;
+				try {
+					execution.execute(false);
+				} catch (RuntimeException e) {
+					failure = e;
+				} catch (Error e) {
+					failure = new FunctionException(e);
+					throw e;
+				} finally {
+					collector.executionReturned(failure);
+					// GemFire only ends the results of functions returning any
+					if (!hasResult) {
+						collector.endResults();
+					}
+				}
+			}
+		});
+
+		try {
+			Iterable<T> results = (timeout > 0 ? collector.getResult(timeout, TimeUnit.MILLISECONDS) : collector
+					.getResult());
+			return results.iterator();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new FunctionException(e);
+		}
+	}
+
+	/**
+	 * Returns whether the executed function returns results. Functions executed by id are looked up in the
+	 * {@link FunctionService}; for those not registered locally, e.g. when executed on servers, this is unknown, so
+	 * their results are only streamed if a timeout is set, failing the iteration once no result arrives in time.
+	 */
+	private boolean hasResult(AbstractFunctionExecution execution) {
+		Function function = execution.getFunction() != null ? execution.getFunction() : FunctionService
+				.getFunction(execution.getFunctionId());
+		Assert.state(function != null || timeout > 0, "Function " + execution.getFunctionId()
+				+ " is not registered locally, so whether it returns results is unknown; set a timeout to stream them");
+		return function == null || function.hasResult();
+	}
+
 	protected <T> T executeAndExtract(AbstractFunctionExecution execution) {
 		 execution.setTimeout(timeout)
 		 .setResultCollector(resultCollector);
@@ -109,6 +220,55 @@ abstract class AbstractFunctionTemplate  implements GemfireFunctionOperations {
 	public ResultCollector<?,?> getResultCollector() {
 		return this.resultCollector;
 	}
+
+	/**
+	 * Sets the executor running asynchronous function executions and the ones whose results are streamed. Defaults
+	 * to a {@link DefaultTaskExecutor} created on first use and shut down by {@link #destroy()}, whose bounded pool
+	 * queues executions once all its threads are busy. Configure a dedicated executor to issue many concurrent, long
+	 * running executions.
+	 * 
+	 * @param taskExecutor the task executor
+	 */
+	public void setTaskExecutor(Executor taskExecutor) {
+		Assert.notNull(taskExecutor, "taskExecutor cannot be null");
+		if (taskExecutor instanceof AsyncTaskExecutor) {
+			this.taskExecutor = (AsyncTaskExecutor) taskExecutor;
+		} else {
+			this.taskExecutor = new TaskExecutorAdapter(taskExecutor);
+		}
+	}
+
+	/**
+	 * Sets the maximum number of streamed results buffered until the caller consumes them. Defaults to
+	 * {@value StreamingResultCollector#DEFAULT_CAPACITY}.
+	 * 
+	 * @param streamingCapacity the maximum number of buffered results
+	 * @see StreamingResultCollector#StreamingResultCollector(int)
+	 */
+	public void setStreamingCapacity(int streamingCapacity) {
+		this.streamingCapacity = streamingCapacity;
+	}
+
+	/**
+	 * Shuts down the default executor, if one was created.
+	 */
+	@Override
+	public synchronized void destroy() {
+		if (defaultTaskExecutor != null) {
+			defaultTaskExecutor.destroy();
+			defaultTaskExecutor = null;
+		}
+	}
+
+	protected synchronized AsyncTaskExecutor getTaskExecutor() {
+		if (taskExecutor != null) {
+			return taskExecutor;
+		}
+		if (defaultTaskExecutor == null) {
+			defaultTaskExecutor = new DefaultTaskExecutor("gemfire-function-");
+		}
+		return defaultTaskExecutor;
+	}
 	
 	protected abstract AbstractFunctionExecution getFunctionExecution();
 }
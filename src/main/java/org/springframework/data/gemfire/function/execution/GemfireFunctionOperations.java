@@ -12,6 +12,8 @@
  */
 package org.springframework.data.gemfire.function.execution;
 
+import java.util.Iterator;
+import java.util.concurrent.Future;
 
 import com.gemstone.gemfire.cache.execute.Function;
 
@@ -64,6 +66,44 @@ public interface GemfireFunctionOperations {
 	 */
 	public abstract <T> T executeAndExtract(String functionId, Object... args);	
 	
+	/**
+	 * Execute an unregistered function asynchronously
+	 * @param function the function
+	 * @param args calling arguments
+	 * @return a future holding the contents of the results collector
+	 */
+	public abstract <T> Future<Iterable<T>> executeAsync(Function function, Object... args);
+
+	/**
+	 * Execute a function registered with an ID asynchronously
+	 * @param functionId the function ID
+	 * @param args the calling arguments
+	 * @return a future holding the results
+	 */
+	public abstract <T> Future<Iterable<T>> executeAsync(String functionId, Object... args);
+
+	/**
+	 * Execute an unregistered function, streaming the results to the caller as they arrive
+	 * @param function the function
+	 * @param args calling arguments
+	 * @return an iterator over the results, blocking until the next result arrives, to be closed through
+	 *         {@link java.io.Closeable#close()} if not consumed to the end
+	 * @see StreamingResultCollector
+	 */
+	public abstract <T> Iterator<T> executeAndStream(Function function, Object... args);
+
+	/**
+	 * Execute a function registered with an ID, streaming the results to the caller as they arrive. Functions not
+	 * registered locally, e.g. executed on servers, require a timeout, as they may not return any results
+	 * @param functionId the function ID
+	 * @param args calling arguments
+	 * @return an iterator over the results, blocking until the next result arrives, to be closed through
+	 *         {@link java.io.Closeable#close()} if not consumed to the end
+	 * @throws IllegalStateException if the function is not registered locally and no timeout is set
+	 * @see StreamingResultCollector
+	 */
+	public abstract <T> Iterator<T> executeAndStream(String functionId, Object... args);
+	
 	
     /**
      * Execute a function using a native GemFire {@link Execution} instance
@@ -13,6 +13,9 @@
 package org.springframework.data.gemfire.function.execution;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 
 import org.aopalliance.intercept.MethodInterceptor;
 import org.aopalliance.intercept.MethodInvocation;
@@ -21,19 +24,25 @@ import org.apache.commons.logging.LogFactory;
 import org.springframework.aop.framework.ProxyFactory;
 import org.springframework.aop.support.AopUtils;
 import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.FactoryBean;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.data.gemfire.support.DefaultTaskExecutor;
 import org.springframework.util.Assert;
 import org.springframework.util.ClassUtils;
 
 import com.gemstone.gemfire.cache.execute.FunctionService;
 
 /**
- * A proxy Factory Bean for all non-region function execution interfaces
+ * A proxy Factory Bean for all non-region function execution interfaces. Methods declaring {@link Future} as return
+ * type execute the function asynchronously and return a {@link Future} holding the result.
  *  
  * @author David Turanski
  *
  */
-public class GemfireFunctionProxyFactoryBean implements FactoryBean<Object>, MethodInterceptor, BeanClassLoaderAware {
+public class GemfireFunctionProxyFactoryBean implements FactoryBean<Object>, MethodInterceptor, BeanClassLoaderAware,
+		DisposableBean {
 
 	protected volatile ClassLoader beanClassLoader = ClassUtils.getDefaultClassLoader();
 
@@ -51,6 +60,10 @@ public class GemfireFunctionProxyFactoryBean implements FactoryBean<Object>, Met
 
 	private FunctionExecutionMethodMetadata<MethodMetadata> methodMetadata;
 
+	private AsyncTaskExecutor taskExecutor;
+
+	private DefaultTaskExecutor defaultTaskExecutor;
+
 	/**
 	 * @param serviceInterface the proxied interface
 	 * @param functionId the associated function id (must be a function registered by this id with the GemFire {@link FunctionService}
@@ -88,7 +101,51 @@ public class GemfireFunctionProxyFactoryBean implements FactoryBean<Object>, Met
 			logger.debug("invoking method " + invocation.getMethod().getName());
 		}
 
-		return invokeFunction(invocation.getMethod(), invocation.getArguments());
+		final Method method = invocation.getMethod();
+		final Object[] args = invocation.getArguments();
+
+		if (Future.class.equals(method.getReturnType())) {
+			return getTaskExecutor().submit(new Callable<Object>() {
+				public Object call() {
+					return invokeFunction(method, args);
+				}
+			});
+		}
+
+		return invokeFunction(method, args);
+	}
+
+	/**
+	 * Configures the {@link Executor} to run the function executions of methods returning a {@link Future} on. If no
+	 * executor is set, a {@link DefaultTaskExecutor} is created on first use and shut down along with this factory
+	 * bean. Its bounded pool queues executions once all its threads are busy.
+	 * 
+	 * @param taskExecutor the executor to use, {@literal null} to use the default one.
+	 */
+	public void setTaskExecutor(Executor taskExecutor) {
+		if (taskExecutor == null || taskExecutor instanceof AsyncTaskExecutor) {
+			this.taskExecutor = (AsyncTaskExecutor) taskExecutor;
+		} else {
+			this.taskExecutor = new TaskExecutorAdapter(taskExecutor);
+		}
+	}
+
+	private synchronized AsyncTaskExecutor getTaskExecutor() {
+		if (taskExecutor != null) {
+			return taskExecutor;
+		}
+		if (defaultTaskExecutor == null) {
+			defaultTaskExecutor = new DefaultTaskExecutor("gemfire-function-");
+		}
+		return defaultTaskExecutor;
+	}
+
+	@Override
+	public synchronized void destroy() {
+		if (defaultTaskExecutor != null) {
+			defaultTaskExecutor.destroy();
+			defaultTaskExecutor = null;
+		}
 	}
 
 
@@ -0,0 +1,290 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.gemfire.function.execution;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.springframework.util.Assert;
+
+import com.gemstone.gemfire.cache.execute.FunctionException;
+import com.gemstone.gemfire.cache.execute.ResultCollector;
+import com.gemstone.gemfire.distributed.DistributedMember;
+
+/**
+ * {@link ResultCollector} handing each result (i.e. each chunk sent through
+ * {@link com.gemstone.gemfire.cache.execute.ResultSender#sendResult(Object)}) to the caller as soon as it arrives
+ * instead of accumulating all of them. The {@link Iterable} returned by {@link #getResult()} can be iterated once;
+ * its iterator blocks until the next result arrives or the results end.
+ * <p/>
+ * Results not yet consumed are buffered in a queue of bounded capacity, {@value #DEFAULT_CAPACITY} results unless
+ * specified otherwise; the threads delivering the results block once it is reached until the caller catches up. Callers not consuming the iterator to the end have to close it
+ * (it implements {@link Closeable}), which discards the buffered and any further results and releases the
+ * delivering threads.
+ *
+ * @param <T> the result type
+ */
+public class StreamingResultCollector<T> implements ResultCollector<Object, Iterable<T>> {
+
+	/**
+	 * The default maximum number of buffered results.
+	 */
+	public static final int DEFAULT_CAPACITY = 1000;
+
+	private static final Object NULL = new Object();
+	private static final Object END = new Object();
+	private static final long PUT_INTERVAL = 100;
+
+	private final BlockingQueue<Object> results;
+	private final AtomicBoolean ended = new AtomicBoolean();
+	private final AtomicBoolean iterated = new AtomicBoolean();
+	private final AtomicBoolean closed = new AtomicBoolean();
+
+	// released once the execution delivering the results returned, if tracked
+	private volatile CountDownLatch execution;
+	private volatile RuntimeException lateFailure;
+
+	/**
+	 * Creates a new {@link StreamingResultCollector} buffering at most {@value #DEFAULT_CAPACITY} results.
+	 */
+	public StreamingResultCollector() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new {@link StreamingResultCollector} buffering at most the given number of results.
+	 *
+	 * @param capacity the maximum number of buffered results
+	 */
+	public StreamingResultCollector(int capacity) {
+		Assert.isTrue(capacity > 0, "capacity must be > 0");
+		this.results = new LinkedBlockingQueue<Object>(capacity);
+	}
+
+	@Override
+	public Iterable<T> getResult() throws FunctionException {
+		return new StreamingIterable(0);
+	}
+
+	/**
+	 * Returns the results, waiting at most the given time for each of them.
+	 */
+	@Override
+	public Iterable<T> getResult(long timeout, TimeUnit unit) throws FunctionException, InterruptedException {
+		return new StreamingIterable(unit.toMillis(timeout));
+	}
+
+	@Override
+	public void addResult(DistributedMember memberID, Object resultOfSingleExecution) {
+		put(resultOfSingleExecution == null ? NULL : resultOfSingleExecution);
+	}
+
+	@Override
+	public void endResults() {
+		if (ended.compareAndSet(false, true)) {
+			put(END);
+		}
+	}
+
+	/**
+	 * Discards the results not consumed yet, results already handed to the caller cannot be revoked.
+	 */
+	@Override
+	public void clearResults() {
+		results.clear();
+	}
+
+	/**
+	 * Ends the results with the given exception, rethrown to the caller once the results received before are
+	 * consumed. If the results already ended, the exception is rethrown once the end is reached instead.
+	 *
+	 * @param cause the failure
+	 */
+	void endResults(RuntimeException cause) {
+		if (ended.compareAndSet(false, true)) {
+			put(new Failure(cause));
+		} else {
+			lateFailure = cause;
+		}
+	}
+
+	/**
+	 * Makes the end of the results wait for the execution delivering them to return, as signalled through
+	 * {@link #executionReturned(RuntimeException)}, so failures it throws after ending the results are not lost.
+	 */
+	void trackExecution() {
+		execution = new CountDownLatch(1);
+	}
+
+	/**
+	 * Signals the tracked execution returned, failing the results with the given exception, if any.
+	 *
+	 * @param failure the exception thrown by the execution or {@literal null}
+	 */
+	void executionReturned(RuntimeException failure) {
+		if (failure != null) {
+			endResults(failure);
+		}
+		CountDownLatch latch = execution;
+		if (latch != null) {
+			latch.countDown();
+		}
+	}
+
+	/**
+	 * Discards all buffered and further results, releasing the threads waiting to deliver results.
+	 */
+	void close() {
+		if (closed.compareAndSet(false, true)) {
+			results.clear();
+		}
+	}
+
+	private void put(Object result) {
+		try {
+			// wait for space in the buffer until the caller closes the results
+			while (!closed.get()) {
+				if (results.offer(result, PUT_INTERVAL, TimeUnit.MILLISECONDS)) {
+					return;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new FunctionException(e);
+		}
+	}
+
+	private class StreamingIterable implements Iterable<T> {
+
+		private final long timeout;
+
+		StreamingIterable(long timeout) {
+			this.timeout = timeout;
+		}
+
+		@Override
+		public Iterator<T> iterator() {
+			Assert.state(iterated.compareAndSet(false, true), "The streamed results can only be iterated once");
+			return new StreamingIterator(timeout);
+		}
+	}
+
+	private class StreamingIterator implements Iterator<T>, Closeable {
+
+		private final long timeout;
+		private Object next;
+
+		StreamingIterator(long timeout) {
+			this.timeout = timeout;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (closed.get()) {
+				next = END;
+			}
+			if (next == null) {
+				next = take();
+				if (next == END) {
+					next = awaitExecution();
+				}
+			}
+			if (next instanceof Failure) {
+				RuntimeException cause = ((Failure) next).cause;
+				next = END;
+				throw cause;
+			}
+			return next != END;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public T next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Object result = next;
+			next = null;
+			return result == NULL ? null : (T) result;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		/**
+		 * Stops the iteration, discarding the results not consumed yet.
+		 */
+		@Override
+		public void close() {
+			StreamingResultCollector.this.close();
+		}
+
+		private Object take() {
+			try {
+				if (timeout <= 0) {
+					return results.take();
+				}
+				Object result = results.poll(timeout, TimeUnit.MILLISECONDS);
+				if (result == null) {
+					throw new FunctionException("No result received within " + timeout + " ms");
+				}
+				return result;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new FunctionException(e);
+			}
+		}
+
+		/**
+		 * Waits for the tracked execution to return, returning the failure it threw after the end of the results,
+		 * if any.
+		 */
+		private Object awaitExecution() {
+			CountDownLatch latch = execution;
+			try {
+				if (latch != null) {
+					if (timeout <= 0) {
+						latch.await();
+					} else if (!latch.await(timeout, TimeUnit.MILLISECONDS)) {
+						throw new FunctionException("Execution did not return within " + timeout + " ms");
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new FunctionException(e);
+			}
+			RuntimeException failure = lateFailure;
+			return (failure != null ? new Failure(failure) : END);
+		}
+	}
+
+	private static class Failure {
+
+		private final RuntimeException cause;
+
+		Failure(RuntimeException cause) {
+			this.cause = cause;
+		}
+	}
+}
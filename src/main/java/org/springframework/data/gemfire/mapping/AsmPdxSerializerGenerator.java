@@ -0,0 +1,725 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.gemfire.mapping;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.beans.BeanUtils;
+import org.springframework.data.mapping.PreferredConstructor;
+import org.springframework.data.mapping.PreferredConstructor.Parameter;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import com.gemstone.gemfire.pdx.PdxReader;
+import com.gemstone.gemfire.pdx.PdxSerializer;
+import com.gemstone.gemfire.pdx.PdxWriter;
+
+/**
+ * Generates a {@link PdxSerializer} per {@link GemfirePersistentEntity} that reads and writes the entity's properties
+ * directly, using the typed {@link PdxWriter} and {@link PdxReader} methods (e.g. {@code writeInt}, {@code readLong})
+ * instead of reflection and boxed field values. This class relies on the ASM package repacked by Spring framework.
+ * <p/>
+ * Only entities that can be accessed from the generated code are supported: public, non-abstract classes with a public
+ * no-arg persistence constructor whose properties are either backed by public getter/setter pairs or public non-final
+ * fields. {@link #getSerializer(GemfirePersistentEntity)} returns {@literal null} for all other entities.
+ * <p/>
+ * Additionally generates {@link PdxEntityInstantiator}s invoking an entity's persistence constructor directly, see
+ * {@link #getInstantiator(GemfirePersistentEntity)}.
+ *
+ * @see org.springframework.data.gemfire.serialization.AsmInstantiatorGenerator
+ */
+public class AsmPdxSerializerGenerator implements Opcodes {
+
+	private static final Log LOG = LogFactory.getLog(AsmPdxSerializerGenerator.class);
+
+	private static final String PKG = "org/springframework/data/gemfire/mapping/";
+	private static final String CLASS_LABEL = "PdxSerializer$Synthetic";
+	private static final String INSTANTIATOR_CLASS_LABEL = "PdxEntityInstantiator$Synthetic";
+	private static final String PREGENERATED_CLASS_LABEL = "$$PdxSerializer";
+	private static final String PREGENERATED_INSTANTIATOR_CLASS_LABEL = "$$PdxEntityInstantiator";
+	private static final String SIGNATURE_FIELD = "MAPPING";
+
+	private static final String INIT = "<init>";
+	private static final String OBJECT_NAME = Type.getInternalName(Object.class);
+	private static final String SERIALIZER_NAME = Type.getInternalName(PdxSerializer.class);
+	private static final String WRITER_NAME = Type.getInternalName(PdxWriter.class);
+	private static final String READER_NAME = Type.getInternalName(PdxReader.class);
+	private static final String INSTANTIATOR_NAME = Type.getInternalName(PdxEntityInstantiator.class);
+	private static final String STRING_DESCRIPTOR = Type.getDescriptor(String.class);
+	private static final String WRITER_DESCRIPTOR = Type.getDescriptor(PdxWriter.class);
+
+	private static final String TO_DATA = "toData";
+	private static final String TO_DATA_DESC = Type.getMethodDescriptor(Type.BOOLEAN_TYPE, new Type[] {
+			Type.getType(Object.class), Type.getType(PdxWriter.class) });
+	private static final String FROM_DATA = "fromData";
+	private static final String FROM_DATA_DESC = Type.getMethodDescriptor(Type.getType(Object.class), new Type[] {
+			Type.getType(Class.class), Type.getType(PdxReader.class) });
+	private static final String CREATE_INSTANCE = "createInstance";
+	private static final String CREATE_INSTANCE_DESC = Type.getMethodDescriptor(Type.getType(Object.class),
+			new Type[] { Type.getType(PdxReader.class) });
+	private static final String MARK_IDENTITY_FIELD = "markIdentityField";
+	private static final String VOID_NO_ARG_DESC = Type.getMethodDescriptor(Type.VOID_TYPE, new Type[] {});
+
+	/**
+	 * Types with a dedicated {@link PdxWriter} and {@link PdxReader} method, mapped to the suffix of the method name.
+	 * These are the types {@link PdxWriter#writeField(String, Object, Class)} writes with their dedicated field type as
+	 * well, all other types are written as objects.
+	 */
+	private static final Map<Class<?>, String> PDX_TYPES = new HashMap<Class<?>, String>();
+
+	static {
+		PDX_TYPES.put(boolean.class, "Boolean");
+		PDX_TYPES.put(byte.class, "Byte");
+		PDX_TYPES.put(char.class, "Char");
+		PDX_TYPES.put(short.class, "Short");
+		PDX_TYPES.put(int.class, "Int");
+		PDX_TYPES.put(long.class, "Long");
+		PDX_TYPES.put(float.class, "Float");
+		PDX_TYPES.put(double.class, "Double");
+		PDX_TYPES.put(String.class, "String");
+		PDX_TYPES.put(Date.class, "Date");
+		PDX_TYPES.put(boolean[].class, "BooleanArray");
+		PDX_TYPES.put(byte[].class, "ByteArray");
+		PDX_TYPES.put(char[].class, "CharArray");
+		PDX_TYPES.put(short[].class, "ShortArray");
+		PDX_TYPES.put(int[].class, "IntArray");
+		PDX_TYPES.put(long[].class, "LongArray");
+		PDX_TYPES.put(float[].class, "FloatArray");
+		PDX_TYPES.put(double[].class, "DoubleArray");
+		PDX_TYPES.put(String[].class, "StringArray");
+		PDX_TYPES.put(Object[].class, "ObjectArray");
+	}
+
+	// generated class counter
+	private static final AtomicLong counter = new AtomicLong(1);
+
+	private static final class BytecodeClassLoader extends ClassLoader {
+
+		public BytecodeClassLoader(ClassLoader loader) {
+			super(loader);
+		}
+
+		public Class<?> loadClass(String name, byte[] bytecode) {
+			return defineClass(name, bytecode, 0, bytecode.length);
+		}
+	}
+
+	/**
+	 * Returns a {@link PdxSerializer} dedicated to the given {@link GemfirePersistentEntity}. Uses the serializer
+	 * generated at build time if present and generated for the same properties as the given entity maps, generates a
+	 * new one otherwise.
+	 *
+	 * @param entity must not be {@literal null}.
+	 * @return the generated serializer or {@literal null} if the entity cannot be accessed by generated code.
+	 */
+	public PdxSerializer getSerializer(GemfirePersistentEntity<?> entity) {
+
+		Class<?> type = entity.getType();
+		List<PropertyAccess> properties = getSerializedProperties(entity);
+
+		if (properties == null) {
+			return null;
+		}
+
+		String idProperty = getIdProperty(entity);
+		PdxSerializer pregenerated = loadPregenerated(getPregeneratedSerializerName(type), type, PdxSerializer.class,
+				getSignature(properties, idProperty));
+
+		if (pregenerated != null) {
+			return pregenerated;
+		}
+
+		String className = PKG + type.getSimpleName() + CLASS_LABEL + counter.getAndIncrement();
+
+		try {
+			byte[] bytecode = generateClassBytecode(className, type, properties, idProperty);
+			return (PdxSerializer) instantiate(className, type, bytecode);
+		} catch (RuntimeException e) {
+			LOG.debug("Could not generate PdxSerializer for " + type + ", falling back to reflection", e);
+		} catch (LinkageError e) {
+			LOG.debug("Could not generate PdxSerializer for " + type + ", falling back to reflection", e);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns a {@link PdxEntityInstantiator} invoking the persistence constructor of the given
+	 * {@link GemfirePersistentEntity} directly, with the arguments read using the typed {@link PdxReader} methods.
+	 * Supports public, non-abstract top level or static nested classes with a public persistence constructor whose
+	 * parameters map to properties of the same type and do not use SpEL expressions. Uses the instantiator generated at
+	 * build time if present and generated for the same constructor arguments.
+	 *
+	 * @param entity must not be {@literal null}.
+	 * @return the generated instantiator or {@literal null} if the entity's constructor cannot be invoked this way.
+	 */
+	public PdxEntityInstantiator getInstantiator(GemfirePersistentEntity<?> entity) {
+
+		Class<?> type = entity.getType();
+		List<ParameterRead> parameters = getParameterReads(entity);
+
+		if (parameters == null) {
+			return null;
+		}
+
+		PdxEntityInstantiator pregenerated = loadPregenerated(getPregeneratedInstantiatorName(type), type,
+				PdxEntityInstantiator.class, getSignature(parameters));
+
+		if (pregenerated != null) {
+			return pregenerated;
+		}
+
+		String className = PKG + type.getSimpleName() + INSTANTIATOR_CLASS_LABEL + counter.getAndIncrement();
+
+		try {
+			byte[] bytecode = generateInstantiatorBytecode(className, entity.getPersistenceConstructor().getConstructor(),
+					parameters);
+			return (PdxEntityInstantiator) instantiate(className, type, bytecode);
+		} catch (RuntimeException e) {
+			LOG.debug("Could not generate PdxEntityInstantiator for " + type + ", falling back to reflection", e);
+		} catch (LinkageError e) {
+			LOG.debug("Could not generate PdxEntityInstantiator for " + type + ", falling back to reflection", e);
+		}
+
+		return null;
+	}
+
+	/**
+	 * Returns the name of the {@link PdxSerializer} generated at build time for the given type, loaded through the
+	 * type's class loader.
+	 *
+	 * @see org.springframework.data.gemfire.support.GeneratedClassWriter
+	 */
+	public static String getPregeneratedSerializerName(Class<?> type) {
+		return type.getName() + PREGENERATED_CLASS_LABEL;
+	}
+
+	/**
+	 * Returns the name of the {@link PdxEntityInstantiator} generated at build time for the given type.
+	 */
+	public static String getPregeneratedInstantiatorName(Class<?> type) {
+		return type.getName() + PREGENERATED_INSTANTIATOR_CLASS_LABEL;
+	}
+
+	/**
+	 * Generates the bytecode of the {@link PdxSerializer} for the given entity, to be used at build time.
+	 *
+	 * @param entity must not be {@literal null}.
+	 * @return the bytecode of the class named {@link #getPregeneratedSerializerName(Class)} or {@literal null} if the
+	 *         entity cannot be accessed by generated code.
+	 */
+	public byte[] generateSerializerBytecode(GemfirePersistentEntity<?> entity) {
+		return generateSerializerBytecode(getPregeneratedSerializerName(entity.getType()).replace('.', '/'), entity);
+	}
+
+	/**
+	 * Generates the bytecode of the {@link PdxEntityInstantiator} for the given entity, to be used at build time.
+	 *
+	 * @param entity must not be {@literal null}.
+	 * @return the bytecode of the class named {@link #getPregeneratedInstantiatorName(Class)} or {@literal null} if the
+	 *         entity's constructor cannot be invoked by generated code.
+	 */
+	public byte[] generateInstantiatorBytecode(GemfirePersistentEntity<?> entity) {
+		return generateInstantiatorBytecode(getPregeneratedInstantiatorName(entity.getType()).replace('.', '/'), entity);
+	}
+
+	private byte[] generateSerializerBytecode(String className, GemfirePersistentEntity<?> entity) {
+
+		List<PropertyAccess> properties = getSerializedProperties(entity);
+		return properties == null ? null : generateClassBytecode(className, entity.getType(), properties,
+				getIdProperty(entity));
+	}
+
+	private List<PropertyAccess> getSerializedProperties(GemfirePersistentEntity<?> entity) {
+		// generated serializers always read all properties
+		return entity.hasPdxProjection() ? null : getPropertyAccesses(entity);
+	}
+
+	private static String getIdProperty(GemfirePersistentEntity<?> entity) {
+		GemfirePersistentProperty idProperty = entity.getIdProperty();
+		return idProperty == null ? null : idProperty.getName();
+	}
+
+	private byte[] generateInstantiatorBytecode(String className, GemfirePersistentEntity<?> entity) {
+
+		List<ParameterRead> parameters = getParameterReads(entity);
+
+		if (parameters == null) {
+			return null;
+		}
+
+		return generateInstantiatorBytecode(className, entity.getPersistenceConstructor().getConstructor(), parameters);
+	}
+
+	private Object instantiate(String className, Class<?> type, byte[] bytecode) {
+		BytecodeClassLoader classLoader = createClassLoader(type.getClassLoader());
+		// translate internal name to binary form
+		return BeanUtils.instantiate(classLoader.loadClass(className.replace('/', '.'), bytecode));
+	}
+
+	/**
+	 * Loads the class generated at build time unless it was generated for a different mapping of the type, e.g. as
+	 * the type changed since or is mapped through a different {@link GemfireMappingContext}.
+	 *
+	 * @return the instance or {@literal null} if no matching class was generated.
+	 */
+	private static <T> T loadPregenerated(String className, Class<?> type, Class<T> requiredType, String signature) {
+
+		ClassLoader classLoader = type.getClassLoader();
+
+		if (classLoader == null || !ClassUtils.isPresent(className, classLoader)) {
+			return null;
+		}
+
+		Class<?> generatedType = ClassUtils.resolveClassName(className, classLoader);
+		Assert.isAssignable(requiredType, generatedType);
+
+		Field signatureField = ReflectionUtils.findField(generatedType, SIGNATURE_FIELD, String.class);
+
+		if (signatureField == null || !signature.equals(ReflectionUtils.getField(signatureField, null))) {
+			LOG.info("Ignoring " + className + " as it was generated for a different mapping of " + type);
+			return null;
+		}
+
+		return requiredType.cast(BeanUtils.instantiate(generatedType));
+	}
+
+	/**
+	 * Describes the properties written and read by a generated {@link PdxSerializer}.
+	 */
+	private static String getSignature(List<PropertyAccess> properties, String idProperty) {
+
+		StringBuilder signature = new StringBuilder();
+
+		for (PropertyAccess property : properties) {
+			signature.append(signature.length() == 0 ? "" : ",").append(property.name).append(':')
+					.append(property.descriptor);
+		}
+
+		return idProperty == null ? signature.toString() : signature.append(",@id:").append(idProperty).toString();
+	}
+
+	/**
+	 * Describes the constructor arguments read by a generated {@link PdxEntityInstantiator}.
+	 */
+	private static String getSignature(List<ParameterRead> parameters) {
+
+		StringBuilder signature = new StringBuilder();
+
+		for (ParameterRead parameter : parameters) {
+			signature.append(signature.length() == 0 ? "" : ",").append(parameter.name).append(':')
+					.append(parameter.descriptor);
+		}
+
+		return signature.toString();
+	}
+
+	/**
+	 * Resolves the way to read and write each property of the given entity.
+	 *
+	 * @return the accessors or {@literal null} if the entity is not supported.
+	 */
+	private List<PropertyAccess> getPropertyAccesses(GemfirePersistentEntity<?> entity) {
+
+		Class<?> type = entity.getType();
+
+		if (!Modifier.isPublic(type.getModifiers()) || Modifier.isAbstract(type.getModifiers())
+				|| type.getClassLoader() == null) {
+			return null;
+		}
+
+		PreferredConstructor<?, GemfirePersistentProperty> constructor = entity.getPersistenceConstructor();
+		if (constructor == null || !constructor.isNoArgConstructor()
+				|| !Modifier.isPublic(constructor.getConstructor().getModifiers())) {
+			return null;
+		}
+
+		final List<PropertyAccess> result = new ArrayList<PropertyAccess>();
+		final boolean[] supported = { true };
+
+		entity.doWithProperties(new PropertyHandler<GemfirePersistentProperty>() {
+			@Override
+			public void doWithPersistentProperty(GemfirePersistentProperty property) {
+
+				PropertyAccess access = PropertyAccess.forProperty(property);
+
+				if (access == null) {
+					supported[0] = false;
+				} else {
+					result.add(access);
+				}
+			}
+		});
+
+		return supported[0] ? result : null;
+	}
+
+	/**
+	 * Resolves the properties the persistence constructor arguments of the given entity are read from.
+	 *
+	 * @return the reads in parameter order or {@literal null} if the constructor is not supported.
+	 */
+	private List<ParameterRead> getParameterReads(GemfirePersistentEntity<?> entity) {
+
+		Class<?> type = entity.getType();
+
+		if (!Modifier.isPublic(type.getModifiers()) || Modifier.isAbstract(type.getModifiers())
+				|| type.getClassLoader() == null
+				|| (type.getEnclosingClass() != null && !Modifier.isStatic(type.getModifiers()))) {
+			return null;
+		}
+
+		PreferredConstructor<?, GemfirePersistentProperty> constructor = entity.getPersistenceConstructor();
+		if (constructor == null || !Modifier.isPublic(constructor.getConstructor().getModifiers())) {
+			return null;
+		}
+
+		List<ParameterRead> result = new ArrayList<ParameterRead>();
+
+		for (Parameter<Object, GemfirePersistentProperty> parameter : constructor.getParameters()) {
+
+			GemfirePersistentProperty property = parameter.getName() == null ? null : entity
+					.getPersistentProperty(parameter.getName());
+
+			if (property == null || parameter.hasSpelExpression() || !property.getType().equals(parameter.getRawType())
+					|| !PropertyAccess.isAccessible(parameter.getRawType())) {
+				return null;
+			}
+
+			result.add(new ParameterRead(property.getName(), parameter.getRawType()));
+		}
+
+		return result;
+	}
+
+	private BytecodeClassLoader createClassLoader(final ClassLoader parent) {
+		return AccessController.doPrivileged(new PrivilegedAction<BytecodeClassLoader>() {
+			public BytecodeClassLoader run() {
+				return new BytecodeClassLoader(parent);
+			}
+		});
+	}
+
+	/**
+	 * Generates a new {@link PdxSerializer} class for the given entity type.
+	 *
+	 * The generated class has the following definition:
+	 *
+	 * <pre>
+	 * public class &lt;<i>T</i>>PdxSerializer$Synthetic<i>Counter</i> implements PdxSerializer {
+	 *
+	 *  public static final String MAPPING = "age:I,name:Ljava/lang/String;,address:L<i>Address</i>;,@id:id";
+	 *
+	 *  public boolean toData(Object value, PdxWriter writer) {
+	 *     <i>T</i> entity = (<i>T</i>) value;
+	 *     writer.writeInt("age", entity.getAge());
+	 *     writer.writeString("name", entity.name);
+	 *     writer.writeObject("address", entity.getAddress());
+	 *     writer.markIdentityField("id");
+	 *     return true;
+	 *  }
+	 *
+	 *  public Object fromData(Class&lt;?> type, PdxReader reader) {
+	 *     <i>T</i> entity = new <i>T</i>();
+	 *     entity.setAge(reader.readInt("age"));
+	 *     entity.name = reader.readString("name");
+	 *     entity.setAddress((Address) reader.readObject("address"));
+	 *     return entity;
+	 *  }
+	 * }
+	 * </pre>
+	 */
+	byte[] generateClassBytecode(String className, Class<?> type, List<PropertyAccess> properties, String idProperty) {
+
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		String typeName = Type.getInternalName(type);
+
+		cw.visit(V1_5, ACC_PUBLIC + ACC_SUPER, className, null, OBJECT_NAME, new String[] { SERIALIZER_NAME });
+		cw.visitField(ACC_PUBLIC + ACC_STATIC + ACC_FINAL, SIGNATURE_FIELD, STRING_DESCRIPTOR, null,
+				getSignature(properties, idProperty)).visitEnd();
+
+		// default constructor
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, INIT, VOID_NO_ARG_DESC, null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitMethodInsn(INVOKESPECIAL, OBJECT_NAME, INIT, VOID_NO_ARG_DESC);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		// toData
+		mv = cw.visitMethod(ACC_PUBLIC, TO_DATA, TO_DATA_DESC, null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitTypeInsn(CHECKCAST, typeName);
+		mv.visitVarInsn(ASTORE, 3);
+
+		for (PropertyAccess property : properties) {
+			mv.visitVarInsn(ALOAD, 2);
+			mv.visitLdcInsn(property.name);
+			mv.visitVarInsn(ALOAD, 3);
+			property.visitGet(mv, typeName);
+			mv.visitMethodInsn(INVOKEINTERFACE, WRITER_NAME, "write" + property.pdxType, "(" + STRING_DESCRIPTOR
+					+ property.pdxDescriptor + ")" + WRITER_DESCRIPTOR);
+			mv.visitInsn(POP);
+		}
+
+		if (idProperty != null) {
+			mv.visitVarInsn(ALOAD, 2);
+			mv.visitLdcInsn(idProperty);
+			mv.visitMethodInsn(INVOKEINTERFACE, WRITER_NAME, MARK_IDENTITY_FIELD, "(" + STRING_DESCRIPTOR + ")"
+					+ WRITER_DESCRIPTOR);
+			mv.visitInsn(POP);
+		}
+
+		mv.visitInsn(ICONST_1);
+		mv.visitInsn(IRETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		// fromData
+		mv = cw.visitMethod(ACC_PUBLIC, FROM_DATA, FROM_DATA_DESC, null, null);
+		mv.visitCode();
+		mv.visitTypeInsn(NEW, typeName);
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, typeName, INIT, VOID_NO_ARG_DESC);
+		mv.visitVarInsn(ASTORE, 3);
+
+		for (PropertyAccess property : properties) {
+			mv.visitVarInsn(ALOAD, 3);
+			mv.visitVarInsn(ALOAD, 2);
+			mv.visitLdcInsn(property.name);
+			mv.visitMethodInsn(INVOKEINTERFACE, READER_NAME, "read" + property.pdxType, "(" + STRING_DESCRIPTOR + ")"
+					+ property.pdxDescriptor);
+
+			if (!property.pdxDescriptor.equals(property.descriptor)) {
+				mv.visitTypeInsn(CHECKCAST, Type.getInternalName(property.type));
+			}
+
+			property.visitSet(mv, typeName);
+		}
+
+		mv.visitVarInsn(ALOAD, 3);
+		mv.visitInsn(ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		cw.visitEnd();
+
+		return cw.toByteArray();
+	}
+
+	/**
+	 * Generates a new {@link PdxEntityInstantiator} class for the given constructor.
+	 *
+	 * The generated class has the following definition:
+	 *
+	 * <pre>
+	 * public class &lt;<i>T</i>>PdxEntityInstantiator$Synthetic<i>Counter</i> implements PdxEntityInstantiator {
+	 *
+	 *  public static final String MAPPING = "id:J,name:Ljava/lang/String;,address:L<i>Address</i>;";
+	 *
+	 *  public Object createInstance(PdxReader reader) {
+	 *     return new <i>T</i>(reader.readLong("id"), reader.readString("name"), (Address) reader.readObject("address"));
+	 *  }
+	 * }
+	 * </pre>
+	 */
+	byte[] generateInstantiatorBytecode(String className, Constructor<?> constructor, List<ParameterRead> parameters) {
+
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		String typeName = Type.getInternalName(constructor.getDeclaringClass());
+
+		cw.visit(V1_5, ACC_PUBLIC + ACC_SUPER, className, null, OBJECT_NAME, new String[] { INSTANTIATOR_NAME });
+		cw.visitField(ACC_PUBLIC + ACC_STATIC + ACC_FINAL, SIGNATURE_FIELD, STRING_DESCRIPTOR, null,
+				getSignature(parameters)).visitEnd();
+
+		// default constructor
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, INIT, VOID_NO_ARG_DESC, null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitMethodInsn(INVOKESPECIAL, OBJECT_NAME, INIT, VOID_NO_ARG_DESC);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		// createInstance
+		mv = cw.visitMethod(ACC_PUBLIC, CREATE_INSTANCE, CREATE_INSTANCE_DESC, null, null);
+		mv.visitCode();
+		mv.visitTypeInsn(NEW, typeName);
+		mv.visitInsn(DUP);
+
+		for (ParameterRead parameter : parameters) {
+			mv.visitVarInsn(ALOAD, 1);
+			mv.visitLdcInsn(parameter.name);
+			mv.visitMethodInsn(INVOKEINTERFACE, READER_NAME, "read" + parameter.pdxType, "(" + STRING_DESCRIPTOR + ")"
+					+ parameter.pdxDescriptor);
+
+			if (!parameter.pdxDescriptor.equals(parameter.descriptor)) {
+				mv.visitTypeInsn(CHECKCAST, Type.getInternalName(parameter.type));
+			}
+		}
+
+		mv.visitMethodInsn(INVOKESPECIAL, typeName, INIT, Type.getConstructorDescriptor(constructor));
+		mv.visitInsn(ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		cw.visitEnd();
+
+		return cw.toByteArray();
+	}
+
+	/**
+	 * The way generated code reads a single constructor argument.
+	 */
+	static class ParameterRead {
+
+		final String name;
+		final Class<?> type;
+		final String descriptor;
+		final String pdxType;
+		final String pdxDescriptor;
+
+		ParameterRead(String name, Class<?> type) {
+
+			this.name = name;
+			this.type = type;
+			this.descriptor = Type.getDescriptor(type);
+
+			String pdxType = PDX_TYPES.get(type);
+			this.pdxType = pdxType == null ? "Object" : pdxType;
+			this.pdxDescriptor = pdxType == null ? Type.getDescriptor(Object.class) : descriptor;
+		}
+	}
+
+	/**
+	 * The way generated code reads and writes a single property, either through a public getter and setter or through a
+	 * public field.
+	 */
+	static class PropertyAccess {
+
+		final String name;
+		final Class<?> type;
+		final String descriptor;
+		final String pdxType;
+		final String pdxDescriptor;
+		final Field field;
+		final Method getter;
+		final Method setter;
+
+		private PropertyAccess(String name, Class<?> type, Field field, Method getter, Method setter) {
+
+			this.name = name;
+			this.type = type;
+			this.descriptor = Type.getDescriptor(type);
+			this.field = field;
+			this.getter = getter;
+			this.setter = setter;
+
+			String pdxType = PDX_TYPES.get(type);
+			this.pdxType = pdxType == null ? "Object" : pdxType;
+			this.pdxDescriptor = pdxType == null ? Type.getDescriptor(Object.class) : descriptor;
+		}
+
+		/**
+		 * Returns the {@link PropertyAccess} for the given {@link GemfirePersistentProperty} or {@literal null} if
+		 * generated code cannot access it.
+		 */
+		static PropertyAccess forProperty(GemfirePersistentProperty property) {
+
+			Class<?> type = property.getType();
+
+			if (!isAccessible(type)) {
+				return null;
+			}
+
+			Method getter = property.getGetter();
+			Method setter = property.getSetter();
+
+			if (getter != null && setter != null && isAccessible(getter) && isAccessible(setter)
+					&& type.equals(getter.getReturnType()) && type.equals(setter.getParameterTypes()[0])) {
+				return new PropertyAccess(property.getName(), type, null, getter, setter);
+			}
+
+			Field field = property.getField();
+
+			if (field != null && Modifier.isPublic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers())
+					&& !Modifier.isStatic(field.getModifiers()) && type.equals(field.getType())) {
+				return new PropertyAccess(property.getName(), type, field, null, null);
+			}
+
+			return null;
+		}
+
+		void visitGet(MethodVisitor mv, String owner) {
+			if (getter != null) {
+				mv.visitMethodInsn(INVOKEVIRTUAL, owner, getter.getName(), Type.getMethodDescriptor(getter));
+			} else {
+				mv.visitFieldInsn(GETFIELD, owner, field.getName(), descriptor);
+			}
+		}
+
+		void visitSet(MethodVisitor mv, String owner) {
+
+			if (setter == null) {
+				mv.visitFieldInsn(PUTFIELD, owner, field.getName(), descriptor);
+				return;
+			}
+
+			mv.visitMethodInsn(INVOKEVIRTUAL, owner, setter.getName(), Type.getMethodDescriptor(setter));
+
+			// discard the return value of fluent setters
+			Class<?> returnType = setter.getReturnType();
+			if (!void.class.equals(returnType)) {
+				mv.visitInsn(long.class.equals(returnType) || double.class.equals(returnType) ? POP2 : POP);
+			}
+		}
+
+		static boolean isAccessible(Class<?> type) {
+
+			while (type.isArray()) {
+				type = type.getComponentType();
+			}
+
+			return type.isPrimitive() || Modifier.isPublic(type.getModifiers());
+		}
+
+		private static boolean isAccessible(Method method) {
+			return Modifier.isPublic(method.getModifiers()) && !Modifier.isStatic(method.getModifiers())
+					&& Modifier.isPublic(method.getDeclaringClass().getModifiers());
+		}
+	}
+}
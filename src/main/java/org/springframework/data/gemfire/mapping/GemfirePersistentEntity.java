@@ -15,8 +15,13 @@
  */
 package org.springframework.data.gemfire.mapping;
 
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
 import org.springframework.data.mapping.PersistentEntity;
 import org.springframework.data.mapping.model.BasicPersistentEntity;
+import org.springframework.data.mapping.model.MappingException;
 import org.springframework.data.util.TypeInformation;
 import org.springframework.util.StringUtils;
 
@@ -30,6 +35,8 @@ public class GemfirePersistentEntity<T> extends BasicPersistentEntity<T, Gemfire
 
 	private final String regionName;
 
+	private final Set<String> pdxProjection;
+
 	/**
 	 * Creates a new {@link GemfirePersistentEntity} for the given {@link TypeInformation}.
 	 * 
@@ -44,6 +51,30 @@ public class GemfirePersistentEntity<T> extends BasicPersistentEntity<T, Gemfire
 		String fallbackName = rawType.getSimpleName();
 
 		this.regionName = region == null || !StringUtils.hasText(region.value()) ? fallbackName : region.value();
+
+		PdxProjection projection = rawType.getAnnotation(PdxProjection.class);
+		this.pdxProjection = projection == null ? null : new HashSet<String>(Arrays.asList(projection.value()));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.mapping.model.BasicPersistentEntity#verify()
+	 */
+	@Override
+	public void verify() {
+
+		super.verify();
+
+		if (pdxProjection == null) {
+			return;
+		}
+
+		for (String name : pdxProjection) {
+			if (getPersistentProperty(name) == null) {
+				throw new MappingException(String.format("No property %s found on %s as referenced by @%s!", name,
+						getType().getName(), PdxProjection.class.getSimpleName()));
+			}
+		}
 	}
 
 	/**
@@ -54,4 +85,27 @@ public class GemfirePersistentEntity<T> extends BasicPersistentEntity<T, Gemfire
 	public String getRegionName() {
 		return this.regionName;
 	}
+
+	/**
+	 * Returns whether the entity is annotated with {@link PdxProjection}, i.e. only a subset of its properties is read
+	 * from PDX.
+	 * 
+	 * @return
+	 */
+	public boolean hasPdxProjection() {
+		return pdxProjection != null;
+	}
+
+	/**
+	 * Returns whether the given property is to be read when deserializing the entity from PDX. That's the case for all
+	 * properties unless the entity is annotated with {@link PdxProjection}, in which case only the listed properties,
+	 * the id property and constructor arguments are read.
+	 * 
+	 * @param property must not be {@literal null}.
+	 * @return
+	 */
+	public boolean isReadFromPdx(GemfirePersistentProperty property) {
+		return pdxProjection == null || pdxProjection.contains(property.getName()) || property.isIdProperty()
+				|| isConstructorArgument(property);
+	}
 }
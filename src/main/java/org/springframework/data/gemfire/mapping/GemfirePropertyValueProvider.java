@@ -47,6 +47,7 @@ class GemfirePropertyValueProvider implements PropertyValueProvider<GemfirePersi
 	@Override
 	@SuppressWarnings("unchecked")
 	public <T> T getPropertyValue(GemfirePersistentProperty property) {
-		return (T) reader.readField(property.getName());
+		PrimitivePdxAccessor accessor = PrimitivePdxAccessor.forType(property.getType());
+		return (T) (accessor == null ? reader.readField(property.getName()) : accessor.read(reader, property.getName()));
 	}
 }
\ No newline at end of file
@@ -0,0 +1,383 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.gemfire.mapping;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.springframework.beans.BeanUtils;
+import org.springframework.cglib.proxy.Enhancer;
+import org.springframework.cglib.proxy.Factory;
+import org.springframework.cglib.proxy.MethodInterceptor;
+import org.springframework.cglib.proxy.MethodProxy;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.mapping.PreferredConstructor;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.data.mapping.context.MappingContext;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.util.ReflectionUtils.FieldCallback;
+
+import com.gemstone.gemfire.pdx.PdxInstance;
+
+/**
+ * Creates proxies of domain types backed by a {@link PdxInstance}, as returned by caches configured to read PDX
+ * serialized values ({@literal pdx-read-serialized}). A property is only deserialized from the {@link PdxInstance}
+ * once its getter is invoked, so that reading a few properties of an entity does not require materializing the entire
+ * object graph. Invoking any other method (e.g. {@link Object#equals(Object)}) loads all properties not yet loaded
+ * before the invocation proceeds.
+ * <p>
+ * Proxies are instances of a subclass of the domain type generated once per type, and thus require the domain type
+ * to be non-final and to have a no-arg persistence constructor. Values of other types are deserialized eagerly using
+ * {@link PdxInstance#getObject()}. Note that final methods as well as direct field access bypass the proxy and will
+ * not see any values.
+ * <p>
+ * Proxies must not be written to the cache as they are, as GemFire would register their generated class as PDX type.
+ * They implement {@link LazyPdxProxy}, use {@link #unwrap(Object)} to obtain a plain instance of the domain type
+ * before writing.
+ */
+public class LazyPdxInstanceProxyFactory {
+
+	private static final Log LOG = LogFactory.getLog(LazyPdxInstanceProxyFactory.class);
+
+	private final MappingContext<? extends GemfirePersistentEntity<?>, GemfirePersistentProperty> mappingContext;
+
+	private final ConversionService conversionService;
+
+	private final ClassLoader classLoader;
+
+	private final ConcurrentMap<String, ProxyMetadata> metadata = new ConcurrentHashMap<String, ProxyMetadata>();
+
+	/**
+	 * Creates a new {@link LazyPdxInstanceProxyFactory} using the given {@link MappingContext}.
+	 *
+	 * @param mappingContext must not be {@literal null}.
+	 */
+	public LazyPdxInstanceProxyFactory(
+			MappingContext<? extends GemfirePersistentEntity<?>, GemfirePersistentProperty> mappingContext) {
+		this(mappingContext, new DefaultConversionService(), ClassUtils.getDefaultClassLoader());
+	}
+
+	/**
+	 * Creates a new {@link LazyPdxInstanceProxyFactory}.
+	 *
+	 * @param mappingContext must not be {@literal null}.
+	 * @param conversionService must not be {@literal null}.
+	 * @param classLoader the {@link ClassLoader} to resolve the types of the {@link PdxInstance}s with.
+	 */
+	public LazyPdxInstanceProxyFactory(
+			MappingContext<? extends GemfirePersistentEntity<?>, GemfirePersistentProperty> mappingContext,
+			ConversionService conversionService, ClassLoader classLoader) {
+
+		Assert.notNull(mappingContext);
+		Assert.notNull(conversionService);
+
+		this.mappingContext = mappingContext;
+		this.conversionService = conversionService;
+		this.classLoader = classLoader;
+	}
+
+	/**
+	 * Returns a plain instance of the domain type holding all properties of the given value if it is a proxy created
+	 * by a {@link LazyPdxInstanceProxyFactory}, the value itself otherwise.
+	 *
+	 * @param value can be {@literal null}.
+	 * @return
+	 */
+	public static Object unwrap(Object value) {
+		return value instanceof LazyPdxProxy ? ((LazyPdxProxy) value).toDeserializedObject() : value;
+	}
+
+	/**
+	 * Returns a lazily loading proxy for the given value if it is a {@link PdxInstance}, the value itself otherwise.
+	 *
+	 * @param value can be {@literal null}.
+	 * @return
+	 */
+	public Object convertIfNecessary(Object value) {
+		return value instanceof PdxInstance ? getProxy((PdxInstance) value) : value;
+	}
+
+	/**
+	 * Returns a lazily loading proxy of the type of the given {@link PdxInstance}, or the deserialized object in case
+	 * the type cannot be proxied.
+	 *
+	 * @param instance must not be {@literal null}.
+	 * @return
+	 */
+	public Object getProxy(PdxInstance instance) {
+
+		Assert.notNull(instance);
+
+		ProxyMetadata proxyMetadata = getMetadata(instance.getClassName());
+
+		if (proxyMetadata == ProxyMetadata.NONE) {
+			return instance.getObject();
+		}
+
+		LazyLoadingInterceptor interceptor = new LazyLoadingInterceptor(instance, proxyMetadata);
+		Object proxy = proxyMetadata.prototype.newInstance(interceptor);
+		interceptor.initialized = true;
+
+		return proxy;
+	}
+
+	private ProxyMetadata getMetadata(String className) {
+
+		ProxyMetadata result = metadata.get(className);
+
+		if (result == null) {
+			result = createMetadata(className);
+			ProxyMetadata existing = metadata.putIfAbsent(className, result);
+			result = existing == null ? result : existing;
+		}
+
+		return result;
+	}
+
+	private ProxyMetadata createMetadata(String className) {
+
+		Class<?> type;
+
+		try {
+			type = ClassUtils.forName(className, classLoader);
+		} catch (ClassNotFoundException e) {
+			LOG.debug("Cannot resolve type " + className + ", PDX instances will be deserialized eagerly", e);
+			return ProxyMetadata.NONE;
+		} catch (LinkageError e) {
+			LOG.debug("Cannot resolve type " + className + ", PDX instances will be deserialized eagerly", e);
+			return ProxyMetadata.NONE;
+		}
+
+		if (Modifier.isFinal(type.getModifiers()) || type.isInterface() || Modifier.isAbstract(type.getModifiers())
+				|| BeanUtils.isSimpleProperty(type)) {
+			return ProxyMetadata.NONE;
+		}
+
+		GemfirePersistentEntity<?> entity = mappingContext.getPersistentEntity(type);
+		PreferredConstructor<?, GemfirePersistentProperty> constructor = entity.getPersistenceConstructor();
+
+		if (constructor == null || !constructor.isNoArgConstructor()
+				|| Modifier.isPrivate(constructor.getConstructor().getModifiers())) {
+			return ProxyMetadata.NONE;
+		}
+
+		try {
+			return new ProxyMetadata(entity, constructor);
+		} catch (RuntimeException e) {
+			LOG.debug("Cannot proxy type " + className + ", PDX instances will be deserialized eagerly", e);
+			return ProxyMetadata.NONE;
+		}
+	}
+
+	/**
+	 * Interface implemented by the proxies.
+	 */
+	public interface LazyPdxProxy {
+
+		/**
+		 * Returns a new plain instance of the domain type holding all properties of the proxy, loading the ones not
+		 * loaded yet.
+		 * 
+		 * @return
+		 */
+		Object toDeserializedObject();
+	}
+
+	/**
+	 * The per type information required to create and back proxies, including a prototype instance of the generated
+	 * proxy class to create further instances from.
+	 */
+	private static class ProxyMetadata {
+
+		static final ProxyMetadata NONE = new ProxyMetadata();
+
+		private static final MethodInterceptor PASS_THROUGH = new MethodInterceptor() {
+			@Override
+			public Object intercept(Object obj, Method method, Object[] args, MethodProxy proxy) throws Throwable {
+				return proxy.invokeSuper(obj, args);
+			}
+		};
+
+		final GemfirePersistentEntity<?> entity;
+		final Constructor<?> constructor;
+		final Factory prototype;
+		final List<GemfirePersistentProperty> properties = new ArrayList<GemfirePersistentProperty>();
+		final Map<Method, Integer> getters = new HashMap<Method, Integer>();
+		final Map<Method, Integer> setters = new HashMap<Method, Integer>();
+
+		private ProxyMetadata() {
+			this.entity = null;
+			this.constructor = null;
+			this.prototype = null;
+		}
+
+		ProxyMetadata(GemfirePersistentEntity<?> entity, PreferredConstructor<?, GemfirePersistentProperty> constructor) {
+
+			this.entity = entity;
+			this.constructor = constructor.getConstructor();
+
+			entity.doWithProperties(new PropertyHandler<GemfirePersistentProperty>() {
+				@Override
+				public void doWithPersistentProperty(GemfirePersistentProperty persistentProperty) {
+
+					Integer index = properties.size();
+					properties.add(persistentProperty);
+
+					if (persistentProperty.getField() != null) {
+						ReflectionUtils.makeAccessible(persistentProperty.getField());
+					}
+					if (persistentProperty.getGetter() != null) {
+						getters.put(persistentProperty.getGetter(), index);
+					}
+					if (persistentProperty.getSetter() != null) {
+						setters.put(persistentProperty.getSetter(), index);
+					}
+				}
+			});
+
+			Enhancer enhancer = new Enhancer();
+			enhancer.setSuperclass(entity.getType());
+			enhancer.setInterfaces(new Class<?>[] { LazyPdxProxy.class });
+			enhancer.setCallback(PASS_THROUGH);
+			enhancer.setClassLoader(entity.getType().getClassLoader());
+
+			this.prototype = (Factory) enhancer.create();
+		}
+	}
+
+	/**
+	 * {@link MethodInterceptor} populating the proxy from the {@link PdxInstance} on demand.
+	 */
+	private class LazyLoadingInterceptor implements MethodInterceptor {
+
+		private final PdxInstance instance;
+		private final ProxyMetadata proxyMetadata;
+		private final boolean[] loaded;
+		private boolean fullyLoaded;
+
+		// methods invoked by the constructor do not load anything
+		volatile boolean initialized;
+
+		public LazyLoadingInterceptor(PdxInstance instance, ProxyMetadata proxyMetadata) {
+			this.instance = instance;
+			this.proxyMetadata = proxyMetadata;
+			this.loaded = new boolean[proxyMetadata.properties.size()];
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.springframework.cglib.proxy.MethodInterceptor#intercept(java.lang.Object, java.lang.reflect.Method, java.lang.Object[], org.springframework.cglib.proxy.MethodProxy)
+		 */
+		@Override
+		public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+
+			if (!initialized) {
+				return methodProxy.invokeSuper(proxy, args);
+			}
+
+			if (method.getDeclaringClass().equals(LazyPdxProxy.class)) {
+				return toDeserializedObject(proxy);
+			}
+
+			synchronized (this) {
+
+				if (!fullyLoaded) {
+
+					Integer index = proxyMetadata.getters.get(method);
+
+					if (index != null) {
+						load(proxy, index);
+					} else if ((index = proxyMetadata.setters.get(method)) != null) {
+						loaded[index] = true;
+					} else {
+						loadAll(proxy);
+					}
+				}
+			}
+
+			return methodProxy.invokeSuper(proxy, args);
+		}
+
+		private void load(Object proxy, int index) {
+
+			if (loaded[index]) {
+				return;
+			}
+
+			loaded[index] = true;
+			GemfirePersistentProperty property = proxyMetadata.properties.get(index);
+
+			if (!instance.hasField(property.getName())) {
+				return;
+			}
+
+			Object value = instance.getField(property.getName());
+
+			if (value instanceof PdxInstance && !property.getType().isInstance(value)) {
+				value = getProxy((PdxInstance) value);
+			} else if (value != null && !ClassUtils.isAssignableValue(property.getType(), value)) {
+				value = conversionService.convert(value, property.getType());
+			}
+
+			if (property.getField() != null) {
+				ReflectionUtils.setField(property.getField(), proxy, value);
+			} else if (property.getSetter() != null) {
+				ReflectionUtils.invokeMethod(property.getSetter(), proxy, value);
+			}
+		}
+
+		private void loadAll(Object proxy) {
+
+			for (int i = 0; i < loaded.length; i++) {
+				load(proxy, i);
+			}
+
+			fullyLoaded = true;
+		}
+
+		private synchronized Object toDeserializedObject(final Object proxy) {
+
+			if (!fullyLoaded) {
+				loadAll(proxy);
+			}
+
+			final Object result = BeanUtils.instantiateClass(proxyMetadata.constructor);
+
+			ReflectionUtils.doWithFields(proxyMetadata.entity.getType(), new FieldCallback() {
+				@Override
+				public void doWith(Field field) throws IllegalAccessException {
+					ReflectionUtils.makeAccessible(field);
+					field.set(result, unwrap(field.get(proxy)));
+				}
+			}, ReflectionUtils.COPYABLE_FIELDS);
+
+			return result;
+		}
+	}
+}
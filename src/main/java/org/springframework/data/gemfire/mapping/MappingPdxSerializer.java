@@ -15,7 +15,15 @@
  */
 package org.springframework.data.gemfire.mapping;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.springframework.beans.BeansException;
 import org.springframework.context.ApplicationContext;
@@ -24,9 +32,7 @@ import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.support.DefaultConversionService;
 import org.springframework.data.convert.EntityInstantiator;
 import org.springframework.data.convert.EntityInstantiators;
-import org.springframework.data.mapping.PersistentEntity;
-import org.springframework.data.mapping.PropertyHandler;
-import org.springframework.data.mapping.model.BeanWrapper;
+import org.springframework.data.gemfire.mapping.PdxSerializationPlan.PropertyPlan;
 import org.springframework.data.mapping.model.MappingException;
 import org.springframework.data.mapping.model.PersistentEntityParameterValueProvider;
 import org.springframework.data.mapping.model.SpELContext;
@@ -53,8 +59,22 @@ public class MappingPdxSerializer implements PdxSerializer, ApplicationContextAw
 	
 	private Map<Class<?>,PdxSerializer> customSerializers;
 
+	private Set<Class<?>> customInstantiatorTypes = Collections.emptySet();
+
 	private SpELContext context;
 
+	private AsmPdxSerializerGenerator serializerGenerator;
+
+	private final AsmPdxSerializerGenerator instantiatorGenerator = new AsmPdxSerializerGenerator();
+
+	private boolean useGeneratedInstantiators = false;
+
+	private final ConcurrentMap<Class<?>, PdxSerializationPlan> plans = new ConcurrentHashMap<Class<?>, PdxSerializationPlan>();
+
+	private final ConcurrentMap<Class<?>, PdxSerializer> generatedSerializers = new ConcurrentHashMap<Class<?>, PdxSerializer>();
+
+	private final ProjectedInstances projectedInstances = new ProjectedInstances();
+
 	/**
 	 * Creates a new {@link MappingPdxSerializer} using the given
 	 * {@link GemfireMappingContext} and {@link ConversionService}.
@@ -90,6 +110,9 @@ public class MappingPdxSerializer implements PdxSerializer, ApplicationContextAw
 	public void setGemfireInstantiators(Map<Class<?>, EntityInstantiator> gemfireInstantiators) {
 		Assert.notNull(gemfireInstantiators);
 		this.instantiators = new EntityInstantiators(gemfireInstantiators);
+		this.customInstantiatorTypes = new HashSet<Class<?>>(gemfireInstantiators.keySet());
+		this.plans.clear();
+		this.generatedSerializers.clear();
 	}
 
 	/**
@@ -98,6 +121,43 @@ public class MappingPdxSerializer implements PdxSerializer, ApplicationContextAw
 	 */
 	public void setCustomSerializers(Map<Class<?>, PdxSerializer> customSerializers) {
 		this.customSerializers = customSerializers;
+		this.plans.clear();
+		this.generatedSerializers.clear();
+	}
+
+	/**
+	 * Configures whether to read and write entities with a {@link PdxSerializer} generated per entity type, accessing
+	 * the properties directly instead of through reflection. Entity types the generated code cannot access, that
+	 * use a custom {@link EntityInstantiator} or custom serializers for any of their properties, or that are annotated
+	 * with {@link PdxProjection} are still handled reflectively. Defaults to {@literal false}.
+	 * <p/>
+	 * If enabled, serializers generated at build time (see
+	 * {@link AsmPdxSerializerGenerator#getPregeneratedSerializerName(Class)}) are used instead of generating them at
+	 * runtime, provided they were generated for the same properties as mapped by the configured
+	 * {@link GemfireMappingContext}.
+	 * 
+	 * @param useGeneratedSerializers
+	 * @see AsmPdxSerializerGenerator
+	 */
+	public void setUseGeneratedSerializers(boolean useGeneratedSerializers) {
+		this.serializerGenerator = useGeneratedSerializers ? new AsmPdxSerializerGenerator() : null;
+		this.generatedSerializers.clear();
+	}
+
+	/**
+	 * Configures whether to create entities through a {@link PdxEntityInstantiator} generated per entity type, which
+	 * invokes the persistence constructor directly with the arguments read from the {@link PdxReader}, rather than
+	 * through the configured {@link EntityInstantiators}. Entity types the generated code cannot access, whose
+	 * constructor arguments use SpEL expressions or custom serializers, or that are registered with a custom
+	 * {@link EntityInstantiator} are still created through the {@link EntityInstantiators}. Defaults to
+	 * {@literal false}.
+	 * 
+	 * @param useGeneratedInstantiators
+	 * @see AsmPdxSerializerGenerator#getInstantiator(GemfirePersistentEntity)
+	 */
+	public void setUseGeneratedInstantiators(boolean useGeneratedInstantiators) {
+		this.useGeneratedInstantiators = useGeneratedInstantiators;
+		this.plans.clear();
 	}
 
 	/*
@@ -119,44 +179,56 @@ public class MappingPdxSerializer implements PdxSerializer, ApplicationContextAw
 	 * com.gemstone.gemfire.pdx.PdxReader)
 	 */
 	@Override
-	public Object fromData(Class<?> type, final PdxReader reader) {
-		final GemfirePersistentEntity<?> entity = mappingContext.getPersistentEntity(type);
-		EntityInstantiator instantiator = instantiators.getInstantiatorFor(entity);
-		GemfirePropertyValueProvider propertyValueProvider = new GemfirePropertyValueProvider(reader);
-
-		PersistentEntityParameterValueProvider<GemfirePersistentProperty> provider = new PersistentEntityParameterValueProvider<GemfirePersistentProperty>(
-				entity, propertyValueProvider, null);
- 
-		Object instance = instantiator.createInstance(entity, provider);
+	public Object fromData(Class<?> type, PdxReader reader) {
+		PdxSerializer generatedSerializer = getGeneratedSerializer(type);
+		if (generatedSerializer != null) {
+			return generatedSerializer.fromData(type, reader);
+		}
 
-		final BeanWrapper<PersistentEntity<Object, ?>, Object> wrapper = BeanWrapper
-				.create(instance, conversionService);
+		PdxSerializationPlan plan = getPlan(type);
+		Object instance = plan.getPdxInstantiator() == null ? createInstance(plan, reader) : plan.getPdxInstantiator()
+				.createInstance(reader);
 
-		entity.doWithProperties(new PropertyHandler<GemfirePersistentProperty>() {
-			@Override
-			public void doWithPersistentProperty(GemfirePersistentProperty persistentProperty) {
+		for (PropertyPlan property : plan.getNonConstructorProperties()) {
 
-				if (entity.isConstructorArgument(persistentProperty)) {
-					return;
+			Object value = null;
+			try {
+				if (property.readTarget != null) {
+					property.primitiveAccessor.read(reader, property.name, property.readTarget, instance);
+					continue;
 				}
-				
-				PdxSerializer customSerializer = getCustomSerializer(persistentProperty.getType()); 
-				Object value = null;
-				if (customSerializer != null) {
-					value = customSerializer.fromData(persistentProperty.getType(), reader);
+
+				if (property.customSerializer != null) {
+					value = property.customSerializer.fromData(property.type, reader);
+				} else if (property.primitiveAccessor != null) {
+					value = property.primitiveAccessor.read(reader, property.name);
 				} else {
-					value = reader.readField(persistentProperty.getName());
-				}
-				try {
-					wrapper.setProperty(persistentProperty, value);
-				}
-				catch (Exception e) {
-					throw new MappingException("Could not read value " + value.toString(), e);
+					value = reader.readField(property.name);
 				}
+
+				property.setValue(instance, value, conversionService);
+			}
+			catch (Exception e) {
+				throw new MappingException("Could not read value " + value + " for property " + property.property, e);
 			}
-		});
+		}
+
+		if (plan.getEntity().hasPdxProjection()) {
+			projectedInstances.add(instance);
+		}
+
+		return instance;
+	}
+
+	private Object createInstance(PdxSerializationPlan plan, PdxReader reader) {
+
+		GemfirePersistentEntity<?> entity = plan.getEntity();
+		GemfirePropertyValueProvider propertyValueProvider = new GemfirePropertyValueProvider(reader);
+
+		PersistentEntityParameterValueProvider<GemfirePersistentProperty> provider = new PersistentEntityParameterValueProvider<GemfirePersistentProperty>(
+				entity, propertyValueProvider, null);
 
-		return wrapper.getBean();
+		return plan.getInstantiator().createInstance(entity, provider);
 	}
 
 	/*
@@ -166,40 +238,163 @@ public class MappingPdxSerializer implements PdxSerializer, ApplicationContextAw
 	 * com.gemstone.gemfire.pdx.PdxWriter)
 	 */
 	@Override
-	public boolean toData(Object value, final PdxWriter writer) {
-		GemfirePersistentEntity<?> entity = mappingContext.getPersistentEntity(value.getClass());
-		final BeanWrapper<PersistentEntity<Object, ?>, Object> wrapper = BeanWrapper.create(value, conversionService);
-
-		entity.doWithProperties(new PropertyHandler<GemfirePersistentProperty>() {
-			@SuppressWarnings({ "unchecked", "rawtypes" })
-			@Override
-			public void doWithPersistentProperty(GemfirePersistentProperty persistentProperty) {
-				
-				try {
-					Object propertyValue = wrapper.getProperty(persistentProperty);
-					PdxSerializer customSerializer = getCustomSerializer(persistentProperty.getType());
-					if (customSerializer != null) {
-						customSerializer.toData(propertyValue, writer);
-					} else {
-						writer.writeField(persistentProperty.getName(), propertyValue, (Class) persistentProperty.getType());
-					} 
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public boolean toData(Object value, PdxWriter writer) {
+		if (value instanceof LazyPdxInstanceProxyFactory.LazyPdxProxy) {
+			throw new MappingException("Cannot write lazily loading proxy of " + value.getClass().getSuperclass()
+					+ ", use LazyPdxInstanceProxyFactory.unwrap(Object) to obtain the entity to write");
+		}
+
+		PdxSerializer generatedSerializer = getGeneratedSerializer(value.getClass());
+		if (generatedSerializer != null) {
+			return generatedSerializer.toData(value, writer);
+		}
+
+		PdxSerializationPlan plan = getPlan(value.getClass());
+
+		if (plan.getEntity().hasPdxProjection() && projectedInstances.contains(value)) {
+			throw new MappingException("Cannot write instance of " + value.getClass().getName() + " read through "
+					+ PdxProjection.class.getSimpleName() + ", as its properties not projected were not read");
+		}
+
+		for (PropertyPlan property : plan.getProperties()) {
+			try {
+				if (property.writeSource != null) {
+					property.primitiveAccessor.write(writer, property.name, property.writeSource, value);
+					continue;
 				}
-				catch (Exception e) {
-					throw new MappingException("Could not write value for property " + persistentProperty.toString(), e);
+
+				Object propertyValue = property.getValue(value);
+				if (property.customSerializer != null) {
+					property.customSerializer.toData(propertyValue, writer);
+				} else if (property.primitiveAccessor != null) {
+					property.primitiveAccessor.write(writer, property.name, propertyValue);
+				} else {
+					writer.writeField(property.name, propertyValue, (Class) property.type);
 				}
 			}
-		});
-
-		GemfirePersistentProperty idProperty = entity.getIdProperty();
+			catch (Exception e) {
+				throw new MappingException("Could not write value for property " + property.property.toString(), e);
+			}
+		}
 
-		if (idProperty != null) {
-			writer.markIdentityField(idProperty.getName());
+		if (plan.getIdentityField() != null) {
+			writer.markIdentityField(plan.getIdentityField());
 		}
 
 		return true;
 	}
 	
-	private PdxSerializer getCustomSerializer(Class<?> clazz) {
-		return customSerializers == null ? null : customSerializers.get(clazz);
+	/**
+	 * Returns the {@link PdxSerializationPlan} for the given type, creating it on first access.
+	 */
+	private PdxSerializationPlan getPlan(Class<?> type) {
+		PdxSerializationPlan plan = plans.get(type);
+		if (plan == null) {
+			GemfirePersistentEntity<?> entity = mappingContext.getPersistentEntity(type);
+			AsmPdxSerializerGenerator generator = useGeneratedInstantiators && !customInstantiatorTypes.contains(type) ? instantiatorGenerator
+					: null;
+			plan = new PdxSerializationPlan(entity, instantiators.getInstantiatorFor(entity), customSerializers, generator);
+			PdxSerializationPlan existing = plans.putIfAbsent(type, plan);
+			plan = existing == null ? plan : existing;
+		}
+		return plan;
+	}
+
+	/**
+	 * Returns the generated {@link PdxSerializer} for the given type, generating it on first access.
+	 * 
+	 * @return the generated serializer or {@literal null} if the type has to be handled reflectively.
+	 */
+	private PdxSerializer getGeneratedSerializer(Class<?> type) {
+		PdxSerializer serializer = generatedSerializers.get(type);
+		if (serializer == null) {
+			serializer = generateSerializer(type);
+			PdxSerializer existing = generatedSerializers.putIfAbsent(type, serializer);
+			serializer = existing == null ? serializer : existing;
+		}
+
+		// this serializer is cached for types not supported by generated code
+		return serializer == this ? null : serializer;
+	}
+
+	private PdxSerializer generateSerializer(Class<?> type) {
+		if (customInstantiatorTypes.contains(type)) {
+			return this;
+		}
+
+		if (serializerGenerator == null) {
+			return this;
+		}
+
+		PdxSerializationPlan plan = getPlan(type);
+
+		if (plan.getEntity().hasPdxProjection()) {
+			return this;
+		}
+
+		for (PropertyPlan property : plan.getProperties()) {
+			if (property.customSerializer != null) {
+				return this;
+			}
+		}
+
+		PdxSerializer serializer = serializerGenerator.getSerializer(plan.getEntity());
+		return serializer == null ? this : serializer;
+	}
+
+	/**
+	 * Set of the instances read through a {@link PdxProjection}, compared by identity and referenced weakly.
+	 */
+	private static class ProjectedInstances {
+
+		private final ReferenceQueue<Object> queue = new ReferenceQueue<Object>();
+		private final Set<IdentityReference> references = new HashSet<IdentityReference>();
+
+		synchronized void add(Object instance) {
+			expungeCleared();
+			references.add(new IdentityReference(instance, queue));
+		}
+
+		synchronized boolean contains(Object instance) {
+			expungeCleared();
+			return references.contains(new IdentityReference(instance, null));
+		}
+
+		private void expungeCleared() {
+			for (Reference<?> reference = queue.poll(); reference != null; reference = queue.poll()) {
+				references.remove(reference);
+			}
+		}
+	}
+
+	private static class IdentityReference extends WeakReference<Object> {
+
+		private final int hashCode;
+
+		IdentityReference(Object referent, ReferenceQueue<Object> queue) {
+			super(referent, queue);
+			this.hashCode = System.identityHashCode(referent);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+
+			if (this == obj) {
+				return true;
+			}
+
+			if (!(obj instanceof IdentityReference)) {
+				return false;
+			}
+
+			Object referent = get();
+			return referent != null && referent == ((IdentityReference) obj).get();
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
 	}
 }
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.gemfire.mapping;
+
+import com.gemstone.gemfire.pdx.PdxReader;
+
+/**
+ * Creates instances of a particular entity type by invoking its persistence constructor with the arguments read from a
+ * {@link PdxReader}. Implementations are generated by {@link AsmPdxSerializerGenerator}.
+ */
+public interface PdxEntityInstantiator {
+
+	/**
+	 * Creates a new instance of the entity, reading the constructor arguments from the given {@link PdxReader}.
+	 *
+	 * @param reader must not be {@literal null}.
+	 * @return the new instance.
+	 */
+	Object createInstance(PdxReader reader);
+}
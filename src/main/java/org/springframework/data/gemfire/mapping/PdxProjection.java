@@ -0,0 +1,49 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.gemfire.mapping;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation to restrict the properties {@link MappingPdxSerializer} reads when deserializing an entity. Only the
+ * listed properties, the id property and the ones required by the persistence constructor are read from the PDX
+ * stream, all other fields are skipped without being decoded and the corresponding properties keep their default
+ * values.
+ * <p/>
+ * As the skipped properties are not populated, instances read this way must not be written back to the region;
+ * {@link MappingPdxSerializer} rejects writing them with a
+ * {@link org.springframework.data.mapping.model.MappingException}. Instances created by the application are written
+ * with all their properties. Consider declaring the projection on a dedicated type if entities have to be updated.
+ */
+@Inherited
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+@Documented
+public @interface PdxProjection {
+
+	/**
+	 * The names of the properties to read.
+	 * 
+	 * @return the names of the properties to read.
+	 */
+	String[] value();
+
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.gemfire.mapping;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.core.convert.ConversionService;
+import org.springframework.data.convert.EntityInstantiator;
+import org.springframework.data.mapping.PropertyHandler;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ReflectionUtils;
+
+import com.gemstone.gemfire.pdx.PdxSerializer;
+
+/**
+ * The steps required to read and write instances of a {@link GemfirePersistentEntity}, resolved once per type so that
+ * {@link MappingPdxSerializer} only has to replay them per instance: the {@link EntityInstantiator} or generated
+ * {@link PdxEntityInstantiator} to use, the properties in order along with their accessors, custom
+ * {@link PdxSerializer}s, {@link PrimitivePdxAccessor}s and whether they are populated through the constructor, and
+ * the identity field.
+ */
+class PdxSerializationPlan {
+
+	private final GemfirePersistentEntity<?> entity;
+	private final EntityInstantiator instantiator;
+	private final PdxEntityInstantiator pdxInstantiator;
+	private final List<PropertyPlan> properties;
+	private final List<PropertyPlan> nonConstructorProperties;
+	private final String identityField;
+
+	/**
+	 * Creates a new {@link PdxSerializationPlan} for the given {@link GemfirePersistentEntity}.
+	 *
+	 * @param entity must not be {@literal null}.
+	 * @param instantiator must not be {@literal null}.
+	 * @param customSerializers can be {@literal null}.
+	 * @param generator the generator to create a {@link PdxEntityInstantiator} with, {@literal null} to always use
+	 *          the given {@link EntityInstantiator}.
+	 */
+	public PdxSerializationPlan(final GemfirePersistentEntity<?> entity, EntityInstantiator instantiator,
+			final Map<Class<?>, PdxSerializer> customSerializers, AsmPdxSerializerGenerator generator) {
+
+		Assert.notNull(entity);
+		Assert.notNull(instantiator);
+
+		final List<PropertyPlan> properties = new ArrayList<PropertyPlan>();
+		final List<PropertyPlan> nonConstructorProperties = new ArrayList<PropertyPlan>();
+
+		entity.doWithProperties(new PropertyHandler<GemfirePersistentProperty>() {
+			@Override
+			public void doWithPersistentProperty(GemfirePersistentProperty persistentProperty) {
+
+				PdxSerializer customSerializer = customSerializers == null ? null : customSerializers
+						.get(persistentProperty.getType());
+				PropertyPlan plan = new PropertyPlan(persistentProperty, customSerializer,
+						entity.isConstructorArgument(persistentProperty));
+
+				properties.add(plan);
+
+				if (!plan.constructorArgument && entity.isReadFromPdx(persistentProperty)) {
+					nonConstructorProperties.add(plan);
+				}
+			}
+		});
+
+		GemfirePersistentProperty idProperty = entity.getIdProperty();
+
+		this.entity = entity;
+		this.instantiator = instantiator;
+		this.pdxInstantiator = generator == null || hasCustomSerializedConstructorArgument(properties) ? null : generator
+				.getInstantiator(entity);
+		this.properties = Collections.unmodifiableList(properties);
+		this.nonConstructorProperties = Collections.unmodifiableList(nonConstructorProperties);
+		this.identityField = idProperty == null ? null : idProperty.getName();
+	}
+
+	/**
+	 * @return the entity the plan was created for.
+	 */
+	public GemfirePersistentEntity<?> getEntity() {
+		return entity;
+	}
+
+	/**
+	 * @return the {@link EntityInstantiator} to create new instances with.
+	 */
+	public EntityInstantiator getInstantiator() {
+		return instantiator;
+	}
+
+	/**
+	 * @return the generated {@link PdxEntityInstantiator} to create new instances with or {@literal null} if the
+	 *         {@link EntityInstantiator} has to be used.
+	 */
+	public PdxEntityInstantiator getPdxInstantiator() {
+		return pdxInstantiator;
+	}
+
+	/**
+	 * @return all properties to be written, in order.
+	 */
+	public List<PropertyPlan> getProperties() {
+		return properties;
+	}
+
+	/**
+	 * @return the properties to be set after the instance was created, i.e. the ones not populated through the
+	 *         persistence constructor and not excluded by a {@link PdxProjection}.
+	 */
+	public List<PropertyPlan> getNonConstructorProperties() {
+		return nonConstructorProperties;
+	}
+
+	/**
+	 * @return the name of the field to mark as identity field or {@literal null} if the entity has no id property.
+	 */
+	public String getIdentityField() {
+		return identityField;
+	}
+
+	private static boolean hasCustomSerializedConstructorArgument(List<PropertyPlan> properties) {
+
+		for (PropertyPlan property : properties) {
+			if (property.constructorArgument && property.customSerializer != null) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	/**
+	 * A single property of a {@link PdxSerializationPlan}.
+	 */
+	static class PropertyPlan {
+
+		final GemfirePersistentProperty property;
+		final String name;
+		final Class<?> type;
+		final PdxSerializer customSerializer;
+		final boolean constructorArgument;
+		final PrimitivePdxAccessor primitiveAccessor;
+		final Field readTarget;
+		final Field writeSource;
+		private final Method getter;
+		private final Method setter;
+		private final Field field;
+
+		PropertyPlan(GemfirePersistentProperty property, PdxSerializer customSerializer, boolean constructorArgument) {
+			this.property = property;
+			this.name = property.getName();
+			this.type = property.getType();
+			this.customSerializer = customSerializer;
+			this.constructorArgument = constructorArgument;
+			this.primitiveAccessor = customSerializer == null ? PrimitivePdxAccessor.forType(type) : null;
+
+			// primitive fields without accessor methods are read and written directly to avoid boxing
+			Field primitiveField = primitiveAccessor == null ? null : property.getField();
+			this.readTarget = property.getSetter() == null ? primitiveField : null;
+			this.writeSource = property.getGetter() == null ? primitiveField : null;
+
+			this.getter = property.getGetter();
+			this.setter = property.getSetter();
+			this.field = property.getField();
+
+			if (getter != null) {
+				ReflectionUtils.makeAccessible(getter);
+			}
+			if (setter != null) {
+				ReflectionUtils.makeAccessible(setter);
+			}
+			if (this.field != null) {
+				ReflectionUtils.makeAccessible(this.field);
+			}
+		}
+
+		/**
+		 * Returns the value of the property, preferring the getter over field access.
+		 */
+		Object getValue(Object bean) {
+			return getter == null ? ReflectionUtils.getField(field, bean) : ReflectionUtils.invokeMethod(getter, bean);
+		}
+
+		/**
+		 * Sets the given value, converting it to the property type if necessary and preferring the setter over field
+		 * access.
+		 */
+		void setValue(Object bean, Object value, ConversionService conversionService) {
+
+			Class<?> targetType = setter == null ? type : setter.getParameterTypes()[0];
+			Object converted = value == null || ClassUtils.isAssignableValue(targetType, value) ? value
+					: conversionService.convert(value, targetType);
+
+			if (setter == null) {
+				ReflectionUtils.setField(field, bean, converted);
+			} else {
+				ReflectionUtils.invokeMethod(setter, bean, converted);
+			}
+		}
+	}
+}
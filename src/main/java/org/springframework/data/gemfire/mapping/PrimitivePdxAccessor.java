@@ -0,0 +1,254 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.gemfire.mapping;
+
+import java.lang.reflect.Field;
+
+import com.gemstone.gemfire.pdx.PdxReader;
+import com.gemstone.gemfire.pdx.PdxWriter;
+
+/**
+ * Reads and writes primitive properties with the typed {@link PdxReader} and {@link PdxWriter} methods rather than
+ * {@link PdxReader#readField(String)} and {@link PdxWriter#writeField(String, Object, Class)}. Properties backed by a
+ * field only are copied between the field and the PDX stream without boxing the value.
+ */
+enum PrimitivePdxAccessor {
+
+	BOOLEAN(boolean.class) {
+
+		@Override
+		public void write(PdxWriter writer, String name, Object value) {
+			writer.writeBoolean(name, (Boolean) value);
+		}
+
+		@Override
+		public void write(PdxWriter writer, String name, Field field, Object bean) throws IllegalAccessException {
+			writer.writeBoolean(name, field.getBoolean(bean));
+		}
+
+		@Override
+		public Object read(PdxReader reader, String name) {
+			return reader.readBoolean(name);
+		}
+
+		@Override
+		public void read(PdxReader reader, String name, Field field, Object bean) throws IllegalAccessException {
+			field.setBoolean(bean, reader.readBoolean(name));
+		}
+	},
+
+	BYTE(byte.class) {
+
+		@Override
+		public void write(PdxWriter writer, String name, Object value) {
+			writer.writeByte(name, (Byte) value);
+		}
+
+		@Override
+		public void write(PdxWriter writer, String name, Field field, Object bean) throws IllegalAccessException {
+			writer.writeByte(name, field.getByte(bean));
+		}
+
+		@Override
+		public Object read(PdxReader reader, String name) {
+			return reader.readByte(name);
+		}
+
+		@Override
+		public void read(PdxReader reader, String name, Field field, Object bean) throws IllegalAccessException {
+			field.setByte(bean, reader.readByte(name));
+		}
+	},
+
+	CHAR(char.class) {
+
+		@Override
+		public void write(PdxWriter writer, String name, Object value) {
+			writer.writeChar(name, (Character) value);
+		}
+
+		@Override
+		public void write(PdxWriter writer, String name, Field field, Object bean) throws IllegalAccessException {
+			writer.writeChar(name, field.getChar(bean));
+		}
+
+		@Override
+		public Object read(PdxReader reader, String name) {
+			return reader.readChar(name);
+		}
+
+		@Override
+		public void read(PdxReader reader, String name, Field field, Object bean) throws IllegalAccessException {
+			field.setChar(bean, reader.readChar(name));
+		}
+	},
+
+	SHORT(short.class) {
+
+		@Override
+		public void write(PdxWriter writer, String name, Object value) {
+			writer.writeShort(name, (Short) value);
+		}
+
+		@Override
+		public void write(PdxWriter writer, String name, Field field, Object bean) throws IllegalAccessException {
+			writer.writeShort(name, field.getShort(bean));
+		}
+
+		@Override
+		public Object read(PdxReader reader, String name) {
+			return reader.readShort(name);
+		}
+
+		@Override
+		public void read(PdxReader reader, String name, Field field, Object bean) throws IllegalAccessException {
+			field.setShort(bean, reader.readShort(name));
+		}
+	},
+
+	INT(int.class) {
+
+		@Override
+		public void write(PdxWriter writer, String name, Object value) {
+			writer.writeInt(name, (Integer) value);
+		}
+
+		@Override
+		public void write(PdxWriter writer, String name, Field field, Object bean) throws IllegalAccessException {
+			writer.writeInt(name, field.getInt(bean));
+		}
+
+		@Override
+		public Object read(PdxReader reader, String name) {
+			return reader.readInt(name);
+		}
+
+		@Override
+		public void read(PdxReader reader, String name, Field field, Object bean) throws IllegalAccessException {
+			field.setInt(bean, reader.readInt(name));
+		}
+	},
+
+	LONG(long.class) {
+
+		@Override
+		public void write(PdxWriter writer, String name, Object value) {
+			writer.writeLong(name, (Long) value);
+		}
+
+		@Override
+		public void write(PdxWriter writer, String name, Field field, Object bean) throws IllegalAccessException {
+			writer.writeLong(name, field.getLong(bean));
+		}
+
+		@Override
+		public Object read(PdxReader reader, String name) {
+			return reader.readLong(name);
+		}
+
+		@Override
+		public void read(PdxReader reader, String name, Field field, Object bean) throws IllegalAccessException {
+			field.setLong(bean, reader.readLong(name));
+		}
+	},
+
+	FLOAT(float.class) {
+
+		@Override
+		public void write(PdxWriter writer, String name, Object value) {
+			writer.writeFloat(name, (Float) value);
+		}
+
+		@Override
+		public void write(PdxWriter writer, String name, Field field, Object bean) throws IllegalAccessException {
+			writer.writeFloat(name, field.getFloat(bean));
+		}
+
+		@Override
+		public Object read(PdxReader reader, String name) {
+			return reader.readFloat(name);
+		}
+
+		@Override
+		public void read(PdxReader reader, String name, Field field, Object bean) throws IllegalAccessException {
+			field.setFloat(bean, reader.readFloat(name));
+		}
+	},
+
+	DOUBLE(double.class) {
+
+		@Override
+		public void write(PdxWriter writer, String name, Object value) {
+			writer.writeDouble(name, (Double) value);
+		}
+
+		@Override
+		public void write(PdxWriter writer, String name, Field field, Object bean) throws IllegalAccessException {
+			writer.writeDouble(name, field.getDouble(bean));
+		}
+
+		@Override
+		public Object read(PdxReader reader, String name) {
+			return reader.readDouble(name);
+		}
+
+		@Override
+		public void read(PdxReader reader, String name, Field field, Object bean) throws IllegalAccessException {
+			field.setDouble(bean, reader.readDouble(name));
+		}
+	};
+
+	private final Class<?> type;
+
+	private PrimitivePdxAccessor(Class<?> type) {
+		this.type = type;
+	}
+
+	/**
+	 * Returns the {@link PrimitivePdxAccessor} for the given type.
+	 *
+	 * @param type can be {@literal null}.
+	 * @return the accessor or {@literal null} if the given type is not a primitive one.
+	 */
+	public static PrimitivePdxAccessor forType(Class<?> type) {
+		for (PrimitivePdxAccessor accessor : values()) {
+			if (accessor.type.equals(type)) {
+				return accessor;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Writes the given (boxed) value.
+	 */
+	public abstract void write(PdxWriter writer, String name, Object value);
+
+	/**
+	 * Writes the value of the given {@link Field} of the given bean.
+	 */
+	public abstract void write(PdxWriter writer, String name, Field field, Object bean) throws IllegalAccessException;
+
+	/**
+	 * Reads the value as its wrapper type.
+	 */
+	public abstract Object read(PdxReader reader, String name);
+
+	/**
+	 * Reads the value into the given {@link Field} of the given bean.
+	 */
+	public abstract void read(PdxReader reader, String name, Field field, Object bean) throws IllegalAccessException;
+}
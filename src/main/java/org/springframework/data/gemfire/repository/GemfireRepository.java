@@ -17,6 +17,9 @@ package org.springframework.data.gemfire.repository;
 
 import java.io.Serializable;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.repository.CrudRepository;
 
 /**
@@ -27,4 +30,30 @@ import org.springframework.data.repository.CrudRepository;
 public interface GemfireRepository<T, ID extends Serializable> extends CrudRepository<T, ID> {
 
 	T save(Wrapper<T, ID> wrapper);
+
+	/**
+	 * Returns all entities sorted by the given {@link Sort}.
+	 * 
+	 * @param sort the {@link Sort} to apply, must not be {@literal null}.
+	 * @return all entities, sorted.
+	 */
+	Iterable<T> findAll(Sort sort);
+
+	/**
+	 * Returns a {@link Page} of entities. Unless the {@link Pageable} is sorted, only the keys preceding the requested
+	 * page are fetched from the region, the values of the page are fetched by key.
+	 * 
+	 * @param pageable the page to return, must not be {@literal null}.
+	 * @return a page of entities.
+	 */
+	Page<T> findAll(Pageable pageable);
+
+	/**
+	 * Returns all entities of the region, fetched lazily in bounded chunks ordered by key while iterating. As opposed to
+	 * {@link #findAll()} the entities are never held in memory at once. The keys, however, are: they are queried and
+	 * sorted once when the iteration starts, so the region keys have to be {@link Comparable}.
+	 * 
+	 * @return all entities, fetched lazily.
+	 */
+	Iterable<T> findAllLazily();
 }
@@ -32,4 +32,10 @@ public @interface Query {
 
 	String value() default "";
 
+	/**
+	 * The OQL query used to count the total number of results of a paged query method. Derived from the query itself if
+	 * not given.
+	 */
+	String countQuery() default "";
+
 }
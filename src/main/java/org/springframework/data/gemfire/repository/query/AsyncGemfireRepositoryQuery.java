@@ -0,0 +1,74 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.gemfire.repository.query;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.data.repository.query.QueryMethod;
+import org.springframework.data.repository.query.RepositoryQuery;
+import org.springframework.util.Assert;
+
+/**
+ * {@link RepositoryQuery} executing a query method returning a {@link Future} on an {@link AsyncTaskExecutor}. The
+ * actual query execution is delegated to the given {@link RepositoryQuery}, the returned {@link Future} will hold its
+ * result.
+ */
+public class AsyncGemfireRepositoryQuery implements RepositoryQuery {
+
+	private final RepositoryQuery delegate;
+	private final AsyncTaskExecutor executor;
+
+	/**
+	 * Creates a new {@link AsyncGemfireRepositoryQuery} for the given {@link RepositoryQuery} and
+	 * {@link AsyncTaskExecutor}.
+	 *
+	 * @param delegate must not be {@literal null}.
+	 * @param executor must not be {@literal null}.
+	 */
+	public AsyncGemfireRepositoryQuery(RepositoryQuery delegate, AsyncTaskExecutor executor) {
+
+		Assert.notNull(delegate);
+		Assert.notNull(executor);
+
+		this.delegate = delegate;
+		this.executor = executor;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.repository.query.RepositoryQuery#execute(java.lang.Object[])
+	 */
+	@Override
+	public Future<Object> execute(final Object[] parameters) {
+		return executor.submit(new Callable<Object>() {
+			@Override
+			public Object call() throws Exception {
+				return delegate.execute(parameters);
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.repository.query.RepositoryQuery#getQueryMethod()
+	 */
+	@Override
+	public QueryMethod getQueryMethod() {
+		return delegate.getQueryMethod();
+	}
+}
@@ -15,6 +15,7 @@
  */
 package org.springframework.data.gemfire.repository.query;
 
+import java.util.Collection;
 import java.util.Iterator;
 
 import org.apache.commons.logging.Log;
@@ -44,10 +45,22 @@ class GemfireQueryCreator extends AbstractQueryCreator<QueryString, Predicates>
 	 * @param entity must not be {@literal null}.
 	 */
 	public GemfireQueryCreator(PartTree tree, GemfirePersistentEntity<?> entity) {
+		this(tree, entity, null);
+	}
+
+	/**
+	 * Creates a new {@link GemfireQueryCreator} using the given {@link PartTree} and domain class, selecting only the
+	 * given properties.
+	 * 
+	 * @param tree must not be {@literal null}.
+	 * @param entity must not be {@literal null}.
+	 * @param properties the properties to select, selects the entire entity if {@literal null} or empty.
+	 */
+	public GemfireQueryCreator(PartTree tree, GemfirePersistentEntity<?> entity, Collection<String> properties) {
 
 		super(tree);
 
-		this.query = new QueryBuilder(entity);
+		this.query = new QueryBuilder(entity, properties);
 		this.indexes = new IndexProvider();
 	}
 
@@ -96,7 +109,7 @@ class GemfireQueryCreator extends AbstractQueryCreator<QueryString, Predicates>
 	@Override
 	protected QueryString complete(Predicates criteria, Sort sort) {
 
-		QueryString result = query.create(criteria);
+		QueryString result = query.create(criteria).orderBy(sort);
 
 		if (LOG.isDebugEnabled()) {
 			LOG.debug("Created query: " + result.toString());
@@ -16,15 +16,18 @@
 package org.springframework.data.gemfire.repository.query;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.Future;
 
 import org.springframework.core.annotation.AnnotationUtils;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Page;
 import org.springframework.data.gemfire.mapping.GemfirePersistentEntity;
 import org.springframework.data.gemfire.mapping.GemfirePersistentProperty;
 import org.springframework.data.gemfire.repository.Query;
 import org.springframework.data.mapping.context.MappingContext;
 import org.springframework.data.repository.core.RepositoryMetadata;
 import org.springframework.data.repository.query.QueryMethod;
+import org.springframework.data.util.ClassTypeInformation;
+import org.springframework.data.util.TypeInformation;
 import org.springframework.util.Assert;
 import org.springframework.util.StringUtils;
 
@@ -37,6 +40,8 @@ public class GemfireQueryMethod extends QueryMethod {
 
 	private final Method method;
 	private final GemfirePersistentEntity<?> entity;
+	private final TypeInformation<?> asyncResultType;
+	private final Projection projection;
 
 	/**
 	 * Creates a new {@link GemfireQueryMethod} from the given {@link Method} and {@link RepositoryMetadata}.
@@ -52,15 +57,10 @@ public class GemfireQueryMethod extends QueryMethod {
 
 		Assert.notNull(context);
 
-		for (Class<?> type : method.getParameterTypes()) {
-			if (Pageable.class.isAssignableFrom(type)) {
-				throw new IllegalStateException("Pagination is not supported by Gemfire repositories! Offending method: "
-						+ method.toString());
-			}
-		}
-
 		this.method = method;
 		this.entity = context.getPersistentEntity(getDomainClass());
+		this.asyncResultType = getAsyncResultType(method);
+		this.projection = Projection.of(getReturnedObjectType(), entity);
 	}
 
 	/**
@@ -81,6 +81,90 @@ public class GemfireQueryMethod extends QueryMethod {
 		return entity;
 	}
 
+	/**
+	 * Returns whether the query method returns a {@link Future} and thus has to be executed asynchronously.
+	 * 
+	 * @return
+	 */
+	public boolean isAsyncQuery() {
+		return asyncResultType != null;
+	}
+
+	/* 
+	 * (non-Javadoc)
+	 * @see org.springframework.data.repository.query.QueryMethod#getReturnedObjectType()
+	 */
+	@Override
+	public Class<?> getReturnedObjectType() {
+
+		if (asyncResultType == null) {
+			return super.getReturnedObjectType();
+		}
+
+		TypeInformation<?> componentType = Iterable.class.isAssignableFrom(asyncResultType.getType()) ? asyncResultType
+				.getComponentType() : null;
+
+		return componentType == null ? asyncResultType.getType() : componentType.getType();
+	}
+
+	/* 
+	 * (non-Javadoc)
+	 * @see org.springframework.data.repository.query.QueryMethod#isCollectionQuery()
+	 */
+	@Override
+	public boolean isCollectionQuery() {
+
+		if (asyncResultType == null) {
+			return super.isCollectionQuery();
+		}
+
+		return !isPageQuery() && Iterable.class.isAssignableFrom(asyncResultType.getType());
+	}
+
+	/* 
+	 * (non-Javadoc)
+	 * @see org.springframework.data.repository.query.QueryMethod#isPageQuery()
+	 */
+	@Override
+	public boolean isPageQuery() {
+		return asyncResultType == null ? super.isPageQuery() : Page.class.isAssignableFrom(asyncResultType.getType());
+	}
+
+	/**
+	 * Returns whether the query method returns a projection of the domain type, i.e. an interface or class exposing a
+	 * subset of the entity's properties.
+	 * 
+	 * @return
+	 */
+	public boolean isProjectionQuery() {
+		return projection != null;
+	}
+
+	/**
+	 * Returns the {@link Projection} the query results have to be mapped to.
+	 * 
+	 * @return the {@link Projection} or {@literal null} if the query method does not return a projection.
+	 */
+	Projection getProjection() {
+		return projection;
+	}
+
+	/**
+	 * Returns the type of the value a {@link Future} returned by the given method will hold.
+	 * 
+	 * @return the result type or {@literal null} if the method does not return a {@link Future}.
+	 */
+	private static TypeInformation<?> getAsyncResultType(Method method) {
+
+		if (!Future.class.isAssignableFrom(method.getReturnType())) {
+			return null;
+		}
+
+		TypeInformation<?> returnType = ClassTypeInformation.fromReturnTypeOf(method);
+		return returnType.getTypeArguments().isEmpty() ? ClassTypeInformation.OBJECT : returnType.getTypeArguments()
+				.get(0);
+	}
+
 	/**
 	 * Returns the query annotated to the query method.
 	 * 
@@ -93,4 +177,17 @@ public class GemfireQueryMethod extends QueryMethod {
 
 		return StringUtils.hasText(queryString) ? queryString : null;
 	}
+
+	/**
+	 * Returns the count query annotated to the query method.
+	 * 
+	 * @return the annotated count query or {@literal null} in case it's empty or none available.
+	 */
+	String getAnnotatedCountQuery() {
+
+		Query query = method.getAnnotation(Query.class);
+		String queryString = query == null ? null : query.countQuery();
+
+		return StringUtils.hasText(queryString) ? queryString : null;
+	}
 }
@@ -15,9 +15,18 @@
  */
 package org.springframework.data.gemfire.repository.query;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+import org.springframework.data.domain.Sort;
 import org.springframework.data.gemfire.GemfireTemplate;
+import org.springframework.data.gemfire.mapping.GemfirePersistentEntity;
+import org.springframework.data.repository.query.Parameters;
 import org.springframework.data.repository.query.ParametersParameterAccessor;
 import org.springframework.data.repository.query.RepositoryQuery;
 import org.springframework.data.repository.query.parser.Part;
@@ -26,15 +35,28 @@ import org.springframework.data.repository.query.parser.PartTree;
 
 /**
  * {@link GemfireRepositoryQuery} backed by a {@link PartTree} and thus, deriving an OQL query from the backing query
- * method's name.
+ * method's name. The derived query is created once per dynamic {@link Sort} parameter value (including the
+ * {@literal ORDER BY} clause for it and any static ordering) and reused for subsequent executions. Methods
+ * starting with {@literal countBy} and {@literal existsBy} derive a {@literal SELECT count(*)} query or a query
+ * selecting the identifier of a single matching entity only.
  * 
  * @author Oliver Gierke
  */
 public class PartTreeGemfireRepositoryQuery extends GemfireRepositoryQuery {
 
+	private static final int MAX_CACHED_SORTS = 64;
+
+	private static final Object UNSORTED = new Object();
+
+	private static final Pattern COUNT_OR_EXISTS_PREFIX = Pattern.compile("^(count|exists)(?=(\\p{Lu}.*?)??By)");
+
 	private final GemfireQueryMethod method;
 	private final PartTree tree;
 	private final GemfireTemplate template;
+	private final Type[] parameterTypes;
+	private final boolean countQuery;
+	private final boolean existsQuery;
+	private final ConcurrentMap<Object, RepositoryQuery> queries = new ConcurrentHashMap<Object, RepositoryQuery>();
 
 	/**
 	 * Creates a new {@link PartTreeGemfireRepositoryQuery} using the given {@link GemfireQueryMethod} and
@@ -48,10 +70,15 @@ public class PartTreeGemfireRepositoryQuery extends GemfireRepositoryQuery {
 		super(method);
 
 		Class<?> domainClass = method.getEntityInformation().getJavaType();
+		Matcher prefix = COUNT_OR_EXISTS_PREFIX.matcher(method.getName());
+		String prefixKeyword = prefix.find() ? prefix.group(1) : null;
 
-		this.tree = new PartTree(method.getName(), domainClass);
+		this.countQuery = "count".equals(prefixKeyword);
+		this.existsQuery = "exists".equals(prefixKeyword);
+		this.tree = new PartTree(prefixKeyword == null ? method.getName() : prefix.replaceFirst("find"), domainClass);
 		this.method = method;
 		this.template = template;
+		this.parameterTypes = getParameterTypes(tree, method.getParameters());
 	}
 
 	/* 
@@ -61,31 +88,99 @@ public class PartTreeGemfireRepositoryQuery extends GemfireRepositoryQuery {
 	@Override
 	public Object execute(Object[] parameters) {
 
-		ParametersParameterAccessor parameterAccessor = new ParametersParameterAccessor(method.getParameters(), parameters);
-		QueryString query = new GemfireQueryCreator(tree, method.getPersistentEntity()).createQuery(parameterAccessor
-				.getSort());
+		Parameters methodParameters = method.getParameters();
+		// the sort of a Pageable is applied by the StringBasedGemfireRepositoryQuery
+		Sort sort = methodParameters.hasSortParameter() ? new ParametersParameterAccessor(methodParameters, parameters)
+				.getSort() : null;
+
+		return getQuery(sort).execute(prepareStringParameters(parameters));
+	}
+
+	/**
+	 * Returns the query derived for the given {@link Sort}, creating and caching it on first use.
+	 */
+	private RepositoryQuery getQuery(Sort sort) {
+
+		Object key = sort == null ? UNSORTED : sort;
+		RepositoryQuery query = queries.get(key);
+
+		if (query == null) {
+			QueryString queryString = createQuery(sort);
+			query = new StringBasedGemfireRepositoryQuery(queryString.toString(), method, template);
 
-		RepositoryQuery repositoryQuery = new StringBasedGemfireRepositoryQuery(query.toString(), method, template);
+			if (queries.size() < MAX_CACHED_SORTS) {
+				RepositoryQuery existing = queries.putIfAbsent(key, query);
+				query = existing == null ? query : existing;
+			}
+		}
 
-		return repositoryQuery.execute(prepareStringParameters(parameters));
+		return query;
+	}
+
+	private QueryString createQuery(Sort sort) {
+
+		GemfirePersistentEntity<?> entity = method.getPersistentEntity();
+		Projection projection = method.getProjection();
+		Collection<String> properties = projection == null ? null : projection.getProperties();
+
+		if (existsQuery && entity.getIdProperty() != null) {
+			properties = Collections.singletonList(entity.getIdProperty().getName());
+		}
+
+		GemfireQueryCreator creator = new GemfireQueryCreator(tree, entity, properties);
+
+		if (countQuery) {
+			return creator.createQuery().asCountQuery();
+		}
+
+		QueryString query = creator.createQuery(sort);
+
+		return existsQuery ? query.limit(1) : query;
+	}
+
+	/**
+	 * Resolves the {@link Part} {@link Type} each method parameter is bound to, {@literal null} for special parameters.
+	 */
+	private static Type[] getParameterTypes(PartTree tree, Parameters parameters) {
+
+		Type[] result = new Type[parameters.getNumberOfParameters()];
+		Iterator<Part> parts = tree.getParts().iterator();
+		Part part = null;
+		int remainingArguments = 0;
+
+		for (int i = 0; i < result.length; i++) {
+
+			if (parameters.getParameter(i).isSpecialParameter()) {
+				continue;
+			}
+
+			while (remainingArguments == 0 && parts.hasNext()) {
+				part = parts.next();
+				remainingArguments = part.getNumberOfArguments();
+			}
+
+			if (remainingArguments > 0) {
+				result[i] = part.getType();
+				remainingArguments--;
+			}
+		}
+
+		return result;
 	}
 
 	private Object[] prepareStringParameters(Object[] parameters) {
 
-		Iterator<Part> iterator = tree.getParts().iterator();
 		Object[] result = new Object[parameters.length];
 
 		for (int i = 0; i < parameters.length; i++) {
 			Object parameter = parameters[i];
 
-			if (parameter == null) {
+			if (parameter == null || parameterTypes[i] == null) {
 				result[i] = parameter;
 				continue;
 			}
 
-			Type type = iterator.next().getType();
-
-			switch (type) {
+			switch (parameterTypes[i]) {
 			case CONTAINING:
 				result[i] = String.format("%%%s%%", parameter.toString());
 				break;
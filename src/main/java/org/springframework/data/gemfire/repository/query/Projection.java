@@ -0,0 +1,244 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.gemfire.repository.query;
+
+import java.beans.PropertyDescriptor;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.PropertyAccessor;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.core.convert.ConversionService;
+import org.springframework.core.convert.support.DefaultConversionService;
+import org.springframework.data.gemfire.mapping.GemfirePersistentEntity;
+import org.springframework.data.gemfire.mapping.GemfirePersistentProperty;
+import org.springframework.data.mapping.model.BeanWrapper;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+import com.gemstone.gemfire.cache.query.Struct;
+
+/**
+ * A projection of a domain type onto a subset of its properties. Projections are either interfaces exposing getters
+ * for the properties of interest or classes with a default constructor and setters for them. The projected properties
+ * are selected explicitly ({@literal SELECT x.firstname, x.lastname FROM ...}) so that only the required values are
+ * transferred, and the resulting {@link Struct}s are turned into instances of the projection type.
+ */
+class Projection {
+
+	private static final ConversionService CONVERSION_SERVICE = new DefaultConversionService();
+
+	private final Class<?> type;
+	private final GemfirePersistentEntity<?> entity;
+	private final List<String> properties;
+	private final Map<Method, String> getters;
+
+	private Projection(Class<?> type, GemfirePersistentEntity<?> entity, List<String> properties,
+			Map<Method, String> getters) {
+
+		this.type = type;
+		this.entity = entity;
+		this.properties = Collections.unmodifiableList(properties);
+		this.getters = getters;
+	}
+
+	/**
+	 * Returns the {@link Projection} of the given {@link GemfirePersistentEntity} onto the given type or {@literal null}
+	 * if the type is not a projection, i.e. it's the domain type itself, a simple type or does not expose any of the
+	 * entity's properties.
+	 *
+	 * @param type must not be {@literal null}.
+	 * @param entity must not be {@literal null}.
+	 * @return
+	 */
+	public static Projection of(Class<?> type, GemfirePersistentEntity<?> entity) {
+
+		Assert.notNull(type);
+		Assert.notNull(entity);
+
+		Class<?> domainType = entity.getType();
+
+		if (type.isAssignableFrom(domainType) || domainType.isAssignableFrom(type) || BeanUtils.isSimpleProperty(type)
+				|| Map.class.isAssignableFrom(type) || Struct.class.isAssignableFrom(type)) {
+			return null;
+		}
+
+		List<String> properties = new ArrayList<String>();
+		Map<Method, String> getters = new HashMap<Method, String>();
+
+		for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(type)) {
+
+			Method accessor = type.isInterface() ? descriptor.getReadMethod() : descriptor.getWriteMethod();
+
+			if (accessor == null || entity.getPersistentProperty(descriptor.getName()) == null) {
+				continue;
+			}
+
+			properties.add(descriptor.getName());
+
+			if (type.isInterface()) {
+				getters.put(accessor, descriptor.getName());
+			}
+		}
+
+		return properties.isEmpty() ? null : new Projection(type, entity, properties, getters);
+	}
+
+	/**
+	 * Returns the names of the projected properties.
+	 *
+	 * @return
+	 */
+	public List<String> getProperties() {
+		return properties;
+	}
+
+	/**
+	 * Converts the given query result element into an instance of the projection type. Supports {@link Struct}s, plain
+	 * values (in case only a single property is projected) and instances of the domain type.
+	 *
+	 * @param source can be {@literal null}.
+	 * @return
+	 */
+	public Object convert(Object source) {
+
+		if (source == null || type.isInstance(source)) {
+			return source;
+		}
+
+		Map<String, Object> values = getValues(source);
+
+		if (type.isInterface()) {
+			return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new ProjectionInvocationHandler(
+					values));
+		}
+
+		Object result = BeanUtils.instantiateClass(type);
+		PropertyAccessor accessor = PropertyAccessorFactory.forBeanPropertyAccess(result);
+
+		for (Map.Entry<String, Object> entry : values.entrySet()) {
+			if (accessor.isWritableProperty(entry.getKey())) {
+				accessor.setPropertyValue(entry.getKey(), entry.getValue());
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Converts all of the given query result elements into instances of the projection type.
+	 *
+	 * @param source must not be {@literal null}.
+	 * @return
+	 */
+	public List<Object> convertAll(Collection<?> source) {
+
+		List<Object> result = new ArrayList<Object>(source.size());
+		for (Object element : source) {
+			result.add(convert(element));
+		}
+
+		return result;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Map<String, Object> getValues(Object source) {
+
+		Map<String, Object> values = new LinkedHashMap<String, Object>();
+
+		if (source instanceof Struct) {
+
+			Struct struct = (Struct) source;
+			String[] names = struct.getStructType().getFieldNames();
+			Object[] fieldValues = struct.getFieldValues();
+
+			for (int i = 0; i < names.length; i++) {
+				values.put(names[i], fieldValues[i]);
+			}
+
+		} else if (entity.getType().isInstance(source)) {
+
+			BeanWrapper wrapper = BeanWrapper.create(source, CONVERSION_SERVICE);
+
+			for (String property : properties) {
+				GemfirePersistentProperty persistentProperty = entity.getPersistentProperty(property);
+				values.put(property, wrapper.getProperty(persistentProperty));
+			}
+
+		} else {
+
+			Assert.isTrue(properties.size() == 1, "Cannot map " + source + " onto multiple properties " + properties);
+			values.put(properties.get(0), source);
+		}
+
+		return values;
+	}
+
+	/**
+	 * {@link InvocationHandler} backing interface based projections with the values selected by the query.
+	 */
+	private class ProjectionInvocationHandler implements InvocationHandler {
+
+		private final Map<String, Object> values;
+
+		public ProjectionInvocationHandler(Map<String, Object> values) {
+			this.values = values;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.reflect.InvocationHandler#invoke(java.lang.Object, java.lang.reflect.Method, java.lang.Object[])
+		 */
+		@Override
+		public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+			String property = getters.get(method);
+
+			if (property != null) {
+				return values.get(property);
+			}
+
+			if (ObjectUtils.nullSafeEquals(method.getName(), "equals") && args != null && args.length == 1) {
+				return args[0] != null && Proxy.isProxyClass(args[0].getClass())
+						&& values.equals(valuesOf(Proxy.getInvocationHandler(args[0])));
+			}
+
+			if (ObjectUtils.nullSafeEquals(method.getName(), "hashCode") && args == null) {
+				return values.hashCode();
+			}
+
+			if (ObjectUtils.nullSafeEquals(method.getName(), "toString") && args == null) {
+				return type.getSimpleName() + values;
+			}
+
+			throw new UnsupportedOperationException(String.format("Method %s is not backed by a projected property!",
+					method));
+		}
+
+		private Map<String, Object> valuesOf(InvocationHandler handler) {
+			return handler instanceof ProjectionInvocationHandler ? ((ProjectionInvocationHandler) handler).values : null;
+		}
+	}
+}
@@ -15,9 +15,12 @@
  */
 package org.springframework.data.gemfire.repository.query;
 
+import java.util.Collection;
+
 import org.springframework.data.gemfire.mapping.GemfirePersistentEntity;
 import org.springframework.data.repository.query.parser.PartTree;
 import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
 
 /**
  * 
@@ -36,7 +39,17 @@ class QueryBuilder {
 	}
 
 	public QueryBuilder(GemfirePersistentEntity<?> entity) {
-		this(String.format("SELECT * FROM /%s %s", entity.getRegionName(), DEFAULT_ALIAS));
+		this(entity, null);
+	}
+
+	/**
+	 * Creates a {@link QueryBuilder} selecting only the given properties of the given {@link GemfirePersistentEntity}.
+	 * 
+	 * @param entity must not be {@literal null}.
+	 * @param properties the properties to select, selects the entire entity if {@literal null} or empty.
+	 */
+	public QueryBuilder(GemfirePersistentEntity<?> entity, Collection<String> properties) {
+		this(String.format("SELECT %s FROM /%s %s", getProjection(properties), entity.getRegionName(), DEFAULT_ALIAS));
 	}
 
 	public QueryString create(Predicate predicate) {
@@ -44,6 +57,20 @@ class QueryBuilder {
 		return new QueryString(query + " WHERE " + predicate.toString(DEFAULT_ALIAS));
 	}
 
+	private static String getProjection(Collection<String> properties) {
+
+		if (CollectionUtils.isEmpty(properties)) {
+			return "*";
+		}
+
+		StringBuilder builder = new StringBuilder();
+		for (String property : properties) {
+			builder.append(builder.length() == 0 ? "" : ", ").append(DEFAULT_ALIAS).append(".").append(property);
+		}
+
+		return builder.toString();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see java.lang.Object#toString()
@@ -16,13 +16,13 @@
 package org.springframework.data.gemfire.repository.query;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Order;
 import org.springframework.util.Assert;
-import org.springframework.util.StringUtils;
 
 import com.gemstone.gemfire.cache.Region;
 
@@ -36,8 +36,13 @@ class QueryString {
 
 	//private static final String REGION_PATTERN = "(?<=\\/)\\w+";
 	private static final String REGION_PATTERN = "\\/(\\/?\\w)+";
-	private static final String IN_PARAMETER_PATTERN = "(?<=IN (SET|LIST) \\$)\\d";
-	private static final String IN_PATTERN = "(?<=IN (SET|LIST) )\\$\\d";
+	private static final String IN_PARAMETER_PATTERN = "(?<=IN (SET|LIST) \\$)\\d+";
+	private static final String IN_PATTERN = "(?<=IN) (SET|LIST) (?=\\$\\d+)";
+	private static final Pattern PROJECTION_PATTERN = Pattern.compile("^\\s*SELECT\\s+(DISTINCT\\s+)?(.+?)\\s+FROM\\s",
+			Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+	private static final Pattern ORDER_BY_PATTERN = Pattern.compile("\\s+ORDER\\s+BY\\s+.*?(?=(\\s+LIMIT\\s+\\d+)?\\s*$)",
+			Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+	private static final Pattern LIMIT_PATTERN = Pattern.compile("\\s+LIMIT\\s+(\\d+)\\s*$", Pattern.CASE_INSENSITIVE);
 
 	private final String query;
 
@@ -84,20 +89,14 @@ class QueryString {
 	}
 
 	/**
-	 * Binds the given values to the {@literal IN} parameter keyword by expanding the given values into a comma-separated
-	 * {@link String}.
+	 * Turns the {@literal IN SET $n} and {@literal IN LIST $n} parameters into plain {@literal IN $n} bind variables so
+	 * that the collection values can be handed to the query as parameters. This keeps the query text independent of the
+	 * actual values.
 	 * 
-	 * @param values the values to bind, returns the {@link QueryString} as is if {@literal null} is given.
 	 * @return
 	 */
-	public QueryString bindIn(Collection<?> values) {
-
-		if (values == null) {
-			return this;
-		}
-
-		String valueString = StringUtils.collectionToDelimitedString(values, ", ", "'", "'");
-		return new QueryString(query.replaceFirst(IN_PATTERN, String.format("(%s)", valueString)));
+	public QueryString bindInAsParameters() {
+		return new QueryString(query.replaceAll(IN_PATTERN, " "));
 	}
 
 	/**
@@ -118,6 +117,123 @@ class QueryString {
 		return result;
 	}
 
+	/**
+	 * Appends an {@literal ORDER BY} clause for the given {@link Sort} to the query, turning it into a
+	 * {@literal SELECT DISTINCT} query as required by OQL. Orders are appended to an already existing
+	 * {@literal ORDER BY} clause.
+	 * 
+	 * @param sort the {@link Sort} to apply, returns the {@link QueryString} as is if {@literal null} is given.
+	 * @return
+	 */
+	public QueryString orderBy(Sort sort) {
+
+		if (sort == null) {
+			return this;
+		}
+
+		StringBuilder orderBy = new StringBuilder();
+		for (Order order : sort) {
+			orderBy.append(orderBy.length() == 0 ? "" : ", ").append(order.getProperty())
+					.append(order.isAscending() ? " ASC" : " DESC");
+		}
+
+		Matcher limit = LIMIT_PATTERN.matcher(query);
+		String limitClause = limit.find() ? limit.group() : "";
+		String source = query.substring(0, query.length() - limitClause.length());
+
+		Matcher projection = PROJECTION_PATTERN.matcher(source);
+		if (projection.find() && projection.group(1) == null) {
+			source = source.substring(0, projection.start(2)) + "DISTINCT " + source.substring(projection.start(2));
+		}
+
+		String separator = ORDER_BY_PATTERN.matcher(source).find() ? ", " : " ORDER BY ";
+		return new QueryString(source + separator + orderBy + limitClause);
+	}
+
+	/**
+	 * Limits the number of results to the given value. An already existing {@literal LIMIT} clause is retained if it is
+	 * more restrictive.
+	 * 
+	 * @param limit the maximum number of results.
+	 * @return
+	 */
+	public QueryString limit(int limit) {
+
+		Matcher matcher = LIMIT_PATTERN.matcher(query);
+
+		if (matcher.find()) {
+			int existing = Integer.parseInt(matcher.group(1));
+			return existing <= limit ? this : new QueryString(query.substring(0, matcher.start()) + " LIMIT " + limit);
+		}
+
+		return new QueryString(query + " LIMIT " + limit);
+	}
+
+	/**
+	 * Returns whether the query selects an explicit projection, i.e. anything but {@literal SELECT *}.
+	 * 
+	 * @return
+	 */
+	public boolean isProjection() {
+
+		Matcher projection = PROJECTION_PATTERN.matcher(query);
+		return projection.find() && !"*".equals(projection.group(2).trim());
+	}
+
+	/**
+	 * Returns whether the query selects distinct values of an explicit projection, i.e. anything but
+	 * {@literal SELECT DISTINCT *}. The number of results of such a query cannot be derived through {@literal count(*)}
+	 * over its {@literal FROM} clause.
+	 * 
+	 * @return
+	 */
+	public boolean isDistinctProjection() {
+
+		Matcher projection = PROJECTION_PATTERN.matcher(query);
+		return projection.find() && projection.group(1) != null && !"*".equals(projection.group(2).trim());
+	}
+
+	/**
+	 * Returns whether the query contains an {@literal ORDER BY} clause.
+	 * 
+	 * @return
+	 */
+	public boolean isOrdered() {
+		return ORDER_BY_PATTERN.matcher(query).find();
+	}
+
+	/**
+	 * Drops any {@literal ORDER BY} and {@literal LIMIT} clauses from the query.
+	 * 
+	 * @return
+	 */
+	public QueryString unordered() {
+
+		String source = LIMIT_PATTERN.matcher(query).replaceFirst("");
+		return new QueryString(ORDER_BY_PATTERN.matcher(source).replaceFirst(""));
+	}
+
+	/**
+	 * Derives a {@literal SELECT count(*)} query from the current query by replacing its projection and dropping any
+	 * {@literal ORDER BY} and {@literal LIMIT} clauses. Distinct projections (see {@link #isDistinctProjection()}) are
+	 * counted through a subquery instead, so that the distinct values are counted on the server.
+	 * 
+	 * @return
+	 */
+	public QueryString asCountQuery() {
+
+		String source = unordered().toString();
+
+		if (isDistinctProjection()) {
+			return new QueryString("SELECT count(*) FROM (" + source + ")");
+		}
+
+		Matcher projection = PROJECTION_PATTERN.matcher(source);
+		Assert.isTrue(projection.find(), "Cannot derive count query from " + query);
+
+		return new QueryString("SELECT count(*) FROM " + source.substring(projection.end()));
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see java.lang.Object#toString()
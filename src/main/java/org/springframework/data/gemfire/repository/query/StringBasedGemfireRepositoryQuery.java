@@ -15,15 +15,28 @@
  */
 package org.springframework.data.gemfire.repository.query;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.gemfire.GemfireTemplate;
+import org.springframework.data.gemfire.mapping.GemfirePersistentEntity;
 import org.springframework.data.repository.query.ParametersParameterAccessor;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.NumberUtils;
+import org.springframework.util.ObjectUtils;
 import org.springframework.util.StringUtils;
 
 import com.gemstone.gemfire.cache.query.internal.ResultsBag;
@@ -36,11 +49,19 @@ import com.gemstone.gemfire.cache.query.internal.ResultsBag;
  */
 public class StringBasedGemfireRepositoryQuery extends GemfireRepositoryQuery {
 
-	private static final String INVALID_EXECUTION = "Paging and modifying queries are not supported!";
+	private static final String INVALID_EXECUTION = "Modifying queries are not supported!";
+
+	private static final String UNSORTED_PAGEABLE = "Paging %s requires a Sort as it neither selects entities with an identifier nor declares an ORDER BY clause!";
+
+	private static final int MAX_CACHED_PAGED_QUERIES = 64;
 
 	private final QueryString query;
+	private final QueryString countQuery;
+	private final Sort defaultSort;
+	private final List<Integer> inParameterIndexes;
 	private final GemfireQueryMethod method;
 	private final GemfireTemplate template;
+	private final ConcurrentMap<PagedQueryKey, PagedQuery> pagedQueries = new ConcurrentHashMap<PagedQueryKey, PagedQuery>();
 
 	/**
 	 * Creates a new {@link StringBasedGemfireRepositoryQuery} using the given {@link GemfireQueryMethod} and
@@ -68,11 +89,20 @@ public class StringBasedGemfireRepositoryQuery extends GemfireRepositoryQuery {
 
 		Assert.notNull(template);
 
-		this.query = new QueryString(StringUtils.hasText(query) ? query : method.getAnnotatedQuery());
+		Class<?> domainClass = method.getEntityInformation().getJavaType();
+
+		QueryString queryString = new QueryString(StringUtils.hasText(query) ? query : method.getAnnotatedQuery())
+				.forRegion(domainClass, template.getRegion());
+
+		this.inParameterIndexes = toList(queryString.getInParameterIndexes());
+		this.query = queryString.bindInAsParameters();
+		this.countQuery = method.getAnnotatedCountQuery() == null ? null : new QueryString(
+				method.getAnnotatedCountQuery()).forRegion(domainClass, template.getRegion()).bindInAsParameters();
+		this.defaultSort = getDefaultSort(this.query, method.getPersistentEntity());
 		this.method = method;
 		this.template = template;
 
-		if (method.isPageQuery() || method.isModifyingQuery()) {
+		if (method.isModifyingQuery()) {
 			throw new IllegalStateException(INVALID_EXECUTION);
 		}
 	}
@@ -82,33 +112,174 @@ public class StringBasedGemfireRepositoryQuery extends GemfireRepositoryQuery {
 	 * @see org.springframework.data.repository.query.RepositoryQuery#execute(java.lang.Object[])
 	 */
 	@Override
+	@SuppressWarnings("unchecked")
 	public Object execute(Object[] parameters) {
 
 		ParametersParameterAccessor accessor = new ParametersParameterAccessor(method.getParameters(), parameters);
-		QueryString query = this.query.forRegion(method.getEntityInformation().getJavaType(), template.getRegion());
+		QueryString query = this.query;
+		Object[] values = getBindableValues(accessor);
+
+		for (Integer index : inParameterIndexes) {
+			values[index - 1] = toSet(values[index - 1]);
+		}
 
-		Iterator<Integer> indexes = query.getInParameterIndexes().iterator();
-		while (indexes.hasNext()) {
-			query = query.bindIn(toCollection(accessor.getBindableValue(indexes.next() - 1)));
+		Pageable pageable = accessor.getPageable();
+		PagedQuery pagedQuery = null;
+
+		if (pageable != null) {
+			pagedQuery = getPagedQuery(pageable);
+			query = pagedQuery.query;
 		}
 
-		Collection<?> result = toCollection(template.find(query.toString(), parameters));
+		Collection<?> result = toCollection(template.find(query.toString(), values));
+		Projection projection = method.getProjection();
+
+		if (pageable != null) {
+			List<?> content = skip(result, pageable.getOffset());
+			content = projection == null ? content : projection.convertAll(content);
+			return method.isPageQuery() ? createPage(content, pageable, pagedQuery, values) : content;
+		}
 
 		if (method.isCollectionQuery()) {
-			return result;
-		} else if (method.isQueryForEntity()) {
+			return projection == null ? result : projection.convertAll(result);
+		} else if (method.isQueryForEntity() || method.isProjectionQuery()) {
 			if (result.isEmpty()) {
 				return null;
 			} else if (result.size() == 1) {
-				return result.iterator().next();
+				Object element = result.iterator().next();
+				return projection == null ? element : projection.convert(element);
 			} else {
 				throw new IncorrectResultSizeDataAccessException(1, result.size());
 			}
+		}
+
+		Class<?> returnType = ClassUtils.resolvePrimitiveIfNecessary(method.getReturnedObjectType());
+
+		if (Boolean.class.equals(returnType)) {
+			return !result.isEmpty();
+		} else if (Number.class.isAssignableFrom(returnType) && result.size() == 1) {
+			return NumberUtils.convertNumberToTargetClass((Number) result.iterator().next(),
+					(Class<? extends Number>) returnType);
 		} else {
 			throw new IllegalStateException("Unsupported query: " + query.toString());
 		}
 	}
 
+	/**
+	 * Returns the {@link Sort} to apply to pages requested without one, so that subsequent pages are taken from the same
+	 * order. Queries selecting entities are ordered by identifier unless they declare an order themselves.
+	 */
+	private static Sort getDefaultSort(QueryString query, GemfirePersistentEntity<?> entity) {
+
+		if (query.isOrdered() || query.isProjection() || entity == null || entity.getIdProperty() == null) {
+			return null;
+		}
+
+		return new Sort(entity.getIdProperty().getName());
+	}
+
+	/**
+	 * Returns the query for the given {@link Pageable}, rewriting the query on first use of a particular sort and
+	 * limit only.
+	 */
+	private PagedQuery getPagedQuery(Pageable pageable) {
+
+		Sort sort = pageable.getSort() == null ? defaultSort : pageable.getSort();
+
+		if (sort == null && !query.isOrdered()) {
+			throw new IllegalArgumentException(String.format(UNSORTED_PAGEABLE, method));
+		}
+
+		PagedQueryKey key = new PagedQueryKey(sort, pageable.getOffset() + pageable.getPageSize());
+		PagedQuery pagedQuery = pagedQueries.get(key);
+
+		if (pagedQuery == null) {
+			pagedQuery = new PagedQuery(query.orderBy(key.sort).limit(key.limit), countQuery, method.isPageQuery());
+
+			if (pagedQueries.size() < MAX_CACHED_PAGED_QUERIES) {
+				PagedQuery existing = pagedQueries.putIfAbsent(key, pagedQuery);
+				pagedQuery = existing == null ? pagedQuery : existing;
+			}
+		}
+
+		return pagedQuery;
+	}
+
+	/**
+	 * Creates the {@link Page} for the given content. The total number of results is only queried if it cannot be
+	 * determined from the content of the page itself.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Page<?> createPage(List<?> content, Pageable pageable, PagedQuery query, Object[] values) {
+
+		if (content.size() < pageable.getPageSize() && (pageable.getOffset() == 0 || !content.isEmpty())) {
+			return new PageImpl(content, pageable, pageable.getOffset() + content.size());
+		}
+
+		Collection<?> result = toCollection(template.find(query.countQuery.toString(), values));
+		return new PageImpl(content, pageable, ((Number) result.iterator().next()).longValue());
+	}
+
+	/**
+	 * Returns the values of the bindable parameters, i.e. excluding special parameters like {@link Pageable} and
+	 * {@link Sort}, which must not be bound to the OQL query.
+	 */
+	private Object[] getBindableValues(ParametersParameterAccessor accessor) {
+
+		Object[] values = new Object[method.getParameters().getBindableParameters().getNumberOfParameters()];
+
+		for (int i = 0; i < values.length; i++) {
+			values[i] = accessor.getBindableValue(i);
+		}
+
+		return values;
+	}
+
+	private static List<Integer> toList(Iterable<Integer> source) {
+
+		List<Integer> result = new ArrayList<Integer>();
+		for (Integer element : source) {
+			result.add(element);
+		}
+
+		return result;
+	}
+
+	private static List<?> skip(Collection<?> source, int offset) {
+
+		List<Object> result = new ArrayList<Object>(Math.max(source.size() - offset, 0));
+		int index = 0;
+
+		for (Object element : source) {
+			if (index++ >= offset) {
+				result.add(element);
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Returns the given {@literal IN} parameter value as {@link Set} to be bound to the query. Collections and arrays are
+	 * copied into a {@link Set}, all other objects will be wrapped into a single-element {@link Set}.
+	 * 
+	 * @param source can be {@literal null}.
+	 * @return
+	 */
+	private static Object toSet(Object source) {
+
+		if (source == null || source instanceof Set) {
+			return source;
+		}
+
+		if (source instanceof Collection) {
+			return new HashSet<Object>((Collection<?>) source);
+		}
+
+		return source.getClass().isArray() ? new HashSet<Object>(CollectionUtils.arrayToList(source)) : Collections
+				.singleton(source);
+	}
+
 	/**
 	 * Returns the given object as collection. Collections will be returned as is, Arrays will be converted into a
 	 * collection and all other objects will be wrapped into a single-element collection.
@@ -129,4 +300,50 @@ public class StringBasedGemfireRepositoryQuery extends GemfireRepositoryQuery {
 
 		return source.getClass().isArray() ? CollectionUtils.arrayToList(source) : Collections.singleton(source);
 	}
+
+	/**
+	 * A query rewritten for a particular sort and limit, along with the query determining the total number of results.
+	 */
+	private static class PagedQuery {
+
+		private final QueryString query;
+		private final QueryString countQuery;
+
+		PagedQuery(QueryString query, QueryString declaredCountQuery, boolean pageQuery) {
+
+			this.query = query;
+			this.countQuery = !pageQuery || declaredCountQuery != null ? declaredCountQuery : query.asCountQuery();
+		}
+	}
+
+	private static class PagedQueryKey {
+
+		private final Sort sort;
+		private final int limit;
+
+		PagedQueryKey(Sort sort, int limit) {
+			this.sort = sort;
+			this.limit = limit;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+
+			if (this == obj) {
+				return true;
+			}
+
+			if (!(obj instanceof PagedQueryKey)) {
+				return false;
+			}
+
+			PagedQueryKey that = (PagedQueryKey) obj;
+			return limit == that.limit && ObjectUtils.nullSafeEquals(sort, that.sort);
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * ObjectUtils.nullSafeHashCode(sort) + limit;
+		}
+	}
 }
@@ -17,12 +17,17 @@ package org.springframework.data.gemfire.repository.support;
 
 import java.io.Serializable;
 import java.lang.reflect.Method;
+import java.util.concurrent.Executor;
 
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
 import org.springframework.data.gemfire.GemfireTemplate;
 import org.springframework.data.gemfire.mapping.GemfireMappingContext;
 import org.springframework.data.gemfire.mapping.GemfirePersistentEntity;
 import org.springframework.data.gemfire.mapping.GemfirePersistentProperty;
+import org.springframework.data.gemfire.mapping.LazyPdxInstanceProxyFactory;
 import org.springframework.data.gemfire.mapping.Regions;
+import org.springframework.data.gemfire.repository.query.AsyncGemfireRepositoryQuery;
 import org.springframework.data.gemfire.repository.query.DefaultGemfireEntityInformation;
 import org.springframework.data.gemfire.repository.query.GemfireEntityInformation;
 import org.springframework.data.gemfire.repository.query.GemfireQueryMethod;
@@ -38,6 +43,7 @@ import org.springframework.data.repository.query.RepositoryQuery;
 import org.springframework.util.Assert;
 
 import com.gemstone.gemfire.cache.Region;
+import com.gemstone.gemfire.pdx.PdxInstance;
 
 /**
  * {@link RepositoryFactorySupport} implementation creating repository proxies
@@ -48,10 +54,18 @@ import com.gemstone.gemfire.cache.Region;
  */
 public class GemfireRepositoryFactory extends RepositoryFactorySupport {
 
+	private static final String NO_TASK_EXECUTOR = "Query method %s returns a Future but no task executor is configured!";
+
 	private final MappingContext<? extends GemfirePersistentEntity<?>, GemfirePersistentProperty> context;
 
 	private final Regions regions;
 
+	private Integer batchSize;
+
+	private AsyncTaskExecutor taskExecutor;
+
+	private boolean lazyPdxProxies;
+
 	/**
 	 * Creates a new {@link GemfireRepositoryFactory}.
 	 * 
@@ -67,6 +81,49 @@ public class GemfireRepositoryFactory extends RepositoryFactorySupport {
 		this.regions = new Regions(regions, this.context);
 	}
 
+	/**
+	 * Configures the number of entities the created repositories send to the region per bulk operation.
+	 * 
+	 * @param batchSize the batch size, {@literal null} to use the repository default.
+	 * @see SimpleGemfireRepository#setBatchSize(int)
+	 */
+	public void setBatchSize(Integer batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Configures the {@link Executor} to run query methods returning a {@link java.util.concurrent.Future} on. Required
+	 * for repositories declaring such query methods. The executor is not shut down by the factory.
+	 * 
+	 * @param taskExecutor the executor to use.
+	 */
+	public void setTaskExecutor(Executor taskExecutor) {
+
+		if (taskExecutor == null || taskExecutor instanceof AsyncTaskExecutor) {
+			this.taskExecutor = (AsyncTaskExecutor) taskExecutor;
+		} else {
+			this.taskExecutor = new TaskExecutorAdapter(taskExecutor);
+		}
+	}
+
+	/**
+	 * Configures whether the created repositories return lazily loading proxies for values read as {@link PdxInstance}s,
+	 * i.e. if the cache is configured to read PDX serialized values. Properties of such proxies are only deserialized
+	 * once they are accessed. Proxies handed to the repositories' save methods are written as plain entities. Has to be
+	 * enabled before the repositories are created. Defaults to {@literal false}.
+	 * 
+	 * @param lazyPdxProxies
+	 * @see LazyPdxInstanceProxyFactory
+	 */
+	public void setLazyPdxProxies(boolean lazyPdxProxies) {
+
+		if (lazyPdxProxies && !this.lazyPdxProxies) {
+			addRepositoryProxyPostProcessor(new LazyPdxProxyPostProcessor(new LazyPdxInstanceProxyFactory(context)));
+		}
+
+		this.lazyPdxProxies = lazyPdxProxies;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -97,7 +154,13 @@ public class GemfireRepositoryFactory extends RepositoryFactorySupport {
 		GemfireEntityInformation<?, Serializable> entityInformation = getEntityInformation(metadata.getDomainType());
 		GemfireTemplate gemfireTemplate = getTemplate(metadata);
 
-		return new SimpleGemfireRepository(gemfireTemplate, entityInformation);
+		SimpleGemfireRepository repository = new SimpleGemfireRepository(gemfireTemplate, entityInformation);
+
+		if (batchSize != null) {
+			repository.setBatchSize(batchSize);
+		}
+
+		return repository;
 	}
 
 	private GemfireTemplate getTemplate(RepositoryMetadata metadata) {
@@ -156,20 +219,33 @@ public class GemfireRepositoryFactory extends RepositoryFactorySupport {
 			public RepositoryQuery resolveQuery(Method method, RepositoryMetadata metadata, NamedQueries namedQueries) {
 
 				GemfireQueryMethod queryMethod = new GemfireQueryMethod(method, metadata, context);
-				GemfireTemplate template = getTemplate(metadata);
+				RepositoryQuery query = createQuery(queryMethod, getTemplate(metadata), namedQueries);
 
-				if (queryMethod.hasAnnotatedQuery()) {
-					return new StringBasedGemfireRepositoryQuery(queryMethod, template);
+				if (!queryMethod.isAsyncQuery()) {
+					return query;
 				}
 
-				String namedQueryName = queryMethod.getNamedQueryName();
-				if (namedQueries.hasQuery(namedQueryName)) {
-					return new StringBasedGemfireRepositoryQuery(namedQueries.getQuery(namedQueryName), queryMethod,
-							template);
+				if (taskExecutor == null) {
+					throw new IllegalStateException(String.format(NO_TASK_EXECUTOR, method));
 				}
 
-				return new PartTreeGemfireRepositoryQuery(queryMethod, template);
+				return new AsyncGemfireRepositoryQuery(query, taskExecutor);
 			}
 		};
 	}
+
+	private RepositoryQuery createQuery(GemfireQueryMethod queryMethod, GemfireTemplate template,
+			NamedQueries namedQueries) {
+
+		if (queryMethod.hasAnnotatedQuery()) {
+			return new StringBasedGemfireRepositoryQuery(queryMethod, template);
+		}
+
+		String namedQueryName = queryMethod.getNamedQueryName();
+		if (namedQueries.hasQuery(namedQueryName)) {
+			return new StringBasedGemfireRepositoryQuery(namedQueries.getQuery(namedQueryName), queryMethod, template);
+		}
+
+		return new PartTreeGemfireRepositoryQuery(queryMethod, template);
+	}
 }
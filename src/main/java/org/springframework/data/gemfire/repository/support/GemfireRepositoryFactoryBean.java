@@ -18,14 +18,17 @@ package org.springframework.data.gemfire.repository.support;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.concurrent.Executor;
 
 import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.FactoryBean;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
 import org.springframework.data.gemfire.mapping.GemfireMappingContext;
 import org.springframework.data.gemfire.mapping.GemfirePersistentEntity;
 import org.springframework.data.gemfire.mapping.GemfirePersistentProperty;
+import org.springframework.data.gemfire.support.DefaultTaskExecutor;
 import org.springframework.data.mapping.context.MappingContext;
 import org.springframework.data.repository.Repository;
 import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
@@ -39,12 +42,20 @@ import com.gemstone.gemfire.cache.Region;
  * @author Oliver Gierke
  */
 public class GemfireRepositoryFactoryBean<T extends Repository<S, ID>, S, ID extends Serializable> extends
-		RepositoryFactoryBeanSupport<T, S, ID> implements ApplicationContextAware {
+		RepositoryFactoryBeanSupport<T, S, ID> implements ApplicationContextAware, DisposableBean {
 
 	private MappingContext<? extends GemfirePersistentEntity<?>, GemfirePersistentProperty> context;
 
 	private Iterable<Region<?, ?>> regions;
 
+	private Integer batchSize;
+
+	private Executor taskExecutor;
+
+	private DefaultTaskExecutor defaultTaskExecutor;
+
+	private boolean lazyPdxProxies;
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -69,6 +80,36 @@ public class GemfireRepositoryFactoryBean<T extends Repository<S, ID>, S, ID ext
 		this.context = context;
 	}
 
+	/**
+	 * Configures the number of entities the repository sends to the region per bulk operation, e.g. when saving
+	 * an {@link Iterable} of entities.
+	 * 
+	 * @param batchSize the batch size to set
+	 */
+	public void setBatchSize(Integer batchSize) {
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Configures the {@link Executor} query methods returning a {@link java.util.concurrent.Future} are executed on. If
+	 * none is configured, a {@link DefaultTaskExecutor} is created, which is shut down along with this factory bean.
+	 * 
+	 * @param taskExecutor the task executor to set
+	 */
+	public void setTaskExecutor(Executor taskExecutor) {
+		this.taskExecutor = taskExecutor;
+	}
+
+	/**
+	 * Configures whether the repository returns lazily loading proxies for values read as PDX instances.
+	 * 
+	 * @param lazyPdxProxies
+	 * @see GemfireRepositoryFactory#setLazyPdxProxies(boolean)
+	 */
+	public void setLazyPdxProxies(boolean lazyPdxProxies) {
+		this.lazyPdxProxies = lazyPdxProxies;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -78,7 +119,11 @@ public class GemfireRepositoryFactoryBean<T extends Repository<S, ID>, S, ID ext
 	 */
 	@Override
 	protected RepositoryFactorySupport createRepositoryFactory() {
-		return new GemfireRepositoryFactory(regions, context);
+		GemfireRepositoryFactory factory = new GemfireRepositoryFactory(regions, context);
+		factory.setBatchSize(batchSize);
+		factory.setTaskExecutor(taskExecutor == null ? getDefaultTaskExecutor() : taskExecutor);
+		factory.setLazyPdxProxies(lazyPdxProxies);
+		return factory;
 	}
 
 	/* 
@@ -95,4 +140,26 @@ public class GemfireRepositoryFactoryBean<T extends Repository<S, ID>, S, ID ext
 
 		super.afterPropertiesSet();
 	}
+
+	/* 
+	 * (non-Javadoc)
+	 * @see org.springframework.beans.factory.DisposableBean#destroy()
+	 */
+	@Override
+	public synchronized void destroy() {
+
+		if (defaultTaskExecutor != null) {
+			defaultTaskExecutor.destroy();
+			defaultTaskExecutor = null;
+		}
+	}
+
+	private synchronized Executor getDefaultTaskExecutor() {
+
+		if (defaultTaskExecutor == null) {
+			defaultTaskExecutor = new DefaultTaskExecutor("gemfire-repository-");
+		}
+
+		return defaultTaskExecutor;
+	}
 }
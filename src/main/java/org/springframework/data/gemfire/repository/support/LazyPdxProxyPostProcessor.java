@@ -0,0 +1,334 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.gemfire.repository.support;
+
+import java.lang.reflect.Method;
+import java.util.AbstractCollection;
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.core.CollectionFactory;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.gemfire.mapping.LazyPdxInstanceProxyFactory;
+import org.springframework.data.repository.core.support.RepositoryProxyPostProcessor;
+import org.springframework.data.util.ClassTypeInformation;
+import org.springframework.data.util.TypeInformation;
+import org.springframework.util.Assert;
+
+import com.gemstone.gemfire.pdx.PdxInstance;
+
+/**
+ * {@link RepositoryProxyPostProcessor} turning {@link PdxInstance}s returned by repository methods into lazily
+ * loading proxies of the domain type. Handles plain values as well as the elements of {@link Iterable}s,
+ * {@link Page}s and {@link Map}s and the values of {@link Future}s.
+ * <p/>
+ * Results are converted according to the declared return type of the method. Lists and collections declared as
+ * such are wrapped in views converting each element on first access, so that query results are not materialized
+ * up front; later accesses return the same proxy. Other iterables are converted as they are iterated, each iteration
+ * creating new proxies. Other collection types, such as {@link java.util.Set}s, are copied into a new collection of
+ * the declared type.
+ *
+ * @see LazyPdxInstanceProxyFactory
+ */
+class LazyPdxProxyPostProcessor implements RepositoryProxyPostProcessor {
+
+	private final LazyPdxInstanceProxyFactory proxyFactory;
+
+	/**
+	 * Creates a new {@link LazyPdxProxyPostProcessor} using the given {@link LazyPdxInstanceProxyFactory}.
+	 *
+	 * @param proxyFactory must not be {@literal null}.
+	 */
+	public LazyPdxProxyPostProcessor(LazyPdxInstanceProxyFactory proxyFactory) {
+		Assert.notNull(proxyFactory);
+		this.proxyFactory = proxyFactory;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.repository.core.support.RepositoryProxyPostProcessor#postProcess(org.springframework.aop.framework.ProxyFactory)
+	 */
+	@Override
+	public void postProcess(ProxyFactory factory) {
+		factory.addAdvice(new LazyPdxProxyInterceptor());
+	}
+
+	/**
+	 * Converts the given result of a method declaring the given return type.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Object convert(Object result, Class<?> type, Object[] arguments) {
+
+		if (result instanceof Page) {
+			Page<?> page = (Page<?>) result;
+			return new PageImpl(new ConvertingList(page.getContent()), getPageable(arguments),
+					page.getTotalElements());
+		}
+
+		if (result instanceof Collection) {
+			return convertAll((Collection<?>) result, type);
+		}
+
+		if (result instanceof Iterable) {
+			return new ConvertingIterable((Iterable<?>) result);
+		}
+
+		if (result instanceof Map) {
+
+			Map<Object, Object> converted = type.isAssignableFrom(LinkedHashMap.class) ? new LinkedHashMap<Object, Object>()
+					: CollectionFactory.<Object, Object> createMap(type, ((Map<?, ?>) result).size());
+			for (Map.Entry<?, ?> entry : ((Map<?, ?>) result).entrySet()) {
+				converted.put(entry.getKey(), proxyFactory.convertIfNecessary(entry.getValue()));
+			}
+
+			return converted;
+		}
+
+		return proxyFactory.convertIfNecessary(result);
+	}
+
+	private Object convertAll(Collection<?> source, Class<?> type) {
+
+		if (source instanceof List && type.isAssignableFrom(List.class)) {
+			return new ConvertingList((List<?>) source);
+		}
+
+		if (type.isAssignableFrom(Collection.class)) {
+			return new ConvertingCollection(source);
+		}
+
+		Collection<Object> result = CollectionFactory.createCollection(type, source.size());
+		for (Object element : source) {
+			result.add(proxyFactory.convertIfNecessary(element));
+		}
+
+		return result;
+	}
+
+	private Pageable getPageable(Object[] arguments) {
+
+		for (Object argument : arguments) {
+			if (argument instanceof Pageable) {
+				return (Pageable) argument;
+			}
+		}
+
+		return null;
+	}
+
+	/**
+	 * {@link MethodInterceptor} converting the {@link PdxInstance}s contained in the invocation result.
+	 */
+	class LazyPdxProxyInterceptor implements MethodInterceptor {
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.aopalliance.intercept.MethodInterceptor#invoke(org.aopalliance.intercept.MethodInvocation)
+		 */
+		@Override
+		@SuppressWarnings("unchecked")
+		public Object invoke(MethodInvocation invocation) throws Throwable {
+
+			Object result = invocation.proceed();
+			Method method = invocation.getMethod();
+
+			if (result instanceof Future && Future.class.isAssignableFrom(method.getReturnType())) {
+				List<TypeInformation<?>> typeArguments = ClassTypeInformation.fromReturnTypeOf(method).getTypeArguments();
+				Class<?> valueType = typeArguments.isEmpty() ? Object.class : typeArguments.get(0).getType();
+				return new ConvertingFuture((Future<Object>) result, valueType, invocation.getArguments());
+			}
+
+			return convert(result, method.getReturnType(), invocation.getArguments());
+		}
+	}
+
+	/**
+	 * {@link Future} converting the value of the given one.
+	 */
+	private class ConvertingFuture implements Future<Object> {
+
+		private final Future<Object> delegate;
+		private final Class<?> valueType;
+		private final Object[] arguments;
+
+		ConvertingFuture(Future<Object> delegate, Class<?> valueType, Object[] arguments) {
+			this.delegate = delegate;
+			this.valueType = valueType;
+			this.arguments = arguments;
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			return delegate.cancel(mayInterruptIfRunning);
+		}
+
+		@Override
+		public boolean isCancelled() {
+			return delegate.isCancelled();
+		}
+
+		@Override
+		public boolean isDone() {
+			return delegate.isDone();
+		}
+
+		@Override
+		public Object get() throws InterruptedException, ExecutionException {
+			return convert(delegate.get(), valueType, arguments);
+		}
+
+		@Override
+		public Object get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException,
+				TimeoutException {
+			return convert(delegate.get(timeout, unit), valueType, arguments);
+		}
+	}
+
+	/**
+	 * {@link Iterable} converting the elements of the given one as they are iterated.
+	 */
+	private class ConvertingIterable implements Iterable<Object> {
+
+		private final Iterable<?> source;
+
+		ConvertingIterable(Iterable<?> source) {
+			this.source = source;
+		}
+
+		@Override
+		public Iterator<Object> iterator() {
+			return new ConvertingIterator(source.iterator());
+		}
+	}
+
+	/**
+	 * Read-only {@link Collection} view converting each element of the given one when it is iterated first.
+	 */
+	private class ConvertingCollection extends AbstractCollection<Object> {
+
+		private final Collection<?> source;
+		private final Object[] converted;
+
+		ConvertingCollection(Collection<?> source) {
+			this.source = source;
+			this.converted = new Object[source.size()];
+		}
+
+		@Override
+		public Iterator<Object> iterator() {
+
+			final Iterator<?> iterator = source.iterator();
+
+			return new Iterator<Object>() {
+
+				private int index;
+
+				@Override
+				public boolean hasNext() {
+					return iterator.hasNext();
+				}
+
+				@Override
+				public Object next() {
+					return convertOnce(converted, index++, iterator.next());
+				}
+
+				@Override
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return source.size();
+		}
+	}
+
+	/**
+	 * Read-only {@link List} view converting each element of the given one on first access.
+	 */
+	private class ConvertingList extends AbstractList<Object> {
+
+		private final List<?> source;
+		private final Object[] converted;
+
+		ConvertingList(List<?> source) {
+			this.source = source;
+			this.converted = new Object[source.size()];
+		}
+
+		@Override
+		public Object get(int index) {
+			return converted[index] != null ? converted[index] : convertOnce(converted, index, source.get(index));
+		}
+
+		@Override
+		public int size() {
+			return source.size();
+		}
+	}
+
+	/**
+	 * Returns the element converted at the given index before, converting and recording the given element otherwise.
+	 */
+	private Object convertOnce(Object[] converted, int index, Object element) {
+
+		if (converted[index] == null) {
+			converted[index] = proxyFactory.convertIfNecessary(element);
+		}
+
+		return converted[index];
+	}
+
+	private class ConvertingIterator implements Iterator<Object> {
+
+		private final Iterator<?> source;
+
+		ConvertingIterator(Iterator<?> source) {
+			this.source = source;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return source.hasNext();
+		}
+
+		@Override
+		public Object next() {
+			return proxyFactory.convertIfNecessary(source.next());
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+}
@@ -3,17 +3,38 @@ package org.springframework.data.gemfire.repository.support;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
 
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Sort.Order;
+import org.springframework.data.gemfire.GemfireBatchOperationException;
 import org.springframework.data.gemfire.GemfireCallback;
 import org.springframework.data.gemfire.GemfireTemplate;
+import org.springframework.data.gemfire.function.execution.GemfireOnRegionFunctionTemplate;
+import org.springframework.data.gemfire.mapping.LazyPdxInstanceProxyFactory;
 import org.springframework.data.gemfire.repository.GemfireRepository;
 import org.springframework.data.gemfire.repository.Wrapper;
+import org.springframework.data.gemfire.support.RemoveAllFunction;
 import org.springframework.data.repository.core.EntityInformation;
 import org.springframework.util.Assert;
 
+import com.gemstone.gemfire.cache.DataPolicy;
 import com.gemstone.gemfire.cache.Region;
+import com.gemstone.gemfire.cache.partition.PartitionRegionHelper;
 import com.gemstone.gemfire.cache.query.SelectResults;
+import com.gemstone.gemfire.internal.cache.LocalRegion;
 
 /**
  * Basic repository implementation.
@@ -23,10 +44,21 @@ import com.gemstone.gemfire.cache.query.SelectResults;
  */
 public class SimpleGemfireRepository<T, ID extends Serializable> implements GemfireRepository<T, ID> {
 
+	/**
+	 * The default number of entities sent to the {@link Region} per bulk operation.
+	 */
+	public static final int DEFAULT_BATCH_SIZE = 1000;
+
+	private static final String KEYS_QUERY = "SELECT DISTINCT k FROM %1$s.keySet k ORDER BY k LIMIT %2$d";
+
+	private static final String ALL_KEYS_QUERY = "SELECT DISTINCT k FROM %1$s.keySet k ORDER BY k";
+
 	private final GemfireTemplate template;
 
 	private final EntityInformation<T, ID> entityInformation;
 
+	private int batchSize = DEFAULT_BATCH_SIZE;
+
 	/**
 	 * Creates a new {@link SimpleGemfireRepository}.
 	 * 
@@ -42,6 +74,27 @@ public class SimpleGemfireRepository<T, ID extends Serializable> implements Gemf
 		this.entityInformation = entityInformation;
 	}
 
+	/**
+	 * Sets the number of entities sent to the {@link Region} per bulk operation (e.g. {@link Region#putAll(Map)} or
+	 * the removal of multiple entities).
+	 * A value of 0 sends all entities in a single operation. Defaults to {@value #DEFAULT_BATCH_SIZE}.
+	 * 
+	 * @param batchSize must be a non-negative value.
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize >= 0, "batchSize must be >= 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Returns the number of entities sent to the {@link Region} per bulk operation.
+	 * 
+	 * @return the batch size, 0 if bulk operations are not chunked.
+	 */
+	public int getBatchSize() {
+		return batchSize;
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -49,7 +102,8 @@ public class SimpleGemfireRepository<T, ID extends Serializable> implements Gemf
 	 */
 	@Override
 	public <U extends T> U save(U entity) {
-		template.put(entityInformation.getId(entity), entity);
+		T value = unwrap(entity);
+		template.put(entityInformation.getId(value), value);
 		return entity;
 	}
 
@@ -62,13 +116,54 @@ public class SimpleGemfireRepository<T, ID extends Serializable> implements Gemf
 	 */
 	@Override
 	public <U extends T> Iterable<U> save(Iterable<U> entities) {
+
 		List<U> result = new ArrayList<U>();
+		Map<ID, T> chunk = new LinkedHashMap<ID, T>();
+
+		Map<Integer, DataAccessException> failures = new HashMap<Integer, DataAccessException>();
+		Map<Integer, Collection<?>> failedKeys = new HashMap<Integer, Collection<?>>();
+		int chunkIndex = 0;
+
 		for (U entity : entities) {
-			result.add(save(entity));
+			T value = unwrap(entity);
+			chunk.put(entityInformation.getId(value), value);
+			result.add(entity);
+
+			if (chunk.size() == batchSize) {
+				putAll(chunk, chunkIndex++, failures, failedKeys);
+				chunk = new LinkedHashMap<ID, T>();
+			}
+		}
+
+		if (!chunk.isEmpty()) {
+			putAll(chunk, chunkIndex, failures, failedKeys);
+		}
+
+		if (!failures.isEmpty()) {
+			throw new GemfireBatchOperationException("putAll", failures, failedKeys);
 		}
+
 		return result;
 	}
 
+	/**
+	 * Returns the entity to write for the given one, i.e. a plain instance in case of a lazily loading proxy.
+	 */
+	@SuppressWarnings("unchecked")
+	private T unwrap(T entity) {
+		return (T) LazyPdxInstanceProxyFactory.unwrap(entity);
+	}
+
+	private void putAll(Map<ID, ? extends T> chunk, int chunkIndex, Map<Integer, DataAccessException> failures,
+			Map<Integer, Collection<?>> failedKeys) {
+		try {
+			template.putAll(chunk);
+		} catch (DataAccessException e) {
+			failures.put(chunkIndex, e);
+			failedKeys.put(chunkIndex, new ArrayList<ID>(chunk.keySet()));
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -89,8 +184,19 @@ public class SimpleGemfireRepository<T, ID extends Serializable> implements Gemf
 	 * Serializable)
 	 */
 	@Override
-	public boolean exists(ID id) {
-		return findOne(id) != null;
+	public boolean exists(final ID id) {
+		return template.execute(new GemfireCallback<Boolean>() {
+			@Override
+			@SuppressWarnings("rawtypes")
+			public Boolean doInGemfire(Region region) {
+				// client regions may not hold the entry locally, ask the server instead of fetching the value
+				if (hasServerProxy(region)) {
+					return region.containsKeyOnServer(id);
+				}
+				// invalidated entries do not exist
+				return region.containsValueForKey(id);
+			}
+		}, true);
 	}
 
 	/*
@@ -101,7 +207,121 @@ public class SimpleGemfireRepository<T, ID extends Serializable> implements Gemf
 	@Override
 	public Collection<T> findAll() {
 		SelectResults<T> results = template.find("select * from " + template.getRegion().getFullPath());
-		return (Collection<T>)results.asList();
+		return results;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.springframework.data.gemfire.repository.GemfireRepository#findAll(org
+	 * .springframework.data.domain.Sort)
+	 */
+	@Override
+	public Collection<T> findAll(Sort sort) {
+
+		Assert.notNull(sort);
+
+		SelectResults<T> results = template.find(String.format("SELECT DISTINCT * FROM %1$s ORDER BY %2$s", template
+				.getRegion().getFullPath(), toOrderBy(sort)));
+		return results;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.springframework.data.gemfire.repository.GemfireRepository#findAll(org
+	 * .springframework.data.domain.Pageable)
+	 */
+	@Override
+	public Page<T> findAll(Pageable pageable) {
+
+		Assert.notNull(pageable);
+
+		String regionPath = template.getRegion().getFullPath();
+		int limit = pageable.getOffset() + pageable.getPageSize();
+		List<T> content;
+
+		if (pageable.getSort() == null) {
+			SelectResults<Object> keys = template.find(String.format(KEYS_QUERY, regionPath, limit));
+			content = getAllInKeyOrder(skip(keys, pageable.getOffset()));
+		} else {
+			SelectResults<T> results = template.find(String.format("SELECT DISTINCT * FROM %1$s ORDER BY %2$s LIMIT %3$d",
+					regionPath, toOrderBy(pageable.getSort()), limit));
+			content = skip(results, pageable.getOffset());
+		}
+
+		return new PageImpl<T>(content, pageable, count());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see
+	 * org.springframework.data.gemfire.repository.GemfireRepository#findAllLazily()
+	 */
+	@Override
+	public Iterable<T> findAllLazily() {
+
+		final int chunkSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+
+		return new Iterable<T>() {
+			@Override
+			public Iterator<T> iterator() {
+				return new ChunkedIterator(chunkSize);
+			}
+		};
+	}
+
+	private static <E> List<E> skip(Collection<E> source, int offset) {
+
+		List<E> result = new ArrayList<E>(Math.max(source.size() - offset, 0));
+		int index = 0;
+
+		for (E element : source) {
+			if (index++ >= offset) {
+				result.add(element);
+			}
+		}
+
+		return result;
+	}
+
+	private static String toOrderBy(Sort sort) {
+
+		StringBuilder orderBy = new StringBuilder();
+
+		for (Order order : sort) {
+			if (orderBy.length() > 0) {
+				orderBy.append(", ");
+			}
+			orderBy.append(order.getProperty()).append(order.isAscending() ? " ASC" : " DESC");
+		}
+
+		return orderBy.toString();
+	}
+
+	/**
+	 * Fetches the values of the given keys, retaining the order of the keys and skipping keys removed in the meantime.
+	 */
+	private List<T> getAllInKeyOrder(List<Object> keys) {
+
+		if (keys.isEmpty()) {
+			return new ArrayList<T>();
+		}
+
+		Map<Object, T> values = template.getAll(keys);
+		List<T> result = new ArrayList<T>(keys.size());
+
+		for (Object key : keys) {
+			T value = values.get(key);
+			if (value != null) {
+				result.add(value);
+			}
+		}
+
+		return result;
 	}
 
 	/*
@@ -155,8 +375,52 @@ public class SimpleGemfireRepository<T, ID extends Serializable> implements Gemf
 	 */
 	@Override
 	public void delete(Iterable<? extends T> entities) {
+
+		Set<ID> chunk = new LinkedHashSet<ID>();
+
+		Map<Integer, DataAccessException> failures = new HashMap<Integer, DataAccessException>();
+		Map<Integer, Collection<?>> failedKeys = new HashMap<Integer, Collection<?>>();
+		int chunkIndex = 0;
+
 		for (T entity : entities) {
-			delete(entity);
+			chunk.add(entityInformation.getId(entity));
+
+			if (chunk.size() == batchSize) {
+				removeAll(chunk, chunkIndex++, failures, failedKeys);
+				chunk = new LinkedHashSet<ID>();
+			}
+		}
+
+		if (!chunk.isEmpty()) {
+			removeAll(chunk, chunkIndex, failures, failedKeys);
+		}
+
+		if (!failures.isEmpty()) {
+			throw new GemfireBatchOperationException("remove", failures, failedKeys);
+		}
+	}
+
+	private void removeAll(final Set<ID> chunk, int chunkIndex, Map<Integer, DataAccessException> failures,
+			Map<Integer, Collection<?>> failedKeys) {
+		try {
+			template.execute(new GemfireCallback<Void>() {
+				@Override
+				@SuppressWarnings("rawtypes")
+				public Void doInGemfire(Region region) {
+					if (isServerSideRemovalCapable(region)) {
+						new GemfireOnRegionFunctionTemplate(region).execute(new RemoveAllFunction(), chunk);
+					} else {
+						for (ID id : chunk) {
+							region.remove(id);
+						}
+					}
+
+					return null;
+				}
+			}, true);
+		} catch (DataAccessException e) {
+			failures.put(chunkIndex, e);
+			failedKeys.put(chunkIndex, new ArrayList<ID>(chunk));
 		}
 	}
 
@@ -176,14 +440,45 @@ public class SimpleGemfireRepository<T, ID extends Serializable> implements Gemf
 				try {
 					region.clear();
 				} catch (UnsupportedOperationException e) {
-					for (Object key : region.keySet()) {
-						region.remove(key);
+					if (isServerSideRemovalCapable(region)) {
+						new GemfireOnRegionFunctionTemplate(region).execute(new RemoveAllFunction());
+					} else {
+						for (Object key : region.keySet()) {
+							region.remove(key);
+						}
 					}
 				}
 
 				return null;
 			}
-		});
+		}, true);
+	}
+
+	/**
+	 * Returns whether entries of the given (native) {@link Region} are better removed by executing the
+	 * {@link RemoveAllFunction} on the members hosting the data, which is the case for partitioned regions and client
+	 * proxy regions not caching any data locally.
+	 * 
+	 * @param region the native region
+	 * @return whether to remove entries through a region function
+	 */
+	private static boolean isServerSideRemovalCapable(Region<?, ?> region) {
+		if (PartitionRegionHelper.isPartitionedRegion(region)) {
+			return true;
+		}
+
+		return hasServerProxy(region) && DataPolicy.EMPTY.equals(region.getAttributes().getDataPolicy());
+	}
+
+	/**
+	 * Returns whether the given region is a client region backed by a server region, in which case the local region
+	 * might not hold (all) the entries.
+	 * 
+	 * @param region the native region
+	 * @return whether the region forwards its operations to a server
+	 */
+	private static boolean hasServerProxy(Region<?, ?> region) {
+		return region instanceof LocalRegion && ((LocalRegion) region).hasServerProxy();
 	}
 
 	/*
@@ -208,4 +503,68 @@ public class SimpleGemfireRepository<T, ID extends Serializable> implements Gemf
 	public T save(Wrapper<T, ID> wrapper) {
 		return template.put(wrapper.getKey(), wrapper.getEntity());
 	}
+
+	/**
+	 * {@link Iterator} fetching the region keys in ascending order once, on first access, and the values one chunk of
+	 * keys at a time. Only the keys and the values of the current chunk are held in memory.
+	 */
+	private class ChunkedIterator implements Iterator<T> {
+
+		private final int chunkSize;
+
+		private List<Object> keys;
+
+		private int offset;
+
+		private Iterator<T> chunk = Collections.<T> emptyList().iterator();
+
+		public ChunkedIterator(int chunkSize) {
+			this.chunkSize = chunkSize;
+		}
+
+		/* 
+		 * (non-Javadoc)
+		 * @see java.util.Iterator#hasNext()
+		 */
+		@Override
+		public boolean hasNext() {
+
+			if (keys == null) {
+				SelectResults<Object> results = template.find(String.format(ALL_KEYS_QUERY, template.getRegion()
+						.getFullPath()));
+				keys = new ArrayList<Object>(results);
+			}
+
+			while (!chunk.hasNext() && offset < keys.size()) {
+				int end = Math.min(offset + chunkSize, keys.size());
+				chunk = getAllInKeyOrder(keys.subList(offset, end)).iterator();
+				offset = end;
+			}
+
+			return chunk.hasNext();
+		}
+
+		/* 
+		 * (non-Javadoc)
+		 * @see java.util.Iterator#next()
+		 */
+		@Override
+		public T next() {
+
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+
+			return chunk.next();
+		}
+
+		/* 
+		 * (non-Javadoc)
+		 * @see java.util.Iterator#remove()
+		 */
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
 }
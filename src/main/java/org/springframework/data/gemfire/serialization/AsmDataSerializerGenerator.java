@@ -0,0 +1,445 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.gemfire.serialization;
+
+import java.beans.PropertyDescriptor;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.asm.ClassWriter;
+import org.springframework.asm.Label;
+import org.springframework.asm.MethodVisitor;
+import org.springframework.asm.Opcodes;
+import org.springframework.asm.Type;
+import org.springframework.beans.BeanUtils;
+import org.springframework.util.Assert;
+
+import com.gemstone.gemfire.DataSerializer;
+
+/**
+ * ASM based {@link DataSerializerGenerator} implementation. The generated {@link DataSerializer}s write the state of
+ * an object property by property straight to the {@link DataOutput} (e.g. {@link DataOutput#writeInt(int)} for
+ * <code>int</code> properties) and read it back the same way, without any reflection.
+ * <p/>
+ * The serialized properties are the ones exposed through public getter/setter pairs as well as public, non-final,
+ * non-transient fields, written in alphabetical order. Types declaring non-static, non-transient fields not covered
+ * by these properties are rejected rather than silently losing state; such fields have to be declared transient or
+ * exposed through a getter/setter pair of the same name. Strings are written through
+ * {@link DataSerializer#writeString(String, DataOutput)}, all other non-primitive values through
+ * {@link DataSerializer#writeObject(Object, DataOutput)}. The type itself has to be public, non-abstract and provide a
+ * public no-arg constructor. As with {@link AsmInstantiatorGenerator}, this class relies on the ASM package repacked by
+ * Spring framework.
+ */
+public class AsmDataSerializerGenerator implements DataSerializerGenerator, Opcodes {
+
+	private static final String PKG = "org/springframework/data/gemfire/serialization/";
+	private static final String CLASS_LABEL = "DataSerializer$";
+
+	private static final String INIT = "<init>";
+	private static final String OBJECT_NAME = Type.getInternalName(Object.class);
+	private static final String CLASS_NAME = Type.getInternalName(Class.class);
+	private static final String SERIALIZER_NAME = Type.getInternalName(DataSerializer.class);
+	private static final String OUTPUT_NAME = Type.getInternalName(DataOutput.class);
+	private static final String INPUT_NAME = Type.getInternalName(DataInput.class);
+	private static final String OUTPUT_DESCRIPTOR = Type.getDescriptor(DataOutput.class);
+	private static final String INPUT_DESCRIPTOR = Type.getDescriptor(DataInput.class);
+	private static final String OBJECT_DESCRIPTOR = Type.getDescriptor(Object.class);
+	private static final String STRING_DESCRIPTOR = Type.getDescriptor(String.class);
+	private static final String[] IO_EXCEPTIONS = { Type.getInternalName(IOException.class) };
+	private static final String[] READ_EXCEPTIONS = { Type.getInternalName(IOException.class),
+			Type.getInternalName(ClassNotFoundException.class) };
+
+	private static final String VOID_NO_ARG_DESC = Type.getMethodDescriptor(Type.VOID_TYPE, new Type[] {});
+	private static final String GET_ID = "getId";
+	private static final String GET_ID_DESC = Type.getMethodDescriptor(Type.INT_TYPE, new Type[] {});
+	private static final String GET_SUPPORTED_CLASSES = "getSupportedClasses";
+	private static final String GET_SUPPORTED_CLASSES_DESC = Type.getMethodDescriptor(Type.getType(Class[].class),
+			new Type[] {});
+	private static final String TO_DATA = "toData";
+	private static final String TO_DATA_DESC = Type.getMethodDescriptor(Type.BOOLEAN_TYPE, new Type[] {
+			Type.getType(Object.class), Type.getType(DataOutput.class) });
+	private static final String FROM_DATA = "fromData";
+	private static final String FROM_DATA_DESC = Type.getMethodDescriptor(Type.getType(Object.class),
+			new Type[] { Type.getType(DataInput.class) });
+
+	/**
+	 * Primitive types mapped to the suffix of their dedicated {@link DataOutput} and {@link DataInput} methods.
+	 */
+	private static final Map<Class<?>, String> PRIMITIVE_TYPES = new HashMap<Class<?>, String>();
+
+	static {
+		PRIMITIVE_TYPES.put(boolean.class, "Boolean");
+		PRIMITIVE_TYPES.put(byte.class, "Byte");
+		PRIMITIVE_TYPES.put(char.class, "Char");
+		PRIMITIVE_TYPES.put(short.class, "Short");
+		PRIMITIVE_TYPES.put(int.class, "Int");
+		PRIMITIVE_TYPES.put(long.class, "Long");
+		PRIMITIVE_TYPES.put(float.class, "Float");
+		PRIMITIVE_TYPES.put(double.class, "Double");
+	}
+
+	// serializer cache
+	private final SyntheticClassCache<DataSerializer> cache;
+
+	public AsmDataSerializerGenerator() {
+		this(AsmDataSerializerGenerator.class.getClassLoader());
+	}
+
+	/**
+	 * Creates a new {@link AsmDataSerializerGenerator}. The {@link DataSerializer}s are generated in class loaders
+	 * children of the custom types' class loader; the given class loader is only used for types loaded by the
+	 * bootstrap class loader.
+	 *
+	 * @param classLoader fallback class loader
+	 */
+	public AsmDataSerializerGenerator(ClassLoader classLoader) {
+		this.cache = new SyntheticClassCache<DataSerializer>(classLoader,
+				new SyntheticClassCache.SyntheticClassFactory<DataSerializer>() {
+					public DataSerializer create(Class<?> type, int id, SyntheticClassCache.BytecodeClassLoader loader) {
+						return createDataSerializer(type, id, loader);
+					}
+				});
+	}
+
+	public DataSerializer getDataSerializer(Class<?> clazz, int serializerId) {
+		return cache.get(clazz, serializerId);
+	}
+
+	/**
+	 * Returns an instance of the custom serializer created for the given class.
+	 *
+	 * @param clazz
+	 * @param serializerId
+	 * @return
+	 */
+	private DataSerializer createDataSerializer(Class<?> clazz, int serializerId,
+			SyntheticClassCache.BytecodeClassLoader classLoader) {
+		validateClass(clazz);
+		String classInternalName = getClassInternalName(clazz, serializerId);
+		byte[] bytecode = generateClassBytecode(classInternalName, clazz, serializerId, getPropertyAccesses(clazz));
+		// translate internal name to binary form
+		return (DataSerializer) BeanUtils.instantiate(classLoader.loadClass(classInternalName.replace('/', '.'),
+				bytecode));
+	}
+
+	/**
+	 * Returns the name of the serializer generated for the given class and id. The name only depends on its arguments
+	 * so every member declaring the same custom type generates a class of the same name.
+	 *
+	 * @param clazz
+	 * @param serializerId
+	 * @return
+	 */
+	static String getClassInternalName(Class<?> clazz, int serializerId) {
+		return PKG + clazz.getName().replace('.', '_') + CLASS_LABEL + serializerId;
+	}
+
+	/**
+	 * Does basic sanity checks to make sure the class can be instantiated by our generated class.
+	 *
+	 * @param clazz
+	 */
+	private void validateClass(Class<?> clazz) {
+		Assert.isTrue(!Modifier.isAbstract(clazz.getModifiers()), "Cannot instantiate abstract classes");
+		Assert.isTrue(Modifier.isPublic(clazz.getModifiers()), "Only public classes are supported");
+		try {
+			Constructor<?> ctor = clazz.getConstructor();
+			Assert.isTrue(Modifier.isPublic(ctor.getModifiers()), "Default constructor is not public");
+
+		} catch (Exception ex) {
+			throw new IllegalArgumentException("Class " + clazz + " unsuitable for instantiation", ex);
+		}
+	}
+
+	/**
+	 * Collects the properties to serialize, sorted by name so that all members agree on the order.
+	 *
+	 * @param clazz
+	 * @return
+	 * @throws IllegalArgumentException if the class declares state not covered by the properties
+	 */
+	List<PropertyAccess> getPropertyAccesses(Class<?> clazz) {
+		Map<String, PropertyAccess> result = new TreeMap<String, PropertyAccess>();
+
+		for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(clazz)) {
+			Method getter = descriptor.getReadMethod();
+			Method setter = descriptor.getWriteMethod();
+
+			if (getter != null && setter != null && isAccessible(descriptor.getPropertyType())
+					&& getter.getReturnType().equals(setter.getParameterTypes()[0])) {
+				result.put(descriptor.getName(), new PropertyAccess(descriptor.getName(), getter.getReturnType(), null,
+						getter, setter));
+			}
+		}
+
+		for (Field field : clazz.getFields()) {
+			int modifiers = field.getModifiers();
+
+			if (!Modifier.isStatic(modifiers) && !Modifier.isFinal(modifiers) && !Modifier.isTransient(modifiers)
+					&& isAccessible(field.getType()) && !result.containsKey(field.getName())) {
+				result.put(field.getName(), new PropertyAccess(field.getName(), field.getType(), field, null, null));
+			}
+		}
+
+		List<String> uncovered = new ArrayList<String>();
+
+		for (Class<?> type = clazz; type != null && type != Object.class; type = type.getSuperclass()) {
+			for (Field field : type.getDeclaredFields()) {
+				int modifiers = field.getModifiers();
+
+				if (!Modifier.isStatic(modifiers) && !Modifier.isTransient(modifiers) && !field.isSynthetic()
+						&& !result.containsKey(field.getName())) {
+					uncovered.add(type.getName() + "." + field.getName());
+				}
+			}
+		}
+
+		if (!uncovered.isEmpty()) {
+			throw new IllegalArgumentException("Class " + clazz.getName()
+					+ " declares fields not exposed through public getter/setter pairs or public fields " + uncovered
+					+ "; declare them transient to exclude them from serialization");
+		}
+
+		return new ArrayList<PropertyAccess>(result.values());
+	}
+
+	private static boolean isAccessible(Class<?> type) {
+		while (type.isArray()) {
+			type = type.getComponentType();
+		}
+		return type.isPrimitive() || Modifier.isPublic(type.getModifiers());
+	}
+
+	/**
+	 * Generates a new DataSerializer class for the given custom class.
+	 *
+	 * The generated class has the following definition:
+	 *
+	 * <pre>
+	 * package org.springframework.data.gemfire.serialization;
+	 *
+	 * public class &lt;<i>T</i>>DataSerializer$Synthetic<i>Counter</i> extends DataSerializer {
+	 *
+	 *  public int getId() {
+	 *     return <i>serializerId</i>;
+	 *  }
+	 *
+	 *  public Class[] getSupportedClasses() {
+	 *     return new Class[] { <i>T</i>.class };
+	 *  }
+	 *
+	 *  public boolean toData(Object o, DataOutput out) throws IOException {
+	 *     if (!(o instanceof <i>T</i>)) {
+	 *        return false;
+	 *     }
+	 *     <i>T</i> t = (<i>T</i>) o;
+	 *     out.writeInt(t.getAge());
+	 *     DataSerializer.writeString(t.getName(), out);
+	 *     DataSerializer.writeObject(t.address, out);
+	 *     return true;
+	 *  }
+	 *
+	 *  public Object fromData(DataInput in) throws IOException, ClassNotFoundException {
+	 *     <i>T</i> t = new <i>T</i>();
+	 *     t.setAge(in.readInt());
+	 *     t.setName(DataSerializer.readString(in));
+	 *     t.address = (Address) DataSerializer.readObject(in);
+	 *     return t;
+	 *  }
+	 * }
+	 * </pre>
+	 */
+	byte[] generateClassBytecode(String className, Class<?> clazz, int serializerId, List<PropertyAccess> properties) {
+		ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+		String typeName = Type.getInternalName(clazz);
+
+		cw.visit(V1_5, ACC_PUBLIC + ACC_SUPER, className, null, SERIALIZER_NAME, null);
+
+		// default constructor
+		MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, INIT, VOID_NO_ARG_DESC, null, null);
+		mv.visitCode();
+		mv.visitVarInsn(ALOAD, 0);
+		mv.visitMethodInsn(INVOKESPECIAL, SERIALIZER_NAME, INIT, VOID_NO_ARG_DESC);
+		mv.visitInsn(RETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		// getId
+		mv = cw.visitMethod(ACC_PUBLIC, GET_ID, GET_ID_DESC, null, null);
+		mv.visitCode();
+		mv.visitLdcInsn(Integer.valueOf(serializerId));
+		mv.visitInsn(IRETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		// getSupportedClasses
+		mv = cw.visitMethod(ACC_PUBLIC, GET_SUPPORTED_CLASSES, GET_SUPPORTED_CLASSES_DESC, null, null);
+		mv.visitCode();
+		mv.visitInsn(ICONST_1);
+		mv.visitTypeInsn(ANEWARRAY, CLASS_NAME);
+		mv.visitInsn(DUP);
+		mv.visitInsn(ICONST_0);
+		mv.visitLdcInsn(Type.getType(clazz));
+		mv.visitInsn(AASTORE);
+		mv.visitInsn(ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		// toData
+		mv = cw.visitMethod(ACC_PUBLIC, TO_DATA, TO_DATA_DESC, null, IO_EXCEPTIONS);
+		mv.visitCode();
+		Label supported = new Label();
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitTypeInsn(INSTANCEOF, typeName);
+		mv.visitJumpInsn(IFNE, supported);
+		mv.visitInsn(ICONST_0);
+		mv.visitInsn(IRETURN);
+		mv.visitLabel(supported);
+		mv.visitVarInsn(ALOAD, 1);
+		mv.visitTypeInsn(CHECKCAST, typeName);
+		mv.visitVarInsn(ASTORE, 3);
+
+		for (PropertyAccess property : properties) {
+			String primitiveType = PRIMITIVE_TYPES.get(property.type);
+
+			if (primitiveType != null) {
+				mv.visitVarInsn(ALOAD, 2);
+				mv.visitVarInsn(ALOAD, 3);
+				property.visitGet(mv, typeName);
+				mv.visitMethodInsn(INVOKEINTERFACE, OUTPUT_NAME, "write" + primitiveType, "("
+						+ getWriteDescriptor(property.type) + ")V");
+			} else {
+				mv.visitVarInsn(ALOAD, 3);
+				property.visitGet(mv, typeName);
+				mv.visitVarInsn(ALOAD, 2);
+				boolean string = String.class.equals(property.type);
+				mv.visitMethodInsn(INVOKESTATIC, SERIALIZER_NAME, string ? "writeString" : "writeObject", "("
+						+ (string ? STRING_DESCRIPTOR : OBJECT_DESCRIPTOR) + OUTPUT_DESCRIPTOR + ")V");
+			}
+		}
+
+		mv.visitInsn(ICONST_1);
+		mv.visitInsn(IRETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		// fromData
+		mv = cw.visitMethod(ACC_PUBLIC, FROM_DATA, FROM_DATA_DESC, null, READ_EXCEPTIONS);
+		mv.visitCode();
+		mv.visitTypeInsn(NEW, typeName);
+		mv.visitInsn(DUP);
+		mv.visitMethodInsn(INVOKESPECIAL, typeName, INIT, VOID_NO_ARG_DESC);
+		mv.visitVarInsn(ASTORE, 2);
+
+		for (PropertyAccess property : properties) {
+			String primitiveType = PRIMITIVE_TYPES.get(property.type);
+			mv.visitVarInsn(ALOAD, 2);
+			mv.visitVarInsn(ALOAD, 1);
+
+			if (primitiveType != null) {
+				mv.visitMethodInsn(INVOKEINTERFACE, INPUT_NAME, "read" + primitiveType, "()" + property.descriptor);
+			} else if (String.class.equals(property.type)) {
+				mv.visitMethodInsn(INVOKESTATIC, SERIALIZER_NAME, "readString", "(" + INPUT_DESCRIPTOR + ")"
+						+ STRING_DESCRIPTOR);
+			} else {
+				mv.visitMethodInsn(INVOKESTATIC, SERIALIZER_NAME, "readObject", "(" + INPUT_DESCRIPTOR + ")"
+						+ OBJECT_DESCRIPTOR);
+				if (!Object.class.equals(property.type)) {
+					mv.visitTypeInsn(CHECKCAST, Type.getInternalName(property.type));
+				}
+			}
+
+			property.visitSet(mv, typeName);
+		}
+
+		mv.visitVarInsn(ALOAD, 2);
+		mv.visitInsn(ARETURN);
+		mv.visitMaxs(0, 0);
+		mv.visitEnd();
+
+		// end class generation
+		cw.visitEnd();
+
+		return cw.toByteArray();
+	}
+
+	/**
+	 * The {@link DataOutput} methods take ints for all primitive types narrower than int.
+	 */
+	private static String getWriteDescriptor(Class<?> type) {
+		if (byte.class.equals(type) || char.class.equals(type) || short.class.equals(type)) {
+			return Type.INT_TYPE.getDescriptor();
+		}
+		return Type.getDescriptor(type);
+	}
+
+	/**
+	 * The way generated code reads and writes a single property, either through a public getter and setter or through
+	 * a public field.
+	 */
+	static class PropertyAccess {
+
+		final String name;
+		final Class<?> type;
+		final String descriptor;
+		final Field field;
+		final Method getter;
+		final Method setter;
+
+		PropertyAccess(String name, Class<?> type, Field field, Method getter, Method setter) {
+			this.name = name;
+			this.type = type;
+			this.descriptor = Type.getDescriptor(type);
+			this.field = field;
+			this.getter = getter;
+			this.setter = setter;
+		}
+
+		void visitGet(MethodVisitor mv, String owner) {
+			if (getter != null) {
+				mv.visitMethodInsn(INVOKEVIRTUAL, owner, getter.getName(), Type.getMethodDescriptor(getter));
+			} else {
+				mv.visitFieldInsn(GETFIELD, owner, field.getName(), descriptor);
+			}
+		}
+
+		void visitSet(MethodVisitor mv, String owner) {
+			if (setter == null) {
+				mv.visitFieldInsn(PUTFIELD, owner, field.getName(), descriptor);
+				return;
+			}
+
+			mv.visitMethodInsn(INVOKEVIRTUAL, owner, setter.getName(), Type.getMethodDescriptor(setter));
+
+			// discard the return value of fluent setters
+			Class<?> returnType = setter.getReturnType();
+			if (!void.class.equals(returnType)) {
+				mv.visitInsn(long.class.equals(returnType) || double.class.equals(returnType) ? POP2 : POP);
+			}
+		}
+	}
+}
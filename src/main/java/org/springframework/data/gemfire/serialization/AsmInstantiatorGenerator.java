@@ -19,10 +19,6 @@ package org.springframework.data.gemfire.serialization;
 import java.io.Serializable;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Modifier;
-import java.security.AccessController;
-import java.security.PrivilegedAction;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.springframework.asm.ClassWriter;
@@ -32,6 +28,7 @@ import org.springframework.asm.Opcodes;
 import org.springframework.asm.Type;
 import org.springframework.beans.BeanUtils;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 
 import com.gemstone.gemfire.DataSerializable;
 import com.gemstone.gemfire.Instantiator;
@@ -47,6 +44,7 @@ public class AsmInstantiatorGenerator implements InstantiatorGenerator, Opcodes
 
 	private static final String PKG = "org/springextensions/gef/serialization";
 	private static final String CLASS_LABEL = "Instantiator$Synthetic";
+	private static final String PREGENERATED_CLASS_LABEL = "$$Instantiator$";
 	private static final String INSTANTIATOR_NAME = Type.getInternalName(Instantiator.class);
 	private static final String SERIALIZABLE_NAME = Type.getInternalName(Serializable.class);
 	private static final String CLASS_DESCRIPTOR = Type.getDescriptor(Class.class);
@@ -62,49 +60,33 @@ public class AsmInstantiatorGenerator implements InstantiatorGenerator, Opcodes
 	// generated class counter
 	private static final AtomicLong counter = new AtomicLong(1);
 
-	// class cache
-	private final ConcurrentMap<Class<? extends DataSerializable>, Instantiator> cache = new ConcurrentHashMap<Class<? extends DataSerializable>, Instantiator>();
+	// instantiator cache
+	private final SyntheticClassCache<Instantiator> cache;
 
 
-	private static final class BytecodeClassLoader extends ClassLoader {
-
-		public BytecodeClassLoader(ClassLoader loader) {
-			super(loader);
-		}
-
-		public Class<?> loadClass(String name, byte[] bytecode) {
-			return defineClass(name, bytecode, 0, bytecode.length);
-		}
-	}
-
-	private final BytecodeClassLoader classLoader;
-
 	public AsmInstantiatorGenerator() {
 		this(AsmInstantiatorGenerator.class.getClassLoader());
 	}
 
-	public AsmInstantiatorGenerator(final ClassLoader classLoader) {
-		Assert.notNull(classLoader);
-		this.classLoader = AccessController.doPrivileged(new PrivilegedAction<BytecodeClassLoader>() {
-			public BytecodeClassLoader run() {
-				return new BytecodeClassLoader(classLoader);
-			}
-		});
+	/**
+	 * Creates a new {@link AsmInstantiatorGenerator}. The {@link Instantiator}s are generated in class loaders
+	 * children of the custom types' class loader; the given class loader is only used for types loaded by the
+	 * bootstrap class loader.
+	 * 
+	 * @param classLoader fallback class loader
+	 */
+	public AsmInstantiatorGenerator(ClassLoader classLoader) {
+		this.cache = new SyntheticClassCache<Instantiator>(classLoader,
+				new SyntheticClassCache.SyntheticClassFactory<Instantiator>() {
+					@SuppressWarnings("unchecked")
+					public Instantiator create(Class<?> type, int id, SyntheticClassCache.BytecodeClassLoader loader) {
+						return createInstantiator((Class<? extends DataSerializable>) type, id, loader);
+					}
+				});
 	}
 
 	public Instantiator getInstantiator(Class<? extends DataSerializable> clazz, int classId) {
-		Instantiator instantiator = cache.get(clazz);
-		if (instantiator == null) {
-			synchronized (cache) {
-				instantiator = cache.get(clazz);
-				if (instantiator == null) {
-					// create Instantiator
-					instantiator = createInstantiator(clazz, classId);
-					cache.putIfAbsent(clazz, instantiator);
-				}
-			}
-		}
-		return instantiator;
+		return cache.get(clazz, classId);
 	}
 
 	/**
@@ -114,12 +96,60 @@ public class AsmInstantiatorGenerator implements InstantiatorGenerator, Opcodes
 	 * @param classId
 	 * @return
 	 */
-	private Instantiator createInstantiator(Class<? extends DataSerializable> clazz, int classId) {
+	private Instantiator createInstantiator(Class<? extends DataSerializable> clazz, int classId,
+			SyntheticClassCache.BytecodeClassLoader classLoader) {
 		validateClass(clazz);
-		Class<?> clz = createCustomInstantiatorClass(clazz, classId);
+		Class<?> clz = getPregeneratedClass(clazz, classId);
+		if (clz == null) {
+			clz = createCustomInstantiatorClass(clazz, classId, classLoader);
+		}
 		return (Instantiator) BeanUtils.instantiate(clz);
 	}
 
+	/**
+	 * Returns the Instantiator class generated at build time for the given class and id, if present.
+	 * 
+	 * @param clazz
+	 * @param classId
+	 * @return the class or null if none was generated
+	 */
+	private Class<?> getPregeneratedClass(Class<? extends DataSerializable> clazz, int classId) {
+		String className = getPregeneratedClassName(clazz, classId);
+		ClassLoader loader = clazz.getClassLoader();
+		if (loader == null || !ClassUtils.isPresent(className, loader)) {
+			return null;
+		}
+		Class<?> clz = ClassUtils.resolveClassName(className, loader);
+		Assert.isAssignable(Instantiator.class, clz);
+		return clz;
+	}
+
+	/**
+	 * Returns the name of the Instantiator class generated at build time for the given class and id. Such classes
+	 * are picked up from the custom type's class loader instead of being generated at runtime.
+	 * 
+	 * @param clazz custom type
+	 * @param classId instantiator class id
+	 * @return the binary name of the pre-generated class
+	 * @see org.springframework.data.gemfire.support.GeneratedClassWriter
+	 */
+	public static String getPregeneratedClassName(Class<?> clazz, int classId) {
+		return clazz.getName() + PREGENERATED_CLASS_LABEL + Integer.toHexString(classId);
+	}
+
+	/**
+	 * Generates the bytecode of the Instantiator class named {@link #getPregeneratedClassName(Class, int)}, to be
+	 * used at build time.
+	 * 
+	 * @param clazz custom type
+	 * @param classId instantiator class id
+	 * @return the class bytecode
+	 */
+	public byte[] generateClassBytecode(Class<? extends DataSerializable> clazz, int classId) {
+		validateClass(clazz);
+		return generateClassBytecode(getPregeneratedClassName(clazz, classId).replace('.', '/'), clazz, classId);
+	}
+
 	/**
 	 * Does basic sanity checks to make sure the constructor can be properly invoked by our generated
 	 * class.
@@ -168,7 +198,8 @@ public class AsmInstantiatorGenerator implements InstantiatorGenerator, Opcodes
 	 * @param clazz
 	 * @return
 	 */
-	Class<?> createCustomInstantiatorClass(Class<? extends DataSerializable> clazz, int classId) {
+	Class<?> createCustomInstantiatorClass(Class<? extends DataSerializable> clazz, int classId,
+			SyntheticClassCache.BytecodeClassLoader classLoader) {
 		String classInternalName = PKG + clazz.getSimpleName() + CLASS_LABEL + counter.getAndIncrement();
 		byte[] bytecode = generateClassBytecode(classInternalName, clazz, classId);
 		// translate internal name to binary form
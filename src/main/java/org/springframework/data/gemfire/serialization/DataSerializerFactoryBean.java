@@ -0,0 +1,132 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.gemfire.serialization;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.FactoryBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.util.Assert;
+
+import com.gemstone.gemfire.DataSerializer;
+import com.gemstone.gemfire.internal.InternalDataSerializer;
+
+/**
+ * {@link FactoryBean} that eases registration of custom {@link DataSerializer}s through
+ * {@link DataSerializerGenerator}s, inside the Spring container. The id of each serializer is taken from the
+ * {@link DataSerializerId} annotation of the custom type.
+ * 
+ * By default, the returned {@link DataSerializer}s (created through {@link AsmDataSerializerGenerator} if a custom
+ * generator is not specified) are registered at startup with GemFire. As the generated classes only exist inside the
+ * VM that generated them, every member needs to declare the same custom types; the registration is therefore not
+ * distributed by default.
+ */
+public class DataSerializerFactoryBean implements BeanClassLoaderAware, FactoryBean<Collection<DataSerializer>>,
+		InitializingBean {
+
+	private DataSerializerGenerator generator;
+	private Collection<DataSerializer> list;
+	private ClassLoader classLoader;
+	private boolean autoRegister = true;
+	private boolean distribute = false;
+
+	private Collection<Class<?>> types;
+
+
+	public void afterPropertiesSet() throws Exception {
+		Assert.notEmpty(types, "no custom types for generating the DataSerializers");
+
+		if (generator == null) {
+			generator = new AsmDataSerializerGenerator(classLoader);
+		}
+
+		list = new ArrayList<DataSerializer>(types.size());
+
+		for (Class<?> type : types) {
+			Assert.notNull(type, "Invalid/Null class given as custom type");
+			DataSerializerId id = type.getAnnotation(DataSerializerId.class);
+			Assert.notNull(id, "Custom type " + type.getName() + " is not annotated with @DataSerializerId");
+
+			list.add(generator.getDataSerializer(type, id.value()));
+		}
+
+		if (autoRegister) {
+			for (DataSerializer serializer : list) {
+				InternalDataSerializer.register(serializer.getClass(), distribute);
+			}
+		}
+	}
+
+	public Collection<DataSerializer> getObject() throws Exception {
+		return list;
+	}
+
+	public Class<?> getObjectType() {
+		return (list != null ? list.getClass() : Collection.class);
+	}
+
+	public boolean isSingleton() {
+		return true;
+	}
+
+	public void setBeanClassLoader(ClassLoader classLoader) {
+		this.classLoader = classLoader;
+	}
+
+	/**
+	 * Sets the custom types for generating the {@link DataSerializer}s. Each type needs to be annotated with
+	 * {@link DataSerializerId}.
+	 * 
+	 * @param types the custom types
+	 */
+	public void setCustomTypes(Collection<Class<?>> types) {
+		this.types = types;
+	}
+
+	/**
+	 * Sets the generator to use for creating {@link DataSerializer}s.
+	 * 
+	 * @param generator the generator to set
+	 */
+	public void setGenerator(DataSerializerGenerator generator) {
+		this.generator = generator;
+	}
+
+	/**
+	 * Sets the auto-registration of the {@link DataSerializer}s during the container startup.
+	 * Default is true, meaning the registration will occur once this factory is initialized.
+	 * 
+	 * @see DataSerializer#register(Class)
+	 * @param autoRegister the autoRegister to set
+	 */
+	public void setAutoRegister(boolean autoRegister) {
+		this.autoRegister = autoRegister;
+	}
+
+	/**
+	 * Sets the distribution of the {@link DataSerializer} registrations to other members and clients.
+	 * Default is false, as the generated classes cannot be loaded by members that did not generate them.
+	 * 
+	 * @see InternalDataSerializer#register(Class, boolean)
+	 * @param distribute whether the registration is distributable or not
+	 */
+	public void setDistribute(boolean distribute) {
+		this.distribute = distribute;
+	}
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.gemfire.serialization;
+
+import com.gemstone.gemfire.DataSerializer;
+
+/**
+ * Factory that generates {@link DataSerializer} classes reading and writing the state of custom types, sparing
+ * the hand written <code>toData</code>/<code>fromData</code> methods.
+ */
+public interface DataSerializerGenerator {
+
+	/**
+	 * Returns a (potentially new) DataSerializer that reads and writes instances of the given type.
+	 *
+	 * @param clazz class handled by the serializer
+	 * @param serializerId the id of the serializer
+	 * @return a serializer dedicated to the given type.
+	 */
+	DataSerializer getDataSerializer(Class<?> clazz, int serializerId);
+}
@@ -20,15 +20,27 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+
 import com.gemstone.gemfire.DataSerializer;
 import com.gemstone.gemfire.internal.InternalDataSerializer;
 
 /**
  * Generic Serializer for JDK Enums. The class needs to be registered only once - custom enums
  * will be then understood by the converter by calling {@link #addEnum(Class)}.
+ * <p/>
+ * By default, each value is written as its enum class followed by its ordinal. Enum classes registered through
+ * {@link #registerEnums(Map)} are written in a compact form instead: a marker byte, the id given to the class and the
+ * ordinal, the latter two as variable length integers, typically taking three bytes per value and requiring no class
+ * lookup when read. Values of other enum classes are still written in the default form, so values written before any
+ * enums were registered remain readable. All members reading and writing the values have to register the same ids.
+ * As GemFire creates its own instances of the registered serializer class, the registration is shared by all of them.
  * 
  * @author Costin Leau
  */
@@ -38,17 +50,42 @@ public class EnumSerializer extends DataSerializer implements Serializable {
 
 	private static final ConcurrentMap<Class<?>, Enum[]> supportedClasses = new ConcurrentHashMap<Class<?>, Enum[]>();
 
+	// the enum classes read in the default form, by name
+	private static final ConcurrentMap<String, Class<?>> classesByName = new ConcurrentHashMap<String, Class<?>>();
+
+	// leading byte of DataSerializer.writeClass for non-primitive classes (DSCODE.CLASS)
+	private static final byte CLASS_HEADER = 43;
+
+	// leading byte of values written in the compact form; DataSerializer.writeClass starts every non-primitive class
+	// with DSCODE.CLASS (43), so this byte never starts a value written in the default form
+	private static final byte COMPACT_FORM = -128;
+
+	private static final ConcurrentMap<Class<?>, Integer> registeredIds = new ConcurrentHashMap<Class<?>, Integer>();
+
+	// the constants of the registered enums, by id
+	private static volatile Map<Integer, Enum[]> registeredConstants = new HashMap<Integer, Enum[]>();
+
 	private int id = 1024;
 
 	@Override
 	public boolean toData(Object o, DataOutput out) throws IOException {
 		if (o instanceof Enum<?>) {
-			// add enum to the set
 			Enum<?> enm = (Enum<?>) o;
 			Class<?> cls = enm.getDeclaringClass();
+
+			Integer registeredId = registeredIds.get(cls);
+			if (registeredId != null) {
+				out.writeByte(COMPACT_FORM);
+				writeVarInt(registeredId, out);
+				writeVarInt(enm.ordinal(), out);
+				return true;
+			}
+
+			// add enum to the set
 			addEnum(cls);
 			DataSerializer.writeClass(cls, out);
 			out.writeInt(enm.ordinal());
+			return true;
 		}
 		return false;
 	}
@@ -56,15 +93,108 @@ public class EnumSerializer extends DataSerializer implements Serializable {
 	@SuppressWarnings("unchecked")
 	@Override
 	public Object fromData(DataInput in) throws IOException, ClassNotFoundException {
-		Class cls = DataSerializer.readClass(in);
+		byte header = in.readByte();
+
+		if (header == COMPACT_FORM) {
+			int registeredId = readVarInt(in);
+			Enum[] constants = registeredConstants.get(registeredId);
+			if (constants == null) {
+				throw new IOException("Unknown enum id read from the stream - " + registeredId);
+			}
+			return getConstant(constants, readVarInt(in));
+		}
+
+		if (header != CLASS_HEADER) {
+			throw new IOException("Non-enum value read from the stream - header " + header);
+		}
+
+		Class cls = readClassName(in);
 		if (cls.isEnum()) {
 			addEnum(cls);
 			int ordinal = in.readInt();
-			return supportedClasses.get(cls)[ordinal];
+			return getConstant(supportedClasses.get(cls), ordinal);
 		}
 		throw new IOException("Non-enum class read from the stream -" + cls);
 	}
 
+	private static Enum<?> getConstant(Enum[] constants, int ordinal) throws IOException {
+		if (ordinal < 0 || ordinal >= constants.length) {
+			throw new IOException("Ordinal " + ordinal + " read from the stream is out of range for "
+					+ constants.getClass().getComponentType());
+		}
+		return constants[ordinal];
+	}
+
+	/**
+	 * Reads the class name written by {@link DataSerializer#writeClass(Class, DataOutput)} after its header.
+	 */
+	private static Class<?> readClassName(DataInput in) throws IOException, ClassNotFoundException {
+		String className = DataSerializer.readString(in);
+		Class<?> cls = classesByName.get(className);
+		if (cls == null) {
+			cls = ClassUtils.forName(className, ClassUtils.getDefaultClassLoader());
+			if (cls.isEnum()) {
+				classesByName.putIfAbsent(className, cls);
+			}
+		}
+		return cls;
+	}
+
+	/**
+	 * Registers the enum classes to be written in the compact form under the given ids. The ids are written instead
+	 * of the class names, so all members have to register the same classes under the same ids. The registration
+	 * replaces any previous one and applies to all instances of this serializer, including the ones GemFire creates;
+	 * it should happen before the serializer is registered with GemFire, which reads its supported classes then.
+	 * 
+	 * @param enumIds must not be {@literal null}; maps enum classes to unique, non-negative ids.
+	 */
+	public static void registerEnums(Map<Class<?>, Integer> enumIds) {
+		Assert.notNull(enumIds);
+
+		Map<Integer, Enum[]> constants = new HashMap<Integer, Enum[]>();
+
+		for (Map.Entry<Class<?>, Integer> entry : enumIds.entrySet()) {
+			Class<?> enumClass = entry.getKey();
+			Integer registeredId = entry.getValue();
+			Assert.isTrue(enumClass.isEnum(), enumClass + " is not an enum!");
+			Assert.isTrue(registeredId != null && registeredId >= 0, "Invalid id " + registeredId + " for "
+					+ enumClass + "; ids must not be negative!");
+
+			Enum[] previous = constants.put(registeredId, (Enum[]) enumClass.getEnumConstants());
+			if (previous != null) {
+				throw new IllegalArgumentException("Id " + registeredId + " is registered for both " + enumClass
+						+ " and " + previous.getClass().getComponentType() + "!");
+			}
+			supportedClasses.putIfAbsent(enumClass, constants.get(registeredId));
+		}
+
+		synchronized (registeredIds) {
+			registeredIds.clear();
+			registeredIds.putAll(enumIds);
+			registeredConstants = constants;
+		}
+	}
+
+	private static void writeVarInt(int value, DataOutput out) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.writeByte((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte(value);
+	}
+
+	private static int readVarInt(DataInput in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 32; shift += 7) {
+			byte b = in.readByte();
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Malformed variable length integer read from the stream");
+	}
+
 	@SuppressWarnings("unchecked")
 	public void addEnum(Class enumClass) {
 		if (!supportedClasses.containsKey(enumClass)) {
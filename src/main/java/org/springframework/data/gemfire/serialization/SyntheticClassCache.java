@@ -0,0 +1,223 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.gemfire.serialization;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+
+/**
+ * Cache for the instances of classes generated for a custom type and id. Lookups never lock; concurrent requests for
+ * the same type and id wait for a single generation while requests for other types proceed.
+ * <p/>
+ * Generated classes are defined in a {@link BytecodeClassLoader} child of the custom type's class loader, which also
+ * holds the generated instances. The cache references these loaders only weakly (and uses weak keys for the custom
+ * type class loaders) so that redeployed applications do not leak their generated classes: the generated instances
+ * stay cached for as long as they are in use (for example registered with GemFire).
+ */
+class SyntheticClassCache<T> {
+
+	/**
+	 * Callback creating the instance of the generated class for a custom type and id.
+	 */
+	interface SyntheticClassFactory<T> {
+
+		T create(Class<?> type, int id, BytecodeClassLoader classLoader);
+	}
+
+	static final class BytecodeClassLoader extends ClassLoader {
+
+		private final ConcurrentMap<InstanceKey, Future<Object>> instances = new ConcurrentHashMap<InstanceKey, Future<Object>>();
+
+		BytecodeClassLoader(ClassLoader loader) {
+			super(loader);
+		}
+
+		public Class<?> loadClass(String name, byte[] bytecode) {
+			return defineClass(name, bytecode, 0, bytecode.length);
+		}
+	}
+
+	private final ConcurrentMap<LoaderKey, Reference<BytecodeClassLoader>> loaders = new ConcurrentHashMap<LoaderKey, Reference<BytecodeClassLoader>>();
+	private final ReferenceQueue<ClassLoader> staleLoaders = new ReferenceQueue<ClassLoader>();
+
+	private final ClassLoader defaultClassLoader;
+	private final SyntheticClassFactory<T> factory;
+
+	/**
+	 * Creates a new {@link SyntheticClassCache}.
+	 *
+	 * @param defaultClassLoader class loader used for custom types loaded by the bootstrap class loader, must not be
+	 *            {@literal null}.
+	 * @param factory must not be {@literal null}.
+	 */
+	SyntheticClassCache(ClassLoader defaultClassLoader, SyntheticClassFactory<T> factory) {
+		Assert.notNull(defaultClassLoader);
+		Assert.notNull(factory);
+		this.defaultClassLoader = defaultClassLoader;
+		this.factory = factory;
+	}
+
+	/**
+	 * Returns the instance generated for the given type and id, creating it if necessary.
+	 *
+	 * @param type
+	 * @param id
+	 * @return
+	 */
+	@SuppressWarnings("unchecked")
+	T get(final Class<?> type, final int id) {
+		final BytecodeClassLoader classLoader = getBytecodeClassLoader(type);
+		InstanceKey key = new InstanceKey(type, id);
+
+		Future<Object> future = classLoader.instances.get(key);
+		if (future == null) {
+			FutureTask<Object> task = new FutureTask<Object>(new Callable<Object>() {
+				public Object call() {
+					return factory.create(type, id, classLoader);
+				}
+			});
+			future = classLoader.instances.putIfAbsent(key, task);
+			if (future == null) {
+				future = task;
+				task.run();
+			}
+		}
+
+		try {
+			return (T) future.get();
+		} catch (InterruptedException ex) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while generating class for " + type, ex);
+		} catch (ExecutionException ex) {
+			// allow the generation to be retried
+			classLoader.instances.remove(key, future);
+			Throwable cause = ex.getCause();
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new IllegalStateException("Cannot generate class for " + type, cause);
+		}
+	}
+
+	private BytecodeClassLoader getBytecodeClassLoader(Class<?> type) {
+		expungeStaleLoaders();
+
+		final ClassLoader parent = (type.getClassLoader() != null ? type.getClassLoader() : defaultClassLoader);
+		LoaderKey key = new LoaderKey(parent, null);
+
+		while (true) {
+			Reference<BytecodeClassLoader> reference = loaders.get(key);
+			BytecodeClassLoader classLoader = (reference != null ? reference.get() : null);
+
+			if (classLoader != null) {
+				return classLoader;
+			}
+
+			classLoader = AccessController.doPrivileged(new PrivilegedAction<BytecodeClassLoader>() {
+				public BytecodeClassLoader run() {
+					return new BytecodeClassLoader(parent);
+				}
+			});
+			Reference<BytecodeClassLoader> newReference = new WeakReference<BytecodeClassLoader>(classLoader);
+
+			if (reference == null ? loaders.putIfAbsent(new LoaderKey(parent, staleLoaders), newReference) == null
+					: loaders.replace(key, reference, newReference)) {
+				return classLoader;
+			}
+		}
+	}
+
+	private void expungeStaleLoaders() {
+		Reference<? extends ClassLoader> reference;
+		while ((reference = staleLoaders.poll()) != null) {
+			loaders.remove(reference);
+		}
+	}
+
+	/**
+	 * Weak key comparing class loaders by identity.
+	 */
+	private static class LoaderKey extends WeakReference<ClassLoader> {
+
+		private final int hashCode;
+
+		LoaderKey(ClassLoader classLoader, ReferenceQueue<ClassLoader> queue) {
+			super(classLoader, queue);
+			this.hashCode = System.identityHashCode(classLoader);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof LoaderKey)) {
+				return false;
+			}
+			ClassLoader classLoader = get();
+			return classLoader != null && classLoader == ((LoaderKey) obj).get();
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+	private static class InstanceKey {
+
+		private final Class<?> type;
+		private final int id;
+
+		InstanceKey(Class<?> type, int id) {
+			this.type = type;
+			this.id = id;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof InstanceKey)) {
+				return false;
+			}
+			InstanceKey that = (InstanceKey) obj;
+			return type.equals(that.type) && id == that.id;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * ObjectUtils.nullSafeHashCode(type) + id;
+		}
+	}
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.gemfire.support;
+
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * {@link ThreadPoolTaskExecutor} used for asynchronous query and function executions unless an executor is configured
+ * explicitly. Each repository factory, function template and function proxy creates its own instance and shuts it down
+ * when it is destroyed. The pool consists of daemon threads, bounded by twice the number of available processors, and
+ * queues up to {@value #DEFAULT_QUEUE_CAPACITY} further tasks; tasks submitted beyond that are rejected with a
+ * {@link TaskRejectedException}. Idle threads are discarded after a minute, so that an executor whose owner is not
+ * destroyed explicitly does not keep any threads.
+ * <p/>
+ * As the pool is bounded, tasks submitted to it must not wait for other tasks submitted to it. Configure a dedicated
+ * executor for such use.
+ */
+@SuppressWarnings("serial")
+public class DefaultTaskExecutor extends ThreadPoolTaskExecutor {
+
+	/**
+	 * The maximum number of tasks queued until a thread becomes available.
+	 */
+	public static final int DEFAULT_QUEUE_CAPACITY = 1000;
+
+	private static final int MAX_THREADS = Runtime.getRuntime().availableProcessors() * 2;
+
+	private static final int KEEP_ALIVE_SECONDS = 60;
+
+	/**
+	 * Creates and initializes a new {@link DefaultTaskExecutor}.
+	 * 
+	 * @param threadNamePrefix the prefix of the names of the pool's threads
+	 */
+	public DefaultTaskExecutor(String threadNamePrefix) {
+
+		setThreadNamePrefix(threadNamePrefix);
+		setDaemon(true);
+		setCorePoolSize(MAX_THREADS);
+		setMaxPoolSize(MAX_THREADS);
+		setKeepAliveSeconds(KEEP_ALIVE_SECONDS);
+		setAllowCoreThreadTimeOut(true);
+		setQueueCapacity(DEFAULT_QUEUE_CAPACITY);
+		initialize();
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.gemfire.support;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.gemfire.mapping.AsmPdxSerializerGenerator;
+import org.springframework.data.gemfire.mapping.GemfireMappingContext;
+import org.springframework.data.gemfire.mapping.GemfirePersistentEntity;
+import org.springframework.data.gemfire.serialization.AsmInstantiatorGenerator;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.FileCopyUtils;
+
+import com.gemstone.gemfire.DataSerializable;
+
+/**
+ * Writes the classes otherwise generated at runtime by {@link AsmInstantiatorGenerator} and
+ * {@link AsmPdxSerializerGenerator} as class files, so that they can be generated at build time and packaged with the
+ * application. When present on the class path, the generated classes are used directly instead of being generated on
+ * startup or on first use. The PDX classes are only used if generated code is enabled on the
+ * {@link org.springframework.data.gemfire.mapping.MappingPdxSerializer}.
+ * <p/>
+ * The main method expects the output directory followed by the custom types. Types given as
+ * <code>type:classId</code> get an {@link com.gemstone.gemfire.Instantiator}, all others a
+ * {@link com.gemstone.gemfire.pdx.PdxSerializer} and a persistence constructor instantiator (where supported). With
+ * Gradle, this can be hooked into the build through:
+ *
+ * <pre>
+ * task generateGemfireClasses(type: JavaExec, dependsOn: classes) {
+ *     classpath = sourceSets.main.runtimeClasspath
+ *     main = 'org.springframework.data.gemfire.support.GeneratedClassWriter'
+ *     args = [sourceSets.main.output.classesDir, 'com.example.Order', 'com.example.Trade:1025']
+ * }
+ * jar.dependsOn generateGemfireClasses
+ * </pre>
+ *
+ * The classes have to be regenerated whenever the custom types change. Serializers are generated using the default
+ * {@link GemfireMappingContext} and record the properties they were generated for; they are ignored at runtime if the
+ * entity maps different properties, e.g. through a custom mapping context, or if custom property serializers are
+ * configured.
+ */
+public class GeneratedClassWriter {
+
+	private final File outputDirectory;
+
+	private final GemfireMappingContext mappingContext = new GemfireMappingContext();
+
+	private final AsmInstantiatorGenerator instantiatorGenerator;
+
+	private final AsmPdxSerializerGenerator pdxGenerator = new AsmPdxSerializerGenerator();
+
+	/**
+	 * Creates a new {@link GeneratedClassWriter} writing to the given directory.
+	 *
+	 * @param outputDirectory class output directory, must not be {@literal null}.
+	 * @param classLoader class loader of the custom types, must not be {@literal null}.
+	 */
+	public GeneratedClassWriter(File outputDirectory, ClassLoader classLoader) {
+		Assert.notNull(outputDirectory);
+		this.outputDirectory = outputDirectory;
+		this.instantiatorGenerator = new AsmInstantiatorGenerator(classLoader);
+	}
+
+	/**
+	 * Writes the {@link com.gemstone.gemfire.Instantiator} for the given type and id.
+	 *
+	 * @param type custom type
+	 * @param classId instantiator class id
+	 * @return the name of the written class
+	 * @throws IOException
+	 */
+	public String writeInstantiator(Class<? extends DataSerializable> type, int classId) throws IOException {
+		String className = AsmInstantiatorGenerator.getPregeneratedClassName(type, classId);
+		write(className, instantiatorGenerator.generateClassBytecode(type, classId));
+		return className;
+	}
+
+	/**
+	 * Writes the {@link com.gemstone.gemfire.pdx.PdxSerializer} and the persistence constructor instantiator for the
+	 * given entity type, skipping the ones the entity is not supported by.
+	 *
+	 * @param type entity type
+	 * @return the names of the written classes
+	 * @throws IOException
+	 */
+	public List<String> writePdxClasses(Class<?> type) throws IOException {
+		GemfirePersistentEntity<?> entity = mappingContext.getPersistentEntity(type);
+		List<String> result = new ArrayList<String>(2);
+
+		byte[] bytecode = pdxGenerator.generateSerializerBytecode(entity);
+		if (bytecode != null) {
+			result.add(write(AsmPdxSerializerGenerator.getPregeneratedSerializerName(type), bytecode));
+		}
+
+		bytecode = pdxGenerator.generateInstantiatorBytecode(entity);
+		if (bytecode != null) {
+			result.add(write(AsmPdxSerializerGenerator.getPregeneratedInstantiatorName(type), bytecode));
+		}
+
+		return result;
+	}
+
+	private String write(String className, byte[] bytecode) throws IOException {
+		File file = new File(outputDirectory, className.replace('.', File.separatorChar) + ".class");
+		File directory = file.getParentFile();
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IOException("Cannot create directory " + directory);
+		}
+		FileCopyUtils.copy(bytecode, file);
+		return className;
+	}
+
+	@SuppressWarnings("unchecked")
+	public static void main(final String... args) throws Exception {
+		Assert.isTrue(args.length > 1, "Usage: GeneratedClassWriter <output directory> <type>[:<classId>]...");
+
+		ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+		GeneratedClassWriter writer = new GeneratedClassWriter(new File(args[0]), classLoader);
+
+		for (int i = 1; i < args.length; i++) {
+			String[] type = args[i].split(":");
+			Class<?> clazz = ClassUtils.forName(type[0].trim(), classLoader);
+
+			if (type.length > 1) {
+				Assert.isAssignable(DataSerializable.class, clazz);
+				System.out.printf("Generated %1$s%n", writer.writeInstantiator(
+						(Class<? extends DataSerializable>) clazz, Integer.parseInt(type[1].trim())));
+			} else {
+				List<String> classNames = writer.writePdxClasses(clazz);
+				if (classNames.isEmpty()) {
+					System.out.printf("Skipped %1$s, not supported by generated code%n", clazz.getName());
+				}
+				for (String className : classNames) {
+					System.out.printf("Generated %1$s%n", className);
+				}
+			}
+		}
+	}
+}
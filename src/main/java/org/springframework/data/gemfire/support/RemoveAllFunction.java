@@ -0,0 +1,101 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.springframework.data.gemfire.support;
+
+import java.util.ArrayList;
+import java.util.Collection;
+
+import org.springframework.util.CollectionUtils;
+
+import com.gemstone.gemfire.cache.Region;
+import com.gemstone.gemfire.cache.execute.Function;
+import com.gemstone.gemfire.cache.execute.FunctionContext;
+import com.gemstone.gemfire.cache.execute.RegionFunctionContext;
+import com.gemstone.gemfire.cache.partition.PartitionRegionHelper;
+
+/**
+ * Region function removing entries on the members hosting them. If the function is executed with a filter only the
+ * filtered keys are removed, otherwise all entries of the primary buckets local to each executing member are removed
+ * (or the whole data set in case of a non-partitioned region). This avoids streaming every key of a large partitioned
+ * region through the calling member.
+ * <p/>
+ * Returns the number of removed entries of each member. Must be on the class path of the servers when invoked from a
+ * client.
+ */
+@SuppressWarnings("serial")
+public class RemoveAllFunction implements Function {
+
+	/* (non-Javadoc)
+	 * @see com.gemstone.gemfire.cache.execute.Function#execute(com.gemstone.gemfire.cache.execute.FunctionContext)
+	 */
+	@Override
+	public void execute(FunctionContext functionContext) {
+		RegionFunctionContext regionFunctionContext = (RegionFunctionContext) functionContext;
+		Region<Object, Object> region = regionFunctionContext.getDataSet();
+		Collection<?> keys = regionFunctionContext.getFilter();
+
+		int removed = 0;
+		if (CollectionUtils.isEmpty(keys)) {
+			if (PartitionRegionHelper.isPartitionedRegion(region)) {
+				keys = new ArrayList<Object>(PartitionRegionHelper.getLocalPrimaryData(region).keySet());
+			} else {
+				removed = region.size();
+				region.clear();
+				keys = null;
+			}
+		}
+
+		if (keys != null) {
+			for (Object key : keys) {
+				if (region.remove(key) != null) {
+					removed++;
+				}
+			}
+		}
+
+		functionContext.getResultSender().lastResult(removed);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.gemstone.gemfire.cache.execute.Function#getId()
+	 */
+	@Override
+	public String getId() {
+		return this.getClass().getName();
+	}
+
+	/* (non-Javadoc)
+	 * @see com.gemstone.gemfire.cache.execute.Function#hasResult()
+	 */
+	@Override
+	public boolean hasResult() {
+		return true;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.gemstone.gemfire.cache.execute.Function#isHA()
+	 */
+	@Override
+	public boolean isHA() {
+		return false;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.gemstone.gemfire.cache.execute.Function#optimizeForWrite()
+	 */
+	@Override
+	public boolean optimizeForWrite() {
+		return true;
+	}
+
+}
@@ -86,6 +86,53 @@ public class GemfireTemplateTest  {
 		assertNotNull(find);
 	}
 	
+	@Test
+	public void testFindReusesCompiledQuery() throws Exception {
+		GemfireTemplate gemfireTemplate = (GemfireTemplate) template;
+		gemfireTemplate.clearQueryCache();
+		long hits = gemfireTemplate.getQueryCacheHits();
+		long misses = gemfireTemplate.getQueryCacheMisses();
+
+		template.find(MULTI_QUERY);
+		template.find(MULTI_QUERY);
+
+		assertEquals(misses + 1, gemfireTemplate.getQueryCacheMisses());
+		assertEquals(hits + 1, gemfireTemplate.getQueryCacheHits());
+	}
+
+	@Test
+	public void testCompiledQueriesAreSharedAcrossThreads() throws Exception {
+		final GemfireTemplate gemfireTemplate = (GemfireTemplate) template;
+		gemfireTemplate.clearQueryCache();
+		template.find(MULTI_QUERY);
+		long hits = gemfireTemplate.getQueryCacheHits();
+		long misses = gemfireTemplate.getQueryCacheMisses();
+
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				template.find(MULTI_QUERY);
+			}
+		};
+		thread.start();
+		thread.join();
+
+		assertEquals(misses, gemfireTemplate.getQueryCacheMisses());
+		assertEquals(hits + 1, gemfireTemplate.getQueryCacheHits());
+	}
+
+	@Test
+	public void testSetRegionClearsQueryCache() throws Exception {
+		GemfireTemplate gemfireTemplate = (GemfireTemplate) template;
+		template.find(MULTI_QUERY);
+		long misses = gemfireTemplate.getQueryCacheMisses();
+
+		gemfireTemplate.setRegion(gemfireTemplate.getRegion());
+		template.find(MULTI_QUERY);
+
+		assertEquals(misses + 1, gemfireTemplate.getQueryCacheMisses());
+	}
+
 	@Test
 	public void testFindUnique() throws Exception {
  		Integer find = template.findUnique(SINGLE_QUERY);
@@ -12,17 +12,23 @@
  */
 package org.springframework.data.gemfire.function;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.lang.reflect.Array;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 
 import org.junit.Test;
 
 import com.gemstone.gemfire.cache.execute.ResultSender;
+import com.gemstone.gemfire.cache.util.ObjectSizer;
 
 /**
  * @author David Turanski
@@ -41,6 +47,47 @@ public class BatchingResultSenderTest {
 	}
 	
 	
+	@Test
+	public void testArrayChunkingSendsLastResult() {
+		for (int batchSize : new int[] { 1, 9, 10, 1000 }) {
+			TestArrayResultSender resultSender = new TestArrayResultSender();
+			Integer[] array = new Integer[100];
+			Arrays.fill(array, 1);
+			new BatchingResultSender(batchSize, resultSender).sendArrayResults(array);
+
+			assertTrue(resultSender.isLastResultSent());
+			assertEquals((99 + batchSize) / batchSize, resultSender.getChunks());
+		}
+	}
+
+	@Test
+	public void testEmptyArraySendsLastResult() {
+		TestArrayResultSender resultSender = new TestArrayResultSender();
+		new BatchingResultSender(10, resultSender).sendArrayResults(new Integer[0]);
+		assertTrue(resultSender.isLastResultSent());
+	}
+
+	@Test
+	public void testPrimitiveArrayChunking() {
+		double[] doubles = new double[100];
+		long[] longs = new long[100];
+		char[] chars = new char[100];
+		boolean[] booleans = new boolean[100];
+		for (int i = 0; i < 100; i++) {
+			doubles[i] = i / 2.0;
+			longs[i] = i;
+			chars[i] = (char) ('a' + i);
+			booleans[i] = i % 3 == 0;
+		}
+
+		for (int batchSize : new int[] { 1, 9, 10, 1000 }) {
+			assertArrayEquals(doubles, (double[]) sendPrimitiveArray(doubles, batchSize), 0);
+			assertArrayEquals(longs, (long[]) sendPrimitiveArray(longs, batchSize));
+			assertArrayEquals(chars, (char[]) sendPrimitiveArray(chars, batchSize));
+			assertTrue(Arrays.equals(booleans, (boolean[]) sendPrimitiveArray(booleans, batchSize)));
+		}
+	}
+
 	@Test
 	public void testListChunking() {
 		testBatchingResultSender(new TestListResultSender(),1);
@@ -50,6 +97,120 @@ public class BatchingResultSenderTest {
 		testBatchingResultSender(new TestListResultSender(),1000);
 	}
 	
+	@Test
+	public void testIteratorStreaming() {
+		for (int batchSize : new int[] { 0, 1, 9, 10, 1000 }) {
+			TestListResultSender resultSender = new TestListResultSender();
+			new BatchingResultSender(batchSize, resultSender).sendResults(new CountingIterator(100, resultSender));
+
+			assertEquals(100, resultSender.getResults().size());
+			for (int i = 0; i < 100; i++) {
+				assertEquals(i, resultSender.getResults().get(i));
+			}
+		}
+	}
+
+	@Test
+	public void testIteratorIsConsumedOneChunkAtATime() {
+		TestListResultSender resultSender = new TestListResultSender();
+		CountingIterator iterator = new CountingIterator(100, resultSender);
+		new BatchingResultSender(10, resultSender).sendResults(iterator);
+
+		// never more than one chunk produced but not sent
+		assertEquals(10, iterator.maxPending);
+		assertEquals(10, resultSender.getChunks());
+	}
+
+	@Test
+	public void testEmptyIteratorSendsLastResult() {
+		TestListResultSender resultSender = new TestListResultSender();
+		new BatchingResultSender(10, resultSender).sendResults(new ArrayList<Object>().iterator());
+		assertTrue(resultSender.isLastResultSent());
+	}
+
+	@Test
+	public void testIteratorChunkedByEstimatedSize() {
+		TestListResultSender resultSender = new TestListResultSender();
+		new BatchingResultSender(0, 100, 0, new FixedObjectSizer(10), resultSender).sendResults(
+				new CountingIterator(100, resultSender));
+
+		assertEquals(100, resultSender.getResults().size());
+		assertEquals(10, resultSender.getChunks());
+	}
+
+	@Test
+	public void testBatchSizeAndEstimatedSizeWhicheverComesFirst() {
+		TestListResultSender resultSender = new TestListResultSender();
+		new BatchingResultSender(5, 100, 0, new FixedObjectSizer(10), resultSender).sendResults(
+				new CountingIterator(100, resultSender));
+		assertEquals(20, resultSender.getChunks());
+
+		resultSender = new TestListResultSender();
+		new BatchingResultSender(50, 100, 0, new FixedObjectSizer(10), resultSender).sendResults(
+				new CountingIterator(100, resultSender));
+		assertEquals(10, resultSender.getChunks());
+	}
+
+	@Test
+	public void testIteratorChunkedByDefaultEstimatedSize() {
+		TestListResultSender resultSender = new TestListResultSender();
+		int elementSize = (int) (BatchingResultSender.DEFAULT_BATCH_BYTES / 4);
+		new BatchingResultSender(0, 0, 0, new FixedObjectSizer(elementSize), resultSender).sendResults(
+				new CountingIterator(100, resultSender));
+
+		assertEquals(100, resultSender.getResults().size());
+		assertEquals(25, resultSender.getChunks());
+	}
+
+	@Test
+	public void testCollectionSentAtOnceWithoutLimits() {
+		TestListResultSender resultSender = new TestListResultSender();
+		List<Integer> result = new ArrayList<Integer>();
+		for (int i = 0; i < 100; i++) {
+			result.add(i);
+		}
+		new BatchingResultSender(0, 0, 0, new FixedObjectSizer(Integer.MAX_VALUE), resultSender).sendResults(result);
+
+		assertEquals(1, resultSender.getChunks());
+		assertEquals(100, resultSender.getResults().size());
+	}
+
+	@Test
+	public void testIteratorChunkedByLatency() {
+		TestListResultSender resultSender = new TestListResultSender();
+		new BatchingResultSender(0, 0, 1, new FixedObjectSizer(10), resultSender).sendResults(
+				new SlowIterator(new CountingIterator(5, resultSender), 20));
+
+		// the latency is checked as elements arrive, so each chunk holds the element arriving late
+		assertEquals(5, resultSender.getResults().size());
+		assertEquals(3, resultSender.getChunks());
+	}
+
+	/**
+	 * Sends the given primitive array in chunks and returns the chunks joined together.
+	 */
+	private Object sendPrimitiveArray(Object array, int batchSize) {
+		final List<Object> chunks = new ArrayList<Object>();
+		AbstractTestResultSender resultSender = new AbstractTestResultSender() {
+			protected void addResults(Object arg0, List<Object> results) {
+				assertTrue(arg0.getClass().getComponentType().isPrimitive());
+				chunks.add(arg0);
+			}
+		};
+		new BatchingResultSender(batchSize, resultSender).sendArrayResults(array);
+
+		assertTrue(resultSender.isLastResultSent());
+		Object joined = Array.newInstance(array.getClass().getComponentType(), Array.getLength(array));
+		int length = 0;
+		for (Object chunk : chunks) {
+			assertTrue(Array.getLength(chunk) <= batchSize);
+			System.arraycopy(chunk, 0, joined, length, Array.getLength(chunk));
+			length += Array.getLength(chunk);
+		}
+		assertEquals(Array.getLength(array), length);
+		return joined;
+	}
+
 	private void testBatchingResultSender(AbstractTestResultSender resultSender, int batchSize){
 		BatchingResultSender brs = new BatchingResultSender(batchSize, resultSender);
 		
@@ -74,12 +235,17 @@ public class BatchingResultSenderTest {
 	
 	public static abstract class AbstractTestResultSender implements ResultSender<Object> {
 		private List<Object> results = new ArrayList<Object>();
+		private int chunks;
+		private boolean lastResultSent;
 		
 		/* (non-Javadoc)
 		 * @see com.gemstone.gemfire.cache.execute.ResultSender#lastResult(java.lang.Object)
 		 */
 		@Override
 		public void lastResult(Object arg0) {
+			assertFalse("lastResult already sent", lastResultSent);
+			chunks++;
+			lastResultSent = true;
 			if (arg0 == null) {
 				return;
 			}
@@ -100,6 +266,8 @@ public class BatchingResultSenderTest {
 		 */
 		@Override
 		public void sendResult(Object arg0) {
+			assertFalse("lastResult already sent", lastResultSent);
+			chunks++;
 			if (arg0 == null) {
 				return;
 			}
@@ -111,6 +279,14 @@ public class BatchingResultSenderTest {
 		public List<Object> getResults() {
 			return this.results;
 		}
+
+		public int getChunks() {
+			return this.chunks;
+		}
+
+		public boolean isLastResultSent() {
+			return this.lastResultSent;
+		}
 		
 		
 	}
@@ -136,4 +312,81 @@ public class BatchingResultSenderTest {
 			results.addAll(list);
 		}		
 	}
+
+	/**
+	 * Produces integers lazily, tracking how many were produced but not sent yet.
+	 */
+	static class CountingIterator implements Iterator<Integer> {
+		private final int size;
+		private final AbstractTestResultSender resultSender;
+		private int next;
+		private int maxPending;
+
+		CountingIterator(int size, AbstractTestResultSender resultSender) {
+			this.size = size;
+			this.resultSender = resultSender;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next < size;
+		}
+
+		@Override
+		public Integer next() {
+			maxPending = Math.max(maxPending, next + 1 - resultSender.getResults().size());
+			return next++;
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+	static class FixedObjectSizer implements ObjectSizer {
+		private final int size;
+
+		FixedObjectSizer(int size) {
+			this.size = size;
+		}
+
+		@Override
+		public int sizeof(Object o) {
+			return size;
+		}
+	}
+
+	/**
+	 * Pauses before producing each element.
+	 */
+	static class SlowIterator implements Iterator<Integer> {
+		private final Iterator<Integer> iterator;
+		private final long pause;
+
+		SlowIterator(Iterator<Integer> iterator, long pause) {
+			this.iterator = iterator;
+			this.pause = pause;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return iterator.hasNext();
+		}
+
+		@Override
+		public Integer next() {
+			try {
+				Thread.sleep(pause);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return iterator.next();
+		}
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+	}
 }
@@ -29,6 +29,7 @@ import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Future;
 
 import org.aopalliance.intercept.MethodInvocation;
 import org.junit.Before;
@@ -88,6 +89,21 @@ public class GemfireFunctionProxyFactoryBeanTests {
 	
 	
 	
+	@Test
+	public void testInvokeAsync() throws Throwable {
+
+		GemfireFunctionProxyFactoryBean proxy = new GemfireFunctionProxyFactoryBean(IFoo.class, functionOperations);
+
+		MethodInvocation invocation = new TestInvocation(IFoo.class).withMethodNameAndArgTypes("async",String.class)
+				.withArguments("key");
+
+		when(functionOperations.executeAndExtract("async",invocation.getArguments())).thenReturn(1);
+		Object result = proxy.invoke(invocation);
+		assertTrue(result instanceof Future);
+		assertEquals(1,((Future<?>)result).get());
+		verify(functionOperations).executeAndExtract("async",invocation.getArguments());
+	}
+
 	static class TestInvocation implements MethodInvocation {
 		
 		private Class<?>[] argTypes;
@@ -179,6 +195,8 @@ public class GemfireFunctionProxyFactoryBeanTests {
 
 		public abstract Map<String, Integer> getMapWithNoArgs();
 
+		public abstract Future<Integer> async(String key);
+
 	}
 	
 	
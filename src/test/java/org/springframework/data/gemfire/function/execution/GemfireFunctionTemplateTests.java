@@ -13,9 +13,11 @@
 package org.springframework.data.gemfire.function.execution;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 
 import java.util.Iterator;
 import java.util.Properties;
+import java.util.concurrent.Future;
 
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
@@ -92,13 +94,40 @@ public class GemfireFunctionTemplateTests {
 		 verifyfunctionTemplateExecution( new GemfireOnServersFunctionTemplate(pool)); 		 
 	} 
 	 
-	private void verifyfunctionTemplateExecution(GemfireFunctionOperations functionTemplate) {
+	private void verifyfunctionTemplateExecution(AbstractFunctionTemplate functionTemplate) {
+		// echoFunction is not registered on the client, streaming its results requires a timeout
+		functionTemplate.setTimeout(5000);
+
 		Iterable<String> results = functionTemplate.execute("echoFunction","1","2","3");
 		 
 		Iterator<String> it = results.iterator();
 		for (int i = 1; i<= 3; i++) {
 			assertEquals(String.valueOf(i),it.next());
 		}
+
+		Iterator<String> streamed = functionTemplate.executeAndStream("echoFunction","1","2","3");
+		for (int i = 1; i<= 3; i++) {
+			assertEquals(String.valueOf(i),streamed.next());
+		}
+		assertFalse(streamed.hasNext());
+	}
+
+	@Test
+	public void testAsyncFunctionTemplates() throws Exception {
+		verifyAsyncFunctionTemplateExecution(new GemfireOnServerFunctionTemplate(cache));
+		verifyAsyncFunctionTemplateExecution(new GemfireOnServersFunctionTemplate(cache));
+		verifyAsyncFunctionTemplateExecution(new GemfireOnRegionFunctionTemplate(clientRegion));
+		verifyAsyncFunctionTemplateExecution(new GemfireOnServerFunctionTemplate(pool));
+		verifyAsyncFunctionTemplateExecution(new GemfireOnServersFunctionTemplate(pool));
+	}
+
+	private void verifyAsyncFunctionTemplateExecution(GemfireFunctionOperations functionTemplate) throws Exception {
+		Future<Iterable<String>> future = functionTemplate.executeAsync("echoFunction","1","2","3");
+
+		Iterator<String> it = future.get().iterator();
+		for (int i = 1; i<= 3; i++) {
+			assertEquals(String.valueOf(i),it.next());
+		}
 	}
 
 }
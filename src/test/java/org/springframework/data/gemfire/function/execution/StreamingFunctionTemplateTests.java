@@ -0,0 +1,162 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.springframework.data.gemfire.function.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import com.gemstone.gemfire.cache.execute.Execution;
+import com.gemstone.gemfire.cache.execute.Function;
+import com.gemstone.gemfire.cache.execute.FunctionException;
+import com.gemstone.gemfire.cache.execute.FunctionService;
+import com.gemstone.gemfire.cache.execute.ResultCollector;
+
+/**
+ * Tests for streaming function results through {@link AbstractFunctionTemplate}.
+ */
+public class StreamingFunctionTemplateTests {
+
+	private Execution execution = mock(Execution.class);
+
+	private ResultCollector<Object, ?> collector;
+
+	private AbstractFunctionTemplate template = new AbstractFunctionTemplate() {
+		@Override
+		protected AbstractFunctionExecution getFunctionExecution() {
+			return new AbstractFunctionExecution() {
+				@Override
+				protected Execution getExecution() {
+					return execution;
+				}
+			};
+		}
+	};
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		when(execution.withArgs(any())).thenReturn(execution);
+		when(execution.withCollector(any(ResultCollector.class))).thenAnswer(new Answer<Execution>() {
+			public Execution answer(InvocationOnMock invocation) {
+				collector = (ResultCollector<Object, ?>) invocation.getArguments()[0];
+				return execution;
+			}
+		});
+	}
+
+	@After
+	public void tearDown() {
+		FunctionService.unregisterFunction("noResult");
+	}
+
+	@Test
+	public void endsResultsOfFunctionWithoutResultExecutedById() {
+		Function function = mock(Function.class);
+		when(function.getId()).thenReturn("noResult");
+		when(function.hasResult()).thenReturn(false);
+		FunctionService.registerFunction(function);
+
+		template.setTimeout(5000);
+		Iterator<Object> results = template.executeAndStream("noResult");
+
+		assertFalse(results.hasNext());
+	}
+
+	@Test
+	public void endsResultsOnError() {
+		Error error = new NoClassDefFoundError("missing");
+		when(execution.execute(anyString())).thenThrow(error);
+
+		template.setTimeout(5000);
+		Iterator<Object> results = template.executeAndStream("failing");
+
+		try {
+			results.hasNext();
+			fail("expected the error to be rethrown");
+		} catch (FunctionException e) {
+			assertSame(error, e.getCause());
+		}
+	}
+
+	@Test
+	public void rethrowsFailureThrownAfterResultsEnded() {
+		final FunctionException failure = new FunctionException("member departed");
+		when(execution.execute(anyString())).thenAnswer(new Answer<ResultCollector<?, ?>>() {
+			public ResultCollector<?, ?> answer(InvocationOnMock invocation) {
+				collector.addResult(null, 1);
+				collector.endResults();
+				throw failure;
+			}
+		});
+
+		template.setTimeout(5000);
+		Iterator<Object> results = template.executeAndStream("lateFailure");
+
+		assertEquals(1, results.next());
+		try {
+			results.hasNext();
+			fail("expected the failure to be rethrown");
+		} catch (FunctionException e) {
+			assertSame(failure, e);
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void rejectsStreamingFunctionNotRegisteredLocallyWithoutTimeout() {
+		template.executeAndStream("unknown");
+	}
+
+	@Test
+	public void closingReleasesDeliveryThread() throws Exception {
+		final CountDownLatch delivered = new CountDownLatch(1);
+		when(execution.execute(anyString())).thenAnswer(new Answer<ResultCollector<?, ?>>() {
+			public ResultCollector<?, ?> answer(InvocationOnMock invocation) {
+				for (int i = 0; i < 10; i++) {
+					collector.addResult(null, i);
+				}
+				collector.endResults();
+				delivered.countDown();
+				return collector;
+			}
+		});
+
+		template.setTimeout(5000);
+		template.setStreamingCapacity(1);
+		Iterator<Object> results = template.executeAndStream("numbers");
+
+		assertEquals(0, results.next());
+		assertTrue(results instanceof Closeable);
+		((Closeable) results).close();
+
+		assertTrue(delivered.await(5, TimeUnit.SECONDS));
+		assertFalse(results.hasNext());
+	}
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.springframework.data.gemfire.function.execution;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.gemstone.gemfire.cache.execute.FunctionException;
+
+public class StreamingResultCollectorTests {
+
+	private StreamingResultCollector<String> collector = new StreamingResultCollector<String>();
+
+	@Test
+	public void testResultsAreAvailableBeforeTheEnd() throws Exception {
+		collector.addResult(null, "1");
+		collector.addResult(null, null);
+
+		Iterator<String> it = collector.getResult().iterator();
+		assertEquals("1", it.next());
+		assertTrue(it.hasNext());
+		assertNull(it.next());
+
+		collector.endResults();
+		assertFalse(it.hasNext());
+	}
+
+	@Test
+	public void testIteratorWaitsForResults() throws Exception {
+		final CountDownLatch latch = new CountDownLatch(1);
+		new Thread(new Runnable() {
+			public void run() {
+				try {
+					latch.await();
+				} catch (InterruptedException e) {
+					return;
+				}
+				collector.addResult(null, "1");
+				collector.endResults();
+			}
+		}).start();
+
+		Iterator<String> it = collector.getResult().iterator();
+		latch.countDown();
+		assertEquals("1", it.next());
+		assertFalse(it.hasNext());
+	}
+
+	@Test
+	public void testFailureIsRethrownAfterReceivedResults() throws Exception {
+		RuntimeException failure = new FunctionException("failed");
+		collector.addResult(null, "1");
+		collector.endResults(failure);
+
+		Iterator<String> it = collector.getResult().iterator();
+		assertEquals("1", it.next());
+		try {
+			it.hasNext();
+			fail("expected the failure to be rethrown");
+		} catch (RuntimeException e) {
+			assertSame(failure, e);
+		}
+		assertFalse(it.hasNext());
+	}
+
+	@Test
+	public void testLateFailureIsRethrownAtTheEnd() throws Exception {
+		RuntimeException failure = new FunctionException("failed");
+		collector.trackExecution();
+		collector.addResult(null, "1");
+		collector.endResults();
+		collector.executionReturned(failure);
+
+		Iterator<String> it = collector.getResult().iterator();
+		assertEquals("1", it.next());
+		try {
+			it.hasNext();
+			fail("expected the failure to be rethrown");
+		} catch (RuntimeException e) {
+			assertSame(failure, e);
+		}
+		assertFalse(it.hasNext());
+	}
+
+	@Test
+	public void testEndWaitsForTrackedExecution() throws Exception {
+		final RuntimeException failure = new FunctionException("failed");
+		collector.trackExecution();
+		collector.endResults();
+		new Thread(new Runnable() {
+			public void run() {
+				try {
+					Thread.sleep(50);
+				} catch (InterruptedException e) {
+					return;
+				}
+				collector.executionReturned(failure);
+			}
+		}).start();
+
+		try {
+			collector.getResult(5, TimeUnit.SECONDS).iterator().hasNext();
+			fail("expected the failure to be rethrown");
+		} catch (RuntimeException e) {
+			assertSame(failure, e);
+		}
+	}
+
+	@Test(expected = FunctionException.class)
+	public void testTimeout() throws Exception {
+		collector.getResult(10, TimeUnit.MILLISECONDS).iterator().hasNext();
+	}
+
+	@Test
+	public void testCloseReleasesBlockedDelivery() throws Exception {
+		final StreamingResultCollector<String> collector = new StreamingResultCollector<String>(1);
+		Thread delivery = new Thread(new Runnable() {
+			public void run() {
+				for (int i = 0; i < 10; i++) {
+					collector.addResult(null, String.valueOf(i));
+				}
+				collector.endResults();
+			}
+		});
+		delivery.start();
+
+		Iterator<String> it = collector.getResult().iterator();
+		assertEquals("0", it.next());
+		((Closeable) it).close();
+
+		delivery.join(5000);
+		assertFalse(delivery.isAlive());
+		assertFalse(it.hasNext());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testResultsCanOnlyBeIteratedOnce() throws Exception {
+		Iterable<String> results = collector.getResult();
+		results.iterator();
+		results.iterator();
+	}
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.gemfire.mapping;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.gemfire.repository.sample.Address;
+import org.springframework.data.gemfire.repository.sample.Person;
+
+import com.gemstone.gemfire.pdx.PdxReader;
+import com.gemstone.gemfire.pdx.PdxSerializer;
+import com.gemstone.gemfire.pdx.PdxWriter;
+
+/**
+ * Unit tests for {@link AsmPdxSerializerGenerator}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class AsmPdxSerializerGeneratorUnitTests {
+
+	GemfireMappingContext context = new GemfireMappingContext();
+	AsmPdxSerializerGenerator generator = new AsmPdxSerializerGenerator();
+
+	@Mock
+	PdxWriter writer;
+	@Mock
+	PdxReader reader;
+
+	@Test
+	public void writesPropertiesWithTypedMethods() {
+
+		Date created = new Date();
+		Address address = new Address();
+
+		Account account = new Account();
+		account.setId(42L);
+		account.setName("Dave");
+		account.balance = 23;
+		account.created = created;
+		account.address = address;
+		account.scores = new int[] { 1, 2 };
+
+		PdxSerializer serializer = generator.getSerializer(context.getPersistentEntity(Account.class));
+
+		assertThat(serializer.toData(account, writer), is(true));
+
+		verify(writer).writeLong("id", 42L);
+		verify(writer).writeString("name", "Dave");
+		verify(writer).writeInt("balance", 23);
+		verify(writer).writeDate("created", created);
+		verify(writer).writeObject("address", address);
+		verify(writer).writeIntArray("scores", account.scores);
+		verify(writer).markIdentityField("id");
+	}
+
+	@Test
+	public void readsPropertiesWithTypedMethods() {
+
+		Address address = new Address();
+		when(reader.readLong("id")).thenReturn(42L);
+		when(reader.readString("name")).thenReturn("Dave");
+		when(reader.readInt("balance")).thenReturn(23);
+		when(reader.readObject("address")).thenReturn(address);
+
+		PdxSerializer serializer = generator.getSerializer(context.getPersistentEntity(Account.class));
+		Account account = (Account) serializer.fromData(Account.class, reader);
+
+		assertThat(account.getId(), is(42L));
+		assertThat(account.getName(), is("Dave"));
+		assertThat(account.balance, is(23));
+		assertThat(account.address, is(sameInstance(address)));
+		verify(reader, never()).readField(anyString());
+	}
+
+	@Test
+	public void doesNotGenerateSerializerForEntityWithoutNoArgConstructor() {
+		assertThat(generator.getSerializer(context.getPersistentEntity(Person.class)), is(nullValue()));
+	}
+
+	@Test
+	public void doesNotGenerateSerializerForNonPublicProperties() {
+		assertThat(generator.getSerializer(context.getPersistentEntity(Hidden.class)), is(nullValue()));
+	}
+
+	@Test
+	public void generatesInstantiatorInvokingPersistenceConstructor() {
+
+		when(reader.readObject("id")).thenReturn(1L);
+		when(reader.readString("firstname")).thenReturn("Dave");
+		when(reader.readString("lastname")).thenReturn("Matthews");
+
+		PdxEntityInstantiator instantiator = generator.getInstantiator(context.getPersistentEntity(Person.class));
+		Person person = (Person) instantiator.createInstance(reader);
+
+		assertThat(person.id, is(1L));
+		assertThat(person.firstname, is("Dave"));
+		assertThat(person.lastname, is("Matthews"));
+	}
+
+	@Test
+	public void doesNotGenerateInstantiatorForSpelExpressionParameters() {
+		assertThat(generator.getInstantiator(context.getPersistentEntity(Expression.class)), is(nullValue()));
+	}
+
+	@Test
+	public void mappingPdxSerializerUsesGeneratedSerializerIfEnabled() {
+
+		Account account = new Account();
+		account.balance = 5;
+
+		MappingPdxSerializer serializer = new MappingPdxSerializer();
+		serializer.setUseGeneratedSerializers(true);
+		serializer.toData(account, writer);
+
+		verify(writer).writeInt("balance", 5);
+		verify(writer, never()).writeField(anyString(), any(), any(Class.class));
+	}
+
+	@Test
+	public void mappingPdxSerializerFallsBackToReflectionForCustomSerializers() {
+
+		PdxSerializer addressSerializer = mock(PdxSerializer.class);
+		Map<Class<?>, PdxSerializer> customSerializers = new HashMap<Class<?>, PdxSerializer>();
+		customSerializers.put(Address.class, addressSerializer);
+
+		MappingPdxSerializer serializer = new MappingPdxSerializer();
+		serializer.setUseGeneratedSerializers(true);
+		serializer.setCustomSerializers(customSerializers);
+		serializer.toData(new Account(), writer);
+
+		verify(addressSerializer).toData(null, writer);
+		verify(writer, never()).writeObject(anyString(), any());
+	}
+
+	@Test
+	public void usesPregeneratedSerializerGeneratedForSameMapping() {
+		assertThat(generator.getSerializer(context.getPersistentEntity(Pregenerated.class)),
+				is(instanceOf(Pregenerated.$PdxSerializer.class)));
+	}
+
+	@Test
+	public void ignoresPregeneratedSerializerGeneratedForDifferentMapping() {
+
+		PdxSerializer serializer = generator.getSerializer(context.getPersistentEntity(Changed.class));
+
+		assertThat(serializer, is(notNullValue()));
+		assertThat(serializer, is(not(instanceOf(Changed.$PdxSerializer.class))));
+	}
+
+	@Test
+	public void mappingPdxSerializerIgnoresPregeneratedSerializerUnlessEnabled() {
+
+		Pregenerated value = new Pregenerated();
+		value.name = "Dave";
+
+		new MappingPdxSerializer().toData(value, writer);
+
+		verify(writer, never()).writeString("pregenerated", "Dave");
+	}
+
+	public static class Account {
+
+		@Id
+		private long id;
+		private String name;
+		public int balance;
+		public Date created;
+		public Address address;
+		public int[] scores;
+
+		public long getId() {
+			return id;
+		}
+
+		public void setId(long id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+
+	public static class Pregenerated {
+
+		public String name;
+
+		public static class $PdxSerializer implements PdxSerializer {
+
+			public static final String MAPPING = "name:Ljava/lang/String;";
+
+			public boolean toData(Object o, PdxWriter out) {
+				out.writeString("pregenerated", ((Pregenerated) o).name);
+				return true;
+			}
+
+			public Object fromData(Class<?> type, PdxReader in) {
+				return new Pregenerated();
+			}
+		}
+	}
+
+	public static class Changed {
+
+		public String name;
+		public int count;
+
+		// generated before count was added
+		public static class $PdxSerializer extends Pregenerated.$PdxSerializer {
+		}
+	}
+
+	public static class Hidden {
+
+		String name;
+	}
+
+	public static class Expression {
+
+		String name;
+
+		public Expression(@Value("#root.name.toUpperCase()") String name) {
+			this.name = name;
+		}
+	}
+}
@@ -19,6 +19,7 @@ import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 
 import org.junit.Test;
+import org.springframework.data.mapping.model.MappingException;
 import org.springframework.data.util.ClassTypeInformation;
 
 /**
@@ -50,6 +51,11 @@ public class GemfirePersistentEntityUnitTests {
 		assertThat(entity.getRegionName(), is("Foo"));
 	}
 
+	@Test(expected = MappingException.class)
+	public void rejectsPdxProjectionOfUnknownProperty() {
+		new GemfireMappingContext().getPersistentEntity(InvalidProjection.class);
+	}
+
 	static class UnannotatedRegion {
 
 	}
@@ -63,4 +69,10 @@ public class GemfirePersistentEntityUnitTests {
 	static class UnnamedRegion {
 
 	}
+
+	@PdxProjection("unknown")
+	static class InvalidProjection {
+
+		String name;
+	}
 }
@@ -0,0 +1,245 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.gemfire.mapping;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.gemfire.repository.sample.Person;
+import org.springframework.data.mapping.model.MappingException;
+
+import com.gemstone.gemfire.pdx.PdxInstance;
+import com.gemstone.gemfire.pdx.PdxReader;
+import com.gemstone.gemfire.pdx.PdxWriter;
+
+/**
+ * Unit tests for {@link LazyPdxInstanceProxyFactory}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LazyPdxInstanceProxyFactoryUnitTests {
+
+	LazyPdxInstanceProxyFactory factory;
+
+	@Mock
+	PdxInstance instance;
+	@Mock
+	PdxInstance nested;
+
+	@Before
+	public void setUp() {
+
+		factory = new LazyPdxInstanceProxyFactory(new GemfireMappingContext());
+
+		when(instance.getClassName()).thenReturn(Trade.class.getName());
+		when(instance.hasField(anyString())).thenReturn(true);
+		when(instance.getField("symbol")).thenReturn("VMW");
+		when(instance.getField("price")).thenReturn(95.5);
+		when(instance.getField("counterparty")).thenReturn(nested);
+
+		when(nested.getClassName()).thenReturn(Counterparty.class.getName());
+		when(nested.hasField(anyString())).thenReturn(true);
+		when(nested.getField("name")).thenReturn("Dave");
+	}
+
+	@Test
+	public void deserializesOnlyAccessedProperties() {
+
+		Trade trade = (Trade) factory.getProxy(instance);
+
+		assertThat(trade.getSymbol(), is("VMW"));
+		assertThat(trade.getSymbol(), is("VMW"));
+
+		verify(instance, times(1)).getField("symbol");
+		verify(instance, never()).getField("price");
+		verify(instance, never()).getField("counterparty");
+		verify(instance, never()).getObject();
+	}
+
+	@Test
+	public void proxiesNestedPdxInstances() {
+
+		Trade trade = (Trade) factory.getProxy(instance);
+
+		assertThat(trade.getCounterparty().getName(), is("Dave"));
+		verify(nested, never()).getObject();
+	}
+
+	@Test
+	public void doesNotOverwritePropertiesSetOnTheProxy() {
+
+		Trade trade = (Trade) factory.getProxy(instance);
+		trade.setPrice(1.0);
+
+		assertThat(trade.getPrice(), is(1.0));
+		verify(instance, never()).getField("price");
+	}
+
+	@Test
+	public void loadsAllPropertiesForOtherMethods() {
+
+		Trade trade = (Trade) factory.getProxy(instance);
+
+		assertThat(trade.toString(), is("VMW@95.5"));
+		verify(instance).getField("counterparty");
+	}
+
+	@Test
+	public void deserializesTypesThatCannotBeProxiedEagerly() {
+
+		Person person = new Person(1L, "Dave", "Matthews");
+		when(instance.getClassName()).thenReturn(Person.class.getName());
+		when(instance.getObject()).thenReturn(person);
+
+		assertThat(factory.getProxy(instance), is((Object) person));
+	}
+
+	@Test
+	public void createsProxiesOfTheSameClass() {
+		assertThat(factory.getProxy(instance).getClass(), is((Object) factory.getProxy(instance).getClass()));
+	}
+
+	@Test
+	public void unwrapsProxyIntoPlainInstanceHoldingAllProperties() {
+
+		Trade trade = (Trade) factory.getProxy(instance);
+		trade.setPrice(1.0);
+
+		Object result = LazyPdxInstanceProxyFactory.unwrap(trade);
+
+		assertThat(result.getClass(), is((Object) Trade.class));
+		assertThat(((Trade) result).getSymbol(), is("VMW"));
+		assertThat(((Trade) result).getPrice(), is(1.0));
+		assertThat(((Trade) result).getCounterparty().getClass(), is((Object) Counterparty.class));
+		assertThat(((Trade) result).getCounterparty().getName(), is("Dave"));
+	}
+
+	@Test
+	public void writesUnwrappedProxyAndReadsItBack() {
+
+		Trade trade = (Trade) factory.getProxy(instance);
+		trade.setSymbol("EMC");
+
+		Map<String, Object> fields = new HashMap<String, Object>();
+		MappingPdxSerializer serializer = new MappingPdxSerializer();
+		serializer.toData(LazyPdxInstanceProxyFactory.unwrap(trade), createProxy(PdxWriter.class, fields));
+
+		Trade result = (Trade) serializer.fromData(Trade.class, createProxy(PdxReader.class, fields));
+
+		assertThat(result.getSymbol(), is("EMC"));
+		assertThat(result.getPrice(), is(95.5));
+		assertThat(result.getCounterparty().getName(), is("Dave"));
+	}
+
+	@Test(expected = MappingException.class)
+	public void rejectsWritingProxies() {
+		new MappingPdxSerializer().toData(factory.getProxy(instance), mock(PdxWriter.class));
+	}
+
+	@Test
+	public void leavesOtherValuesUntouched() {
+		assertThat(factory.convertIfNecessary("value"), is((Object) "value"));
+	}
+
+	/**
+	 * Creates a {@link PdxWriter} storing the written fields in the given {@link Map} or a {@link PdxReader} reading
+	 * them from it.
+	 */
+	private static <T> T createProxy(Class<T> type, final Map<String, Object> fields) {
+
+		return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, new InvocationHandler() {
+
+			@Override
+			public Object invoke(Object proxy, Method method, Object[] args) {
+
+				if (method.getReturnType().equals(PdxWriter.class)) {
+					if (method.getName().startsWith("write") && args[0] instanceof String) {
+						fields.put((String) args[0], args[1]);
+					}
+					return proxy;
+				}
+
+				Object value = args != null && args.length == 1 ? fields.get(args[0]) : null;
+
+				if (value == null && method.getReturnType().isPrimitive()) {
+					return method.getReturnType().equals(boolean.class) ? false : 0;
+				}
+
+				return value;
+			}
+		}));
+	}
+
+	public static class Trade {
+
+		private String symbol;
+		private double price;
+		private Counterparty counterparty;
+
+		public String getSymbol() {
+			return symbol;
+		}
+
+		public void setSymbol(String symbol) {
+			this.symbol = symbol;
+		}
+
+		public double getPrice() {
+			return price;
+		}
+
+		public void setPrice(double price) {
+			this.price = price;
+		}
+
+		public Counterparty getCounterparty() {
+			return counterparty;
+		}
+
+		public void setCounterparty(Counterparty counterparty) {
+			this.counterparty = counterparty;
+		}
+
+		@Override
+		public String toString() {
+			return symbol + "@" + price;
+		}
+	}
+
+	public static class Counterparty {
+
+		private String name;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+	}
+}
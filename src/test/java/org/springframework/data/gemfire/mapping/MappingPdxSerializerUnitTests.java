@@ -15,10 +15,13 @@
  */
 package org.springframework.data.gemfire.mapping;
 
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.*;
 import static org.mockito.Mockito.*;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Before;
@@ -28,13 +31,16 @@ import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.convert.support.GenericConversionService;
+import org.springframework.data.annotation.Id;
 import org.springframework.data.convert.EntityInstantiator;
 import org.springframework.data.gemfire.repository.sample.Address;
 import org.springframework.data.gemfire.repository.sample.Person;
+import org.springframework.data.mapping.model.MappingException;
 import org.springframework.data.mapping.model.ParameterValueProvider;
 
 import com.gemstone.gemfire.pdx.PdxReader;
 import com.gemstone.gemfire.pdx.PdxSerializer;
+import com.gemstone.gemfire.pdx.PdxWriter;
 
 /**
  * Unit tests for {@link MappingPdxSerializer}.
@@ -52,6 +58,8 @@ public class MappingPdxSerializerUnitTests {
 	EntityInstantiator instantiator;
 	@Mock
 	PdxReader reader;
+	@Mock
+	PdxWriter writer;
 	
 	@Mock
 	PdxSerializer addressSerializer;
@@ -91,4 +99,111 @@ public class MappingPdxSerializerUnitTests {
 				any(ParameterValueProvider.class));
 		verify(addressSerializer,times(1)).fromData(eq(Address.class), any(PdxReader.class));
 	}
+
+	@Test
+	public void invokesPersistenceConstructorWithTypedReadsIfEnabled() {
+
+		when(reader.readString("firstname")).thenReturn("Oliver");
+		serializer.setUseGeneratedInstantiators(true);
+
+		Person person = (Person) serializer.fromData(Person.class, reader);
+
+		assertThat(person.getFirstname(), is("Oliver"));
+		verify(reader, never()).readField("firstname");
+	}
+
+	@Test
+	public void resolvesEntityMetadataOnlyOnceForRepeatedReads() {
+
+		GemfireMappingContext context = spy(new GemfireMappingContext());
+		MappingPdxSerializer serializer = new MappingPdxSerializer(context, conversionService);
+
+		serializer.fromData(Address.class, reader);
+		serializer.fromData(Address.class, reader);
+		serializer.toData(new Address(), writer);
+
+		verify(context, times(1)).getPersistentEntity(Address.class);
+		verify(reader, times(2)).readField("city");
+		verify(writer).writeField(eq("city"), anyString(), eq(String.class));
+	}
+
+	@Test
+	public void usesTypedMethodsForPrimitiveProperties() {
+
+		Quote quote = new Quote();
+		quote.price = 1.5;
+		quote.setVolume(100);
+
+		serializer.toData(quote, writer);
+
+		verify(writer).writeDouble("price", 1.5);
+		verify(writer).writeLong("volume", 100L);
+
+		when(reader.readDouble("price")).thenReturn(2.5);
+		when(reader.readLong("volume")).thenReturn(200L);
+
+		Quote result = (Quote) serializer.fromData(Quote.class, reader);
+
+		assertThat(result.price, is(2.5));
+		assertThat(result.getVolume(), is(200L));
+		verify(reader, never()).readField(anyString());
+	}
+
+	@Test
+	public void readsOnlyProjectedProperties() {
+
+		when(reader.readField("id")).thenReturn("42");
+		when(reader.readField("symbol")).thenReturn("VMW");
+
+		Order order = (Order) serializer.fromData(Order.class, reader);
+
+		assertThat(order.id, is("42"));
+		assertThat(order.symbol, is("VMW"));
+		verify(reader, never()).readField("lines");
+		verify(reader, never()).readDouble("total");
+	}
+
+	@Test(expected = MappingException.class)
+	public void rejectsWritingInstancesReadThroughProjection() {
+
+		when(reader.readField("id")).thenReturn("42");
+
+		serializer.toData(serializer.fromData(Order.class, reader), writer);
+	}
+
+	@Test
+	public void writesAllPropertiesOfProjectedTypeCreatedByApplication() {
+
+		Order order = new Order();
+		order.id = "42";
+		order.total = 9.5;
+
+		assertThat(serializer.toData(order, writer), is(true));
+		verify(writer).writeField("id", "42", String.class);
+		verify(writer).writeDouble("total", 9.5);
+	}
+
+	public static class Quote {
+
+		double price;
+		private long volume;
+
+		public long getVolume() {
+			return volume;
+		}
+
+		public void setVolume(long volume) {
+			this.volume = volume;
+		}
+	}
+
+	@PdxProjection("symbol")
+	public static class Order {
+
+		@Id
+		String id;
+		String symbol;
+		double total;
+		List<String> lines;
+	}
 }
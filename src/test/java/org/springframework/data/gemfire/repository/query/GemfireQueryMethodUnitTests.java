@@ -21,7 +21,6 @@ import static org.mockito.Mockito.*;
 
 import java.lang.reflect.Method;
 
-import org.hamcrest.Matchers;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -66,21 +65,20 @@ public class GemfireQueryMethodUnitTests {
 		assertThat(method.getAnnotatedQuery(), is(nullValue()));
 	}
 
-	/**
-	 * @see SGF-112
-	 */
 	@Test
-	public void rejectsQueryMethodWithPageableParameter() throws Exception {
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void acceptsQueryMethodWithPageableParameter() throws Exception {
 
 		GemfireMappingContext context = new GemfireMappingContext();
-		Method method = Invalid.class.getMethod("someMethod", Pageable.class);
-
-		try {
-			new GemfireQueryMethod(method, metadata, context);
-			fail("Expected exception!");
-		} catch (IllegalStateException e) {
-			assertThat(e.getMessage(), Matchers.startsWith("Pagination is not supported by Gemfire repositories!"));
-		}
+		when(metadata.getDomainType()).thenReturn((Class) Person.class);
+		when(metadata.getReturnedDomainClass(Mockito.any(Method.class))).thenReturn((Class) Person.class);
+
+		GemfireQueryMethod method = new GemfireQueryMethod(Paged.class.getMethod("someMethod", Pageable.class),
+				metadata, context);
+
+		assertThat(method.isPageQuery(), is(true));
+		assertThat(method.getParameters().hasPageableParameter(), is(true));
+		assertThat(method.getAnnotatedCountQuery(), is("SELECT count(*) FROM /simple"));
 	}
 
 	interface Sample {
@@ -94,8 +92,9 @@ public class GemfireQueryMethodUnitTests {
 		void notAnnotated();
 	}
 
-	interface Invalid {
+	interface Paged {
 
+		@Query(value = "SELECT * FROM /simple", countQuery = "SELECT count(*) FROM /simple")
 		Page<?> someMethod(Pageable pageable);
 	}
 }
@@ -0,0 +1,302 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.gemfire.repository.query;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.gemfire.GemfireTemplate;
+import org.springframework.data.gemfire.mapping.GemfireMappingContext;
+import org.springframework.data.gemfire.repository.sample.Person;
+import org.springframework.data.gemfire.repository.sample.PersonRepository;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.core.support.DefaultRepositoryMetadata;
+
+import com.gemstone.gemfire.cache.Region;
+import com.gemstone.gemfire.cache.query.SelectResults;
+import com.gemstone.gemfire.cache.query.Struct;
+import com.gemstone.gemfire.cache.query.types.StructType;
+
+/**
+ * Unit tests for {@link PartTreeGemfireRepositoryQuery}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class PartTreeGemfireRepositoryQueryUnitTests {
+
+	@Mock
+	GemfireTemplate template;
+
+	@Mock
+	@SuppressWarnings("rawtypes")
+	Region region;
+
+	@Mock
+	@SuppressWarnings("rawtypes")
+	SelectResults results;
+
+	GemfireMappingContext context = new GemfireMappingContext();
+
+	@Before
+	@SuppressWarnings("unchecked")
+	public void setUp() {
+		when(region.getFullPath()).thenReturn("/simple");
+		when(template.getRegion()).thenReturn(region);
+		when(results.iterator()).thenReturn(Collections.emptyList().iterator());
+		when(template.find(anyString(), (Object[]) anyVararg())).thenReturn(results);
+	}
+
+	@Test
+	public void derivesQueryOnlyOnceForRepeatedExecutions() throws Exception {
+
+		PartTreeGemfireRepositoryQuery query = createQuery(PersonRepository.class.getMethod(
+				"findByFirstnameStartingWith", String.class));
+
+		query.execute(new Object[] { "Da" });
+		query.execute(new Object[] { "Ca" });
+
+		verify(template).find("SELECT * FROM /simple x WHERE x.firstname LIKE $1", "Da%");
+		verify(template).find("SELECT * FROM /simple x WHERE x.firstname LIKE $1", "Ca%");
+		verify(region, times(1)).getFullPath();
+	}
+
+	@Test
+	public void doesNotBindSpecialParameters() throws Exception {
+
+		PartTreeGemfireRepositoryQuery query = createQuery(PersonRepository.class.getMethod(
+				"findByLastnameStartingWith", String.class, Pageable.class));
+
+		query.execute(new Object[] { "M", new PageRequest(0, 2, new Sort("firstname")) });
+
+		verify(template).find(
+				"SELECT DISTINCT * FROM /simple x WHERE x.lastname LIKE $1 ORDER BY firstname ASC LIMIT 2", "M%");
+	}
+
+	@Test
+	public void appliesDynamicSortParameter() throws Exception {
+
+		PartTreeGemfireRepositoryQuery query = createQuery(
+				SortingRepository.class.getMethod("findByLastname", String.class, Sort.class), SortingRepository.class);
+
+		query.execute(new Object[] { "Matthews", new Sort("firstname") });
+		query.execute(new Object[] { "Matthews", new Sort(Sort.Direction.DESC, "firstname") });
+		query.execute(new Object[] { "Matthews", null });
+
+		verify(template).find("SELECT DISTINCT * FROM /simple x WHERE x.lastname = $1 ORDER BY firstname ASC",
+				"Matthews");
+		verify(template).find("SELECT DISTINCT * FROM /simple x WHERE x.lastname = $1 ORDER BY firstname DESC",
+				"Matthews");
+		verify(template).find("SELECT * FROM /simple x WHERE x.lastname = $1", "Matthews");
+	}
+
+	@Test
+	public void appliesStaticOrderBeforePageableSort() throws Exception {
+
+		PartTreeGemfireRepositoryQuery query = createQuery(SortingRepository.class.getMethod(
+				"findByFirstnameOrderByLastnameDesc", String.class, Pageable.class), SortingRepository.class);
+
+		query.execute(new Object[] { "Dave", new PageRequest(0, 2, new Sort("id")) });
+
+		verify(template).find(
+				"SELECT DISTINCT * FROM /simple x WHERE x.firstname = $1 ORDER BY lastname DESC, id ASC LIMIT 2", "Dave");
+	}
+
+	@Test
+	public void bindsInValuesAsSetParameter() throws Exception {
+
+		PartTreeGemfireRepositoryQuery query = createQuery(PersonRepository.class.getMethod("findByFirstnameIn",
+				String[].class));
+
+		query.execute(new Object[] { new String[] { "Dave", "Carter" } });
+		query.execute(new Object[] { new String[] { "Oliver" } });
+
+		verify(template).find("SELECT * FROM /simple x WHERE x.firstname IN $1",
+				new HashSet<String>(Arrays.asList("Dave", "Carter")));
+		verify(template).find("SELECT * FROM /simple x WHERE x.firstname IN $1", Collections.singleton("Oliver"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void derivesCountQuery() throws Exception {
+
+		when(results.iterator()).thenReturn(Collections.singletonList(3).iterator());
+		when(results.size()).thenReturn(1);
+
+		PartTreeGemfireRepositoryQuery query = createQuery(PersonRepository.class.getMethod("countByLastname",
+				String.class));
+
+		assertThat(query.execute(new Object[] { "Matthews" }), is((Object) 3L));
+		verify(template).find("SELECT count(*) FROM /simple x WHERE x.lastname = $1", "Matthews");
+	}
+
+	@Test
+	public void derivesKeyOnlyExistsQuery() throws Exception {
+
+		when(results.isEmpty()).thenReturn(false, true);
+
+		PartTreeGemfireRepositoryQuery query = createQuery(PersonRepository.class.getMethod("existsByFirstname",
+				String.class));
+
+		assertThat(query.execute(new Object[] { "Dave" }), is((Object) true));
+		assertThat(query.execute(new Object[] { "Carter" }), is((Object) false));
+		verify(template).find("SELECT x.id FROM /simple x WHERE x.firstname = $1 LIMIT 1", "Dave");
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void selectsAndMapsPropertiesOfInterfaceProjection() throws Exception {
+
+		Struct struct = mock(Struct.class);
+		StructType structType = mock(StructType.class);
+		when(struct.getStructType()).thenReturn(structType);
+		when(structType.getFieldNames()).thenReturn(new String[] { "firstname", "lastname" });
+		when(struct.getFieldValues()).thenReturn(new Object[] { "Dave", "Matthews" });
+		when(results.iterator()).thenReturn(Collections.singletonList(struct).iterator());
+
+		PartTreeGemfireRepositoryQuery query = createQuery(
+				ProjectingRepository.class.getMethod("findByLastname", String.class), ProjectingRepository.class);
+
+		Collection<?> result = (Collection<?>) query.execute(new Object[] { "Matthews" });
+
+		verify(template).find("SELECT x.firstname, x.lastname FROM /simple x WHERE x.lastname = $1", "Matthews");
+		assertThat(result.size(), is(1));
+
+		Names names = (Names) result.iterator().next();
+		assertThat(names.getFirstname(), is("Dave"));
+		assertThat(names.getLastname(), is("Matthews"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void mapsSinglePropertyResultsOntoClassProjection() throws Exception {
+
+		when(results.iterator()).thenReturn(Arrays.asList("Dave", "Carter").iterator());
+
+		PartTreeGemfireRepositoryQuery query = createQuery(
+				ProjectingRepository.class.getMethod("findByLastnameStartingWith", String.class), ProjectingRepository.class);
+
+		List<?> result = (List<?>) query.execute(new Object[] { "M" });
+
+		verify(template).find("SELECT x.firstname FROM /simple x WHERE x.lastname LIKE $1", "M%");
+		assertThat(result.size(), is(2));
+		assertThat(((FirstnameOnly) result.get(0)).getFirstname(), is("Dave"));
+		assertThat(((FirstnameOnly) result.get(1)).getFirstname(), is("Carter"));
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void countsDistinctResultsOnServerForTotalOfDistinctProjectionPage() throws Exception {
+
+		when(results.iterator()).thenReturn(Arrays.asList("Dave", "Carter").iterator(),
+				Collections.singletonList(3).iterator());
+		when(results.size()).thenReturn(2, 1);
+
+		PartTreeGemfireRepositoryQuery query = createQuery(ProjectingRepository.class.getMethod(
+				"findByFirstnameStartingWith", String.class, Pageable.class), ProjectingRepository.class);
+
+		Page<?> page = (Page<?>) query.execute(new Object[] { "M", new PageRequest(0, 2, new Sort("firstname")) });
+
+		verify(template).find(
+				"SELECT DISTINCT x.firstname FROM /simple x WHERE x.firstname LIKE $1 ORDER BY firstname ASC LIMIT 2", "M%");
+		verify(template).find(
+				"SELECT count(*) FROM (SELECT DISTINCT x.firstname FROM /simple x WHERE x.firstname LIKE $1)", "M%");
+		assertThat(page.getContent().size(), is(2));
+		assertThat(page.getTotalElements(), is(3L));
+	}
+
+	@Test
+	public void ordersUnsortedPagesByIdentifier() throws Exception {
+
+		PartTreeGemfireRepositoryQuery query = createQuery(PersonRepository.class.getMethod(
+				"findByLastnameStartingWith", String.class, Pageable.class));
+
+		query.execute(new Object[] { "M", new PageRequest(0, 2) });
+
+		verify(template).find("SELECT DISTINCT * FROM /simple x WHERE x.lastname LIKE $1 ORDER BY id ASC LIMIT 2", "M%");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsUnsortedPagesOfProjections() throws Exception {
+
+		PartTreeGemfireRepositoryQuery query = createQuery(ProjectingRepository.class.getMethod(
+				"findByFirstnameStartingWith", String.class, Pageable.class), ProjectingRepository.class);
+
+		query.execute(new Object[] { "M", new PageRequest(0, 2) });
+	}
+
+	private PartTreeGemfireRepositoryQuery createQuery(Method method) {
+		return createQuery(method, PersonRepository.class);
+	}
+
+	private PartTreeGemfireRepositoryQuery createQuery(Method method, Class<?> repositoryInterface) {
+		GemfireQueryMethod queryMethod = new GemfireQueryMethod(method, new DefaultRepositoryMetadata(
+				repositoryInterface), context);
+		return new PartTreeGemfireRepositoryQuery(queryMethod, template);
+	}
+
+	interface ProjectingRepository extends Repository<Person, Long> {
+
+		Collection<Names> findByLastname(String lastname);
+
+		List<FirstnameOnly> findByLastnameStartingWith(String prefix);
+
+		Page<FirstnameOnly> findByFirstnameStartingWith(String prefix, Pageable pageable);
+	}
+
+	interface SortingRepository extends Repository<Person, Long> {
+
+		List<Person> findByLastname(String lastname, Sort sort);
+
+		List<Person> findByFirstnameOrderByLastnameDesc(String firstname, Pageable pageable);
+	}
+
+	public interface Names {
+
+		String getFirstname();
+
+		String getLastname();
+	}
+
+	public static class FirstnameOnly {
+
+		private String firstname;
+
+		public String getFirstname() {
+			return firstname;
+		}
+
+		public void setFirstname(String firstname) {
+			this.firstname = firstname;
+		}
+	}
+}
@@ -22,12 +22,12 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.Arrays;
-import java.util.List;
 
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.gemfire.repository.sample.Person;
 import org.springframework.data.gemfire.repository.sample.RootUser;
 
@@ -84,9 +84,56 @@ public class QueryStringUnitTests {
 
 	@Test
 	public void bindsInValuesCorrectly() {
-		QueryString query = new QueryString("SELECT * FROM /Person p WHERE p.firstname IN SET $1");
-		List<Integer> values = Arrays.asList(1, 2, 3);
-		assertThat(query.bindIn(values).toString(), is("SELECT * FROM /Person p WHERE p.firstname IN SET ('1', '2', '3')"));
+		QueryString query = new QueryString("SELECT * FROM /Person p WHERE p.firstname IN SET $1 OR p.id IN LIST $12");
+		assertThat(query.bindInAsParameters().toString(),
+				is("SELECT * FROM /Person p WHERE p.firstname IN $1 OR p.id IN $12"));
+	}
+
+	@Test
+	public void appendsOrderByAndLimitClauses() {
+		QueryString query = new QueryString("SELECT * FROM /Person p WHERE p.firstname = $1");
+		assertThat(query.orderBy(new Sort("lastname")).limit(10).toString(),
+				is("SELECT DISTINCT * FROM /Person p WHERE p.firstname = $1 ORDER BY lastname ASC LIMIT 10"));
+	}
+
+	@Test
+	public void retainsMoreRestrictiveLimit() {
+		QueryString query = new QueryString("SELECT DISTINCT * FROM /Person p ORDER BY p.lastname LIMIT 5");
+		assertThat(query.limit(10).toString(), is("SELECT DISTINCT * FROM /Person p ORDER BY p.lastname LIMIT 5"));
+		assertThat(query.limit(3).toString(), is("SELECT DISTINCT * FROM /Person p ORDER BY p.lastname LIMIT 3"));
+	}
+
+	@Test
+	public void derivesCountQuery() {
+		QueryString query = new QueryString("SELECT DISTINCT * FROM /Person p WHERE p.firstname = $1 ORDER BY p.lastname LIMIT 5");
+		assertThat(query.asCountQuery().toString(), is("SELECT count(*) FROM /Person p WHERE p.firstname = $1"));
+	}
+
+	@Test
+	public void detectsDistinctProjections() {
+		assertThat(new QueryString("SELECT DISTINCT x.lastname FROM /Person x").isDistinctProjection(), is(true));
+		assertThat(new QueryString("SELECT DISTINCT * FROM /Person x").isDistinctProjection(), is(false));
+		assertThat(new QueryString("SELECT x.lastname FROM /Person x").isDistinctProjection(), is(false));
+	}
+
+	@Test
+	public void derivesCountQueryForDistinctProjectionFromSubquery() {
+		QueryString query = new QueryString("SELECT DISTINCT x.lastname FROM /Person x ORDER BY x.lastname LIMIT 5");
+		assertThat(query.asCountQuery().toString(), is("SELECT count(*) FROM (SELECT DISTINCT x.lastname FROM /Person x)"));
+	}
+
+	@Test
+	public void detectsProjectionsAndOrderByClauses() {
+		assertThat(new QueryString("SELECT x.lastname FROM /Person x").isProjection(), is(true));
+		assertThat(new QueryString("SELECT DISTINCT * FROM /Person x").isProjection(), is(false));
+		assertThat(new QueryString("SELECT * FROM /Person x ORDER BY x.lastname LIMIT 5").isOrdered(), is(true));
+		assertThat(new QueryString("SELECT * FROM /Person x LIMIT 5").isOrdered(), is(false));
+	}
+
+	@Test
+	public void dropsOrderByAndLimitClauses() {
+		QueryString query = new QueryString("SELECT DISTINCT x.lastname FROM /Person x ORDER BY lastname ASC LIMIT 5");
+		assertThat(query.unordered().toString(), is("SELECT DISTINCT x.lastname FROM /Person x"));
 	}
 
 	@Test
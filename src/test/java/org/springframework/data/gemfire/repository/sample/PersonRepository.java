@@ -17,6 +17,8 @@ package org.springframework.data.gemfire.repository.sample;
 
 import java.util.Collection;
 
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.gemfire.repository.GemfireRepository;
 import org.springframework.data.gemfire.repository.Query;
 
@@ -53,4 +55,13 @@ public interface PersonRepository extends GemfireRepository<Person, Long> {
 	Collection<Person> findByLastnameEndingWith(String lastname);
 
 	Collection<Person> findByFirstnameContaining(String firstname);
+
+	@Query("SELECT * FROM /Person p WHERE p.lastname = $1")
+	Page<Person> findByLastnameAnnotated(String lastname, Pageable pageable);
+
+	Page<Person> findByLastnameStartingWith(String lastname, Pageable pageable);
+
+	long countByLastname(String lastname);
+
+	boolean existsByFirstname(String firstname);
 }
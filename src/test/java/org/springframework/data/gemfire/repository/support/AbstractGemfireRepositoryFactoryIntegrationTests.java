@@ -27,6 +27,9 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.gemfire.GemfireTemplate;
 import org.springframework.data.gemfire.mapping.GemfireMappingContext;
 import org.springframework.data.gemfire.mapping.Regions;
@@ -107,6 +110,25 @@ public abstract class AbstractGemfireRepositoryFactoryIntegrationTests {
 		assertResultsFound(repository.findByFirstnameOrLastname("Carter", "Matthews"), carter, dave, oliverAugust);
 	}
 
+	@Test
+	public void executesPagedAnnotatedQueryCorrectly() {
+
+		Page<Person> page = repository.findByLastnameAnnotated("Matthews", new PageRequest(0, 1, new Sort("firstname")));
+
+		assertThat(page.getContent(), contains(dave));
+		assertThat(page.getTotalElements(), is(2L));
+		assertThat(page.hasNextPage(), is(true));
+	}
+
+	@Test
+	public void executesPagedDerivedQueryCorrectly() {
+
+		Page<Person> page = repository.findByLastnameStartingWith("M", new PageRequest(1, 2, new Sort("firstname")));
+
+		assertThat(page.getContent(), contains(oliverAugust));
+		assertThat(page.getTotalElements(), is(3L));
+	}
+
 	/**
 	 * @see SGF-101
 	 */
@@ -118,6 +140,16 @@ public abstract class AbstractGemfireRepositoryFactoryIntegrationTests {
 		assertResultsFound(repository.findAll());
 	}
 
+	@Test
+	public void executesDerivedCountAndExistsQueriesCorrectly() {
+
+		assertThat(repository.countByLastname("Matthews"), is(2L));
+		assertThat(repository.existsByFirstname("Carter"), is(true));
+		assertThat(repository.existsByFirstname("Miles"), is(false));
+		assertThat(repository.exists(carter.id), is(true));
+		assertThat(repository.exists(42L), is(false));
+	}
+
 	/**
 	 * @see SGF-113
 	 */
@@ -15,13 +15,18 @@
  */
 package org.springframework.data.gemfire.repository.support;
 
+import static org.hamcrest.Matchers.*;
 import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.anyVararg;
 import static org.mockito.Mockito.*;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 
-import org.hamcrest.Matchers;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
@@ -29,9 +34,14 @@ import org.mockito.runners.MockitoJUnitRunner;
 import org.springframework.data.gemfire.mapping.GemfireMappingContext;
 import org.springframework.data.gemfire.repository.sample.Person;
 import org.springframework.data.repository.PagingAndSortingRepository;
+import org.springframework.data.repository.Repository;
 
 import com.gemstone.gemfire.cache.Region;
 import com.gemstone.gemfire.cache.RegionAttributes;
+import com.gemstone.gemfire.cache.RegionService;
+import com.gemstone.gemfire.cache.query.Query;
+import com.gemstone.gemfire.cache.query.QueryService;
+import com.gemstone.gemfire.cache.query.SelectResults;
 
 /**
  * Unit tests for {@link GemfireRepositoryFactory}.
@@ -53,7 +63,7 @@ public class GemfireRepositoryFactoryUnitTests {
 	 */
 	@Test
 	@SuppressWarnings("unchecked")
-	public void rejectsInterfacesExtendingPagingAndSortingRepository() {
+	public void supportsInterfacesExtendingPagingAndSortingRepository() {
 
 		when(region.getName()).thenReturn("simple");
 		when(region.getAttributes()).thenReturn(attributes);
@@ -65,14 +75,71 @@ public class GemfireRepositoryFactoryUnitTests {
 
 		GemfireRepositoryFactory factory = new GemfireRepositoryFactory(regions, context);
 
-		try {
-			factory.getRepository(SampleInterface.class);
-		} catch (IllegalStateException e) {
-			assertThat(e.getMessage(), Matchers.startsWith("Pagination is not supported by Gemfire repositories!"));
-		}
+		assertThat(factory.getRepository(SampleInterface.class), is(notNullValue()));
+	}
+
+	@Test
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public void executesQueryMethodsReturningFutureOnConfiguredExecutor() throws Exception {
+
+		RegionService regionService = mock(RegionService.class);
+		QueryService queryService = mock(QueryService.class);
+		Query query = mock(Query.class);
+		SelectResults results = mock(SelectResults.class);
+
+		when(region.getName()).thenReturn("simple");
+		when(region.getFullPath()).thenReturn("/simple");
+		when(region.getAttributes()).thenReturn(attributes);
+		when(region.getRegionService()).thenReturn(regionService);
+		when(regionService.getQueryService()).thenReturn(queryService);
+		when(queryService.newQuery(anyString())).thenReturn(query);
+		when(query.execute((Object[]) anyVararg())).thenReturn(results);
+
+		List<Region<?, ?>> regions = new ArrayList<Region<?, ?>>();
+		regions.add(region);
+
+		final List<Runnable> tasks = new ArrayList<Runnable>();
+
+		GemfireRepositoryFactory factory = new GemfireRepositoryFactory(regions, new GemfireMappingContext());
+		factory.setTaskExecutor(new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				tasks.add(command);
+			}
+		});
+
+		AsyncRepository repository = factory.getRepository(AsyncRepository.class);
+		Future<Collection<Person>> future = repository.findByFirstname("Dave");
+
+		assertThat(future.isDone(), is(false));
+		assertThat(tasks, hasSize(1));
+
+		tasks.get(0).run();
+
+		assertThat(future.isDone(), is(true));
+		assertThat((Object) future.get(), is((Object) results));
+		verify(queryService).newQuery("SELECT * FROM /simple x WHERE x.firstname = $1");
+	}
+
+	@Test(expected = IllegalStateException.class)
+	@SuppressWarnings("unchecked")
+	public void rejectsQueryMethodsReturningFutureWithoutExecutor() {
+
+		when(region.getName()).thenReturn("simple");
+		when(region.getAttributes()).thenReturn(attributes);
+
+		List<Region<?, ?>> regions = new ArrayList<Region<?, ?>>();
+		regions.add(region);
+
+		new GemfireRepositoryFactory(regions, new GemfireMappingContext()).getRepository(AsyncRepository.class);
 	}
 
 	interface SampleInterface extends PagingAndSortingRepository<Person, Long> {
 
 	}
+
+	interface AsyncRepository extends Repository<Person, Long> {
+
+		Future<Collection<Person>> findByFirstname(String firstname);
+	}
 }
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.gemfire.repository.support;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Future;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.gemfire.mapping.LazyPdxInstanceProxyFactory;
+import org.springframework.scheduling.annotation.AsyncResult;
+
+/**
+ * Unit tests for {@link LazyPdxProxyPostProcessor}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class LazyPdxProxyPostProcessorUnitTests {
+
+	@Mock
+	LazyPdxInstanceProxyFactory proxyFactory;
+
+	@Mock
+	Results target;
+
+	Results results;
+
+	@Before
+	public void setUp() {
+
+		when(proxyFactory.convertIfNecessary(any())).thenAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				return "converted " + invocation.getArguments()[0];
+			}
+		});
+
+		ProxyFactory factory = new ProxyFactory(target);
+		factory.addInterface(Results.class);
+		new LazyPdxProxyPostProcessor(proxyFactory).postProcess(factory);
+		results = (Results) factory.getProxy();
+	}
+
+	@Test
+	public void convertsSetsIntoSets() {
+
+		when(target.findSet()).thenReturn(new HashSet<Object>(Arrays.asList("a", "b")));
+
+		Set<Object> result = results.findSet();
+
+		assertThat(result, containsInAnyOrder((Object) "converted a", "converted b"));
+	}
+
+	@Test
+	public void convertsListElementsOnAccess() {
+
+		when(target.findList()).thenReturn(Arrays.<Object> asList("a", "b"));
+
+		List<Object> result = results.findList();
+
+		verify(proxyFactory, never()).convertIfNecessary(any());
+		assertThat(result.size(), is(2));
+		assertThat(result.get(1), is((Object) "converted b"));
+		verify(proxyFactory, times(1)).convertIfNecessary(any());
+	}
+
+	@Test
+	public void convertsListElementsOnlyOnce() {
+
+		when(target.findList()).thenReturn(Arrays.<Object> asList("a", "b"));
+
+		List<Object> result = results.findList();
+
+		assertThat(result.get(0), is(sameInstance(result.get(0))));
+		assertThat(result, contains((Object) "converted a", "converted b"));
+		verify(proxyFactory, times(2)).convertIfNecessary(any());
+	}
+
+	@Test
+	public void convertsCollectionElementsOnlyOnce() {
+
+		when(target.findCollection()).thenReturn(new LinkedHashSet<Object>(Arrays.asList("a", "b")));
+
+		Collection<Object> result = results.findCollection();
+
+		assertThat(result, contains((Object) "converted a", "converted b"));
+		assertThat(result, contains((Object) "converted a", "converted b"));
+		verify(proxyFactory, times(2)).convertIfNecessary(any());
+	}
+
+	@Test
+	public void convertsCollectionElementsOnIteration() {
+
+		when(target.findCollection()).thenReturn(Collections.<Object> singleton("a"));
+
+		Collection<Object> result = results.findCollection();
+
+		verify(proxyFactory, never()).convertIfNecessary(any());
+		assertThat(result, contains((Object) "converted a"));
+	}
+
+	@Test
+	public void convertsIterableElementsOnIteration() {
+
+		when(target.findIterable()).thenReturn(Arrays.<Object> asList("a", "b"));
+
+		Iterator<Object> iterator = results.findIterable().iterator();
+
+		assertThat(iterator.next(), is((Object) "converted a"));
+		verify(proxyFactory, times(1)).convertIfNecessary(any());
+	}
+
+	@Test
+	public void convertsValuesOfFutures() throws Exception {
+
+		when(target.findAsync()).thenReturn(new AsyncResult<List<Object>>(Arrays.<Object> asList("a")));
+
+		assertThat(results.findAsync().get(), contains((Object) "converted a"));
+	}
+
+	interface Results {
+
+		Set<Object> findSet();
+
+		List<Object> findList();
+
+		Collection<Object> findCollection();
+
+		Iterable<Object> findIterable();
+
+		Future<List<Object>> findAsync();
+	}
+}
@@ -15,6 +15,7 @@
  */
 package org.springframework.data.gemfire.repository.support;
 
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
@@ -23,8 +24,10 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 import javax.annotation.Resource;
 
@@ -32,6 +35,8 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.gemfire.GemfireTemplate;
 import org.springframework.data.gemfire.repository.sample.Person;
 import org.springframework.data.repository.core.EntityInformation;
@@ -128,6 +133,38 @@ public class SimpleGemfireRepositoryIntegrationTest {
 		assertThat(result, not(hasItems(dave)));
 	}
 
+	@Test
+	public void findsPageOfEntitiesOrderedByKey() {
+
+		for (long id = 1; id <= 5; id++) {
+			template.put(id, new Person(id, "first" + id, "last" + id));
+		}
+
+		Page<Person> page = repository.findAll(new PageRequest(1, 2));
+
+		assertThat(page.getTotalElements(), is(5L));
+		assertThat(page.getContent(), contains(new Person(3L, null, null), new Person(4L, null, null)));
+	}
+
+	@Test
+	public void iteratesAllEntitiesLazilyInChunks() {
+
+		for (long id = 1; id <= 5; id++) {
+			template.put(id, new Person(id, "first" + id, "last" + id));
+		}
+
+		repository.setBatchSize(2);
+
+		List<Person> result = new ArrayList<Person>();
+		for (Person person : repository.findAllLazily()) {
+			result.add(person);
+		}
+
+		assertThat(result.size(), is(5));
+		assertThat(result.get(0).id, is(1L));
+		assertThat(result.get(4).id, is(5L));
+	}
+
 	@SuppressWarnings("rawtypes")
 	public static class RegionClearListener extends CacheListenerAdapter {
 		public boolean eventFired;
@@ -0,0 +1,249 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.data.gemfire.repository.support;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.runners.MockitoJUnitRunner;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.gemfire.GemfireBatchOperationException;
+import org.springframework.data.gemfire.GemfireCallback;
+import org.springframework.data.gemfire.GemfireSystemException;
+import org.springframework.data.gemfire.GemfireTemplate;
+import org.springframework.data.gemfire.mapping.GemfireMappingContext;
+import org.springframework.data.gemfire.mapping.LazyPdxInstanceProxyFactory;
+import org.springframework.data.gemfire.repository.sample.Person;
+import org.springframework.data.repository.core.EntityInformation;
+import org.springframework.data.repository.core.support.ReflectionEntityInformation;
+
+import com.gemstone.gemfire.cache.DataPolicy;
+import com.gemstone.gemfire.cache.Region;
+import com.gemstone.gemfire.cache.RegionAttributes;
+import com.gemstone.gemfire.internal.cache.LocalRegion;
+import com.gemstone.gemfire.pdx.PdxInstance;
+
+/**
+ * Unit tests for {@link SimpleGemfireRepository}.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class SimpleGemfireRepositoryUnitTests {
+
+	@Mock
+	GemfireTemplate template;
+
+	SimpleGemfireRepository<Person, Long> repository;
+
+	@Before
+	public void setUp() {
+		EntityInformation<Person, Long> information = new ReflectionEntityInformation<Person, Long>(Person.class);
+		repository = new SimpleGemfireRepository<Person, Long>(template, information);
+	}
+
+	@Test
+	@SuppressWarnings("rawtypes")
+	public void savesEntitiesInPutAllChunks() {
+
+		repository.setBatchSize(2);
+
+		Iterable<Person> result = repository.save(people(5));
+
+		ArgumentCaptor<Map> chunks = ArgumentCaptor.forClass(Map.class);
+		verify(template, times(3)).putAll(chunks.capture());
+		verify(template, never()).put(any(), any());
+
+		assertThat(keys(chunks.getAllValues().get(0)), contains((Object) 1L, 2L));
+		assertThat(keys(chunks.getAllValues().get(1)), contains((Object) 3L, 4L));
+		assertThat(keys(chunks.getAllValues().get(2)), contains((Object) 5L));
+		assertThat(result, is((Iterable<Person>) people(5)));
+	}
+
+	@Test
+	public void savesAllEntitiesInSinglePutAllForZeroBatchSize() {
+
+		repository.setBatchSize(0);
+		repository.save(people(5));
+
+		verify(template, times(1)).putAll(anyMap());
+	}
+
+	@Test
+	public void reportsFailedChunks() {
+
+		repository.setBatchSize(2);
+
+		doNothing().doThrow(new GemfireSystemException(new RuntimeException("boom"))).doNothing().when(template)
+				.putAll(anyMap());
+
+		try {
+			repository.save(people(5));
+			fail("Expected exception!");
+		} catch (GemfireBatchOperationException e) {
+			assertThat(e.getFailures().keySet(), contains(1));
+			assertThat(e.getFailedKeys().get(1), contains((Object) 3L, 4L));
+			assertThat(e.getAllFailedKeys(), contains((Object) 3L, 4L));
+		}
+
+		verify(template, times(3)).putAll(anyMap());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void deletesEntitiesInChunks() {
+
+		repository.setBatchSize(2);
+		repository.delete(people(5));
+
+		verify(template, times(3)).execute(any(GemfireCallback.class), eq(true));
+		verify(template, never()).remove(any());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void reportsFailedDeleteChunks() {
+
+		repository.setBatchSize(2);
+
+		when(template.execute(any(GemfireCallback.class), eq(true))).thenThrow(
+				new GemfireSystemException(new RuntimeException("boom"))).thenReturn(null);
+
+		try {
+			repository.delete(people(3));
+			fail("Expected exception!");
+		} catch (GemfireBatchOperationException e) {
+			assertThat(e.getFailures().keySet(), contains(0));
+			assertThat(e.getAllFailedKeys(), contains((Object) 1L, 2L));
+		}
+	}
+
+	@Test
+	public void checksExistenceWithoutFetchingValue() {
+
+		Region<Long, Person> region = mockRegion(DataPolicy.PARTITION);
+		when(region.containsValueForKey(1L)).thenReturn(true);
+
+		assertThat(repository.exists(1L), is(true));
+		assertThat(repository.exists(2L), is(false));
+		verify(region, never()).get(any());
+		verify(template, never()).get(any());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void checksExistenceOnServerForClientRegions() {
+
+		Region<Long, Person> region = mockRegion(LocalRegion.class, DataPolicy.NORMAL);
+		when(((LocalRegion) region).hasServerProxy()).thenReturn(true);
+		when(region.containsKeyOnServer(2L)).thenReturn(true);
+
+		assertThat(repository.exists(1L), is(false));
+		assertThat(repository.exists(2L), is(true));
+		verify(region, never()).get(any());
+		verify(region, never()).containsValueForKey(any());
+	}
+
+	private Region<Long, Person> mockRegion(DataPolicy dataPolicy) {
+		return mockRegion(Region.class, dataPolicy);
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Region<Long, Person> mockRegion(Class<? extends Region> type, DataPolicy dataPolicy) {
+
+		final Region<Long, Person> region = mock(type);
+		RegionAttributes<Long, Person> attributes = mock(RegionAttributes.class);
+		when(attributes.getDataPolicy()).thenReturn(dataPolicy);
+		when(region.getAttributes()).thenReturn(attributes);
+		when(template.execute(any(GemfireCallback.class), eq(true))).thenAnswer(new Answer<Object>() {
+			@Override
+			public Object answer(InvocationOnMock invocation) throws Throwable {
+				return ((GemfireCallback<?>) invocation.getArguments()[0]).doInGemfire(region);
+			}
+		});
+
+		return region;
+	}
+
+	@Test
+	public void savesPlainEntityForLazyPdxProxy() {
+
+		PdxInstance instance = mock(PdxInstance.class);
+		when(instance.getClassName()).thenReturn(Account.class.getName());
+		when(instance.hasField(anyString())).thenReturn(true);
+		when(instance.getField("id")).thenReturn(1L);
+		when(instance.getField("name")).thenReturn("Dave");
+
+		Account account = (Account) new LazyPdxInstanceProxyFactory(new GemfireMappingContext()).getProxy(instance);
+		SimpleGemfireRepository<Account, Long> accounts = new SimpleGemfireRepository<Account, Long>(template,
+				new ReflectionEntityInformation<Account, Long>(Account.class));
+
+		assertThat(accounts.save(account), is(account));
+
+		ArgumentCaptor<Object> value = ArgumentCaptor.forClass(Object.class);
+		verify(template).put(eq(1L), value.capture());
+		assertThat(value.getValue().getClass(), is((Object) Account.class));
+		assertThat(((Account) value.getValue()).getName(), is("Dave"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsNegativeBatchSize() {
+		repository.setBatchSize(-1);
+	}
+
+	@SuppressWarnings("rawtypes")
+	private static List<Object> keys(Map chunk) {
+		return new ArrayList<Object>(chunk.keySet());
+	}
+
+	private static List<Person> people(int count) {
+
+		List<Person> result = new ArrayList<Person>();
+		for (long id = 1; id <= count; id++) {
+			result.add(new Person(id, "first" + id, "last" + id));
+		}
+
+		return result;
+	}
+
+	public static class Account {
+
+		@Id
+		private Long id;
+
+		private String name;
+
+		public Long getId() {
+			return id;
+		}
+
+		public String getName() {
+			return name;
+		}
+	}
+}
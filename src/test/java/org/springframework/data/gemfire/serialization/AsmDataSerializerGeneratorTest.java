@@ -0,0 +1,226 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.gemfire.serialization;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.gemstone.gemfire.DataSerializable;
+import com.gemstone.gemfire.DataSerializer;
+
+public class AsmDataSerializerGeneratorTest {
+
+	private AsmDataSerializerGenerator generator = new AsmDataSerializerGenerator();
+
+	@DataSerializerId(1234)
+	public static class Sample {
+
+		private int count;
+		private long total;
+		private boolean active;
+		private char grade;
+		public double ratio;
+		public short rank;
+		public byte flag;
+		public float weight;
+
+		public int getCount() {
+			return count;
+		}
+
+		public void setCount(int count) {
+			this.count = count;
+		}
+
+		public long getTotal() {
+			return total;
+		}
+
+		public void setTotal(long total) {
+			this.total = total;
+		}
+
+		public boolean isActive() {
+			return active;
+		}
+
+		public void setActive(boolean active) {
+			this.active = active;
+		}
+
+		public char getGrade() {
+			return grade;
+		}
+
+		public void setGrade(char grade) {
+			this.grade = grade;
+		}
+	}
+
+	@DataSerializerId(1236)
+	public static class Account implements DataSerializable {
+
+		private String owner;
+		private long balance;
+		private transient boolean dirty;
+
+		public String getOwner() {
+			return owner;
+		}
+
+		public void setOwner(String owner) {
+			this.owner = owner;
+		}
+
+		public long getBalance() {
+			return balance;
+		}
+
+		public void setBalance(long balance) {
+			this.balance = balance;
+		}
+
+		public void toData(DataOutput out) throws IOException {
+			out.writeLong(balance);
+			DataSerializer.writeString(owner, out);
+		}
+
+		public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+			balance = in.readLong();
+			owner = DataSerializer.readString(in);
+		}
+	}
+
+	public static class Incomplete {
+
+		private int exposed;
+		private int internal;
+
+		public int getExposed() {
+			return exposed;
+		}
+
+		public void setExposed(int exposed) {
+			this.exposed = exposed;
+		}
+	}
+
+	static class Hidden {
+	}
+
+	@Test
+	public void testSerializerMetadata() throws Exception {
+		DataSerializer serializer = generator.getDataSerializer(Sample.class, 1234);
+		assertEquals(1234, serializer.getId());
+		assertArrayEquals(new Class[] { Sample.class }, serializer.getSupportedClasses());
+	}
+
+	@Test
+	public void testSerializerIsCached() throws Exception {
+		assertSame(generator.getDataSerializer(Sample.class, 1234), generator.getDataSerializer(Sample.class, 1234));
+	}
+
+	@Test
+	public void testSerializerClassNameIsDerivedFromTypeAndId() throws Exception {
+		String expected = "org.springframework.data.gemfire.serialization."
+				+ Sample.class.getName().replace('.', '_') + "DataSerializer$1234";
+		assertEquals(expected, generator.getDataSerializer(Sample.class, 1234).getClass().getName());
+		assertEquals(expected, new AsmDataSerializerGenerator().getDataSerializer(Sample.class, 1234).getClass()
+				.getName());
+	}
+
+	@Test
+	public void testRoundTrip() throws Exception {
+		DataSerializer serializer = generator.getDataSerializer(Sample.class, 1234);
+
+		Sample sample = new Sample();
+		sample.setCount(7);
+		sample.setTotal(Long.MAX_VALUE);
+		sample.setActive(true);
+		sample.setGrade('B');
+		sample.ratio = 0.5;
+		sample.rank = 300;
+		sample.flag = -1;
+		sample.weight = 2.5f;
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		assertTrue(serializer.toData(sample, new DataOutputStream(bytes)));
+		// no type information, just the values
+		assertEquals(4 + 8 + 1 + 2 + 8 + 2 + 1 + 4, bytes.size());
+
+		Sample copy = (Sample) serializer.fromData(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+		assertEquals(7, copy.getCount());
+		assertEquals(Long.MAX_VALUE, copy.getTotal());
+		assertTrue(copy.isActive());
+		assertEquals('B', copy.getGrade());
+		assertEquals(0.5, copy.ratio, 0);
+		assertEquals(300, copy.rank);
+		assertEquals(-1, copy.flag);
+		assertEquals(2.5f, copy.weight, 0);
+	}
+
+	@Test
+	public void testOtherTypesAreNotWritten() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		assertFalse(generator.getDataSerializer(Sample.class, 1234).toData("value", new DataOutputStream(bytes)));
+		assertEquals(0, bytes.size());
+	}
+
+	@Test
+	public void testDataSerializableRoundTrip() throws Exception {
+		DataSerializer serializer = generator.getDataSerializer(Account.class, 1236);
+
+		Account account = new Account();
+		account.setOwner("Dave");
+		account.setBalance(42);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		assertTrue(serializer.toData(account, new DataOutputStream(bytes)));
+
+		// same layout as the hand-written toData, transient state is skipped
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		account.toData(new DataOutputStream(expected));
+		assertArrayEquals(expected.toByteArray(), bytes.toByteArray());
+
+		Account copy = (Account) serializer.fromData(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+		assertEquals("Dave", copy.getOwner());
+		assertEquals(42, copy.getBalance());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTypesWithUncoveredFieldsAreRejected() throws Exception {
+		generator.getDataSerializer(Incomplete.class, 1237);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonPublicTypesAreRejected() throws Exception {
+		generator.getDataSerializer(Hidden.class, 1235);
+	}
+}
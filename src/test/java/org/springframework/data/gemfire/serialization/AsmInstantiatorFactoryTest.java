@@ -17,6 +17,7 @@
 package org.springframework.data.gemfire.serialization;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
@@ -24,9 +25,19 @@ import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.FileCopyUtils;
 
 import com.gemstone.gemfire.DataSerializable;
 import com.gemstone.gemfire.Instantiator;
@@ -51,6 +62,10 @@ public class AsmInstantiatorFactoryTest {
 		}
 	}
 
+	@SuppressWarnings("serial")
+	static class HiddenClass extends SomeClass {
+	}
+
 	private AsmInstantiatorGenerator asmFactory = null;
 
 	@Before
@@ -84,7 +99,82 @@ public class AsmInstantiatorFactoryTest {
 	@Test
 	public void testCacheInPlace() throws Exception {
 		Instantiator instance1 = asmFactory.getInstantiator(SomeClass.class, 120);
-		Instantiator instance2 = asmFactory.getInstantiator(SomeClass.class, 125);
+		Instantiator instance2 = asmFactory.getInstantiator(SomeClass.class, 120);
 		assertSame(instance1, instance2);
 	}
-}
\ No newline at end of file
+
+	@Test
+	public void testCacheKeyIncludesClassId() throws Exception {
+		Instantiator instance1 = asmFactory.getInstantiator(SomeClass.class, 120);
+		Instantiator instance2 = asmFactory.getInstantiator(SomeClass.class, 125);
+		assertNotSame(instance1, instance2);
+		assertEquals(125, instance2.getId());
+	}
+
+	@Test
+	public void testConcurrentRequestsShareInstantiator() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		try {
+			List<Future<Instantiator>> results = new ArrayList<Future<Instantiator>>();
+			for (int i = 0; i < 32; i++) {
+				results.add(executor.submit(new Callable<Instantiator>() {
+					public Instantiator call() {
+						return asmFactory.getInstantiator(SomeClass.class, 130);
+					}
+				}));
+			}
+			Instantiator expected = results.get(0).get();
+			for (Future<Instantiator> result : results) {
+				assertSame(expected, result.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	public void testPregeneratedClassIsUsed() throws Exception {
+		String className = AsmInstantiatorGenerator.getPregeneratedClassName(SomeClass.class, 150);
+		Map<String, byte[]> classes = new HashMap<String, byte[]>();
+		classes.put(className, asmFactory.generateClassBytecode(SomeClass.class, 150));
+		classes.put(SomeClass.class.getName(), FileCopyUtils.copyToByteArray(SomeClass.class.getResourceAsStream(
+				ClassUtils.getClassFileName(SomeClass.class))));
+
+		Class<? extends DataSerializable> type = (Class<? extends DataSerializable>) new IsolatingClassLoader(classes)
+				.loadClass(SomeClass.class.getName());
+		Instantiator instantiator = asmFactory.getInstantiator(type, 150);
+
+		assertEquals(className, instantiator.getClass().getName());
+		assertEquals(type, instantiator.getInstantiatedClass());
+		assertEquals(type, instantiator.newInstance().getClass());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidClassIsRejected() throws Exception {
+		asmFactory.getInstantiator(HiddenClass.class, 140);
+	}
+
+	/**
+	 * Defines the given classes itself rather than delegating to its parent.
+	 */
+	private static class IsolatingClassLoader extends ClassLoader {
+
+		private final Map<String, byte[]> classes;
+
+		IsolatingClassLoader(Map<String, byte[]> classes) {
+			super(IsolatingClassLoader.class.getClassLoader());
+			this.classes = classes;
+		}
+
+		@Override
+		protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			byte[] bytecode = classes.get(name);
+			if (bytecode == null) {
+				return super.loadClass(name, resolve);
+			}
+			Class<?> clazz = findLoadedClass(name);
+			return (clazz != null ? clazz : defineClass(name, bytecode, 0, bytecode.length));
+		}
+	}
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.gemfire.serialization;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.gemstone.gemfire.DataSerializer;
+
+public class EnumSerializerTest {
+
+	enum Color {
+		RED, GREEN, BLUE
+	}
+
+	enum Size {
+		SMALL, LARGE
+	}
+
+	private EnumSerializer serializer = new EnumSerializer();
+
+	@After
+	public void tearDown() {
+		EnumSerializer.registerEnums(Collections.<Class<?>, Integer> emptyMap());
+	}
+
+	@Test
+	public void testDefaultFormatRoundTrip() throws Exception {
+		byte[] bytes = write(Color.BLUE);
+		assertSame(Color.BLUE, read(bytes));
+	}
+
+	@Test
+	public void testRegisteredEnumsAreWrittenCompactly() throws Exception {
+		EnumSerializer.registerEnums(ids(Size.class, 0, Color.class, 5));
+
+		byte[] bytes = write(Color.BLUE);
+
+		assertEquals(3, bytes.length);
+		assertEquals(5, bytes[1]);
+		assertEquals(2, bytes[2]);
+		assertSame(Color.BLUE, read(bytes));
+	}
+
+	@Test
+	public void testUnregisteredEnumsFallBackToDefaultFormat() throws Exception {
+		EnumSerializer.registerEnums(ids(Size.class, 0));
+
+		byte[] bytes = write(Color.GREEN);
+
+		assertArrayEquals(writeDefaultFormat(Color.class, 1), bytes);
+		assertSame(Color.GREEN, read(bytes));
+	}
+
+	@Test
+	public void testReadsDefaultFormatWrittenBeforeRegistration() throws Exception {
+		byte[] bytes = write(Size.LARGE);
+
+		EnumSerializer.registerEnums(ids(Size.class, 0, Color.class, 1));
+
+		assertArrayEquals(writeDefaultFormat(Size.class, 1), bytes);
+		assertSame(Size.LARGE, read(bytes));
+	}
+
+	@Test
+	public void testIdsDoNotDependOnRegistrationOrder() throws Exception {
+		EnumSerializer.registerEnums(ids(Size.class, 3, Color.class, 7));
+		byte[] bytes = write(Color.GREEN);
+
+		EnumSerializer.registerEnums(ids(Color.class, 7, Size.class, 3));
+		assertSame(Color.GREEN, read(bytes));
+	}
+
+	@Test
+	public void testLargeIdsRoundTrip() throws Exception {
+		EnumSerializer.registerEnums(ids(Color.class, 100000));
+		assertSame(Color.RED, read(write(Color.RED)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRejectsDuplicateIds() throws Exception {
+		EnumSerializer.registerEnums(ids(Size.class, 1, Color.class, 1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRejectsNegativeIds() throws Exception {
+		EnumSerializer.registerEnums(ids(Size.class, -1));
+	}
+
+	@Test(expected = IOException.class)
+	public void testRejectsUnknownRegisteredId() throws Exception {
+		EnumSerializer.registerEnums(ids(Size.class, 0, Color.class, 1));
+		byte[] bytes = write(Color.RED);
+
+		EnumSerializer.registerEnums(ids(Size.class, 0));
+		read(bytes);
+	}
+
+	@Test(expected = IOException.class)
+	public void testRejectsOutOfRangeOrdinalInCompactForm() throws Exception {
+		EnumSerializer.registerEnums(ids(Size.class, 0, Color.class, 1));
+		byte[] bytes = write(Color.BLUE);
+
+		// Size has two constants only
+		EnumSerializer.registerEnums(ids(Color.class, 0, Size.class, 1));
+		read(bytes);
+	}
+
+	@Test(expected = IOException.class)
+	public void testRejectsOutOfRangeOrdinalInDefaultFormat() throws Exception {
+		read(writeDefaultFormat(Size.class, 2));
+	}
+
+	@Test
+	public void testRegisteredEnumsAreSupported() throws Exception {
+		EnumSerializer.registerEnums(ids(Size.class, 0));
+		assertTrue(Arrays.asList(serializer.getSupportedClasses()).contains(Size.class));
+	}
+
+	@Test
+	public void testNonEnumsAreNotWritten() throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		assertFalse(serializer.toData("value", new DataOutputStream(bytes)));
+		assertEquals(0, bytes.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testRejectsNonEnumRegistrations() throws Exception {
+		EnumSerializer.registerEnums(ids(String.class, 0));
+	}
+
+	private static Map<Class<?>, Integer> ids(Object... classesAndIds) {
+		Map<Class<?>, Integer> ids = new LinkedHashMap<Class<?>, Integer>();
+		for (int index = 0; index < classesAndIds.length; index += 2) {
+			ids.put((Class<?>) classesAndIds[index], (Integer) classesAndIds[index + 1]);
+		}
+		return ids;
+	}
+
+	private byte[] write(Object value) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		assertTrue(serializer.toData(value, new DataOutputStream(bytes)));
+		return bytes.toByteArray();
+	}
+
+	private byte[] writeDefaultFormat(Class<?> enumClass, int ordinal) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		DataSerializer.writeClass(enumClass, out);
+		out.writeInt(ordinal);
+		return bytes.toByteArray();
+	}
+
+	private Object read(byte[] bytes) throws Exception {
+		return serializer.fromData(new DataInputStream(new ByteArrayInputStream(bytes)));
+	}
+}
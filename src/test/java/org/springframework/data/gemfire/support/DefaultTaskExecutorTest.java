@@ -0,0 +1,59 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.gemfire.support;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.Callable;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class DefaultTaskExecutorTest {
+
+	private final DefaultTaskExecutor executor = new DefaultTaskExecutor("gemfire-test-");
+
+	@After
+	public void tearDown() {
+		executor.destroy();
+	}
+
+	@Test
+	public void testTasksRunOnPooledDaemonThreads() throws Exception {
+		Thread thread = executor.submit(new Callable<Thread>() {
+			@Override
+			public Thread call() {
+				return Thread.currentThread();
+			}
+		}).get();
+
+		assertTrue(thread.isDaemon());
+		assertTrue(thread.getName().startsWith("gemfire-test-"));
+	}
+
+	@Test
+	public void testDestroyShutsDownPool() {
+		executor.destroy();
+		assertTrue(executor.getThreadPoolExecutor().isShutdown());
+	}
+
+	@Test
+	public void testQueueIsBounded() {
+		assertFalse(executor.getThreadPoolExecutor().getQueue().remainingCapacity() > DefaultTaskExecutor.DEFAULT_QUEUE_CAPACITY);
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.data.gemfire.support;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.springframework.data.gemfire.mapping.AsmPdxSerializerGenerator;
+import org.springframework.data.gemfire.repository.sample.Person;
+import org.springframework.data.gemfire.serialization.AsmInstantiatorGenerator;
+
+import com.gemstone.gemfire.DataSerializable;
+
+public class GeneratedClassWriterTest {
+
+	@SuppressWarnings("serial")
+	public static class Trade implements DataSerializable {
+
+		private String symbol;
+
+		public String getSymbol() {
+			return symbol;
+		}
+
+		public void setSymbol(String symbol) {
+			this.symbol = symbol;
+		}
+
+		public void toData(DataOutput out) throws IOException {
+		}
+
+		public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+		}
+	}
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private GeneratedClassWriter writer;
+
+	@Before
+	public void setUp() {
+		writer = new GeneratedClassWriter(folder.getRoot(), getClass().getClassLoader());
+	}
+
+	@Test
+	public void testWritesInstantiator() throws Exception {
+		String className = writer.writeInstantiator(Trade.class, 1025);
+		assertEquals(AsmInstantiatorGenerator.getPregeneratedClassName(Trade.class, 1025), className);
+		assertTrue(classFile(className).isFile());
+	}
+
+	@Test
+	public void testWritesPdxSerializerAndInstantiator() throws Exception {
+		List<String> classNames = writer.writePdxClasses(Trade.class);
+		assertEquals(Arrays.asList(AsmPdxSerializerGenerator.getPregeneratedSerializerName(Trade.class),
+				AsmPdxSerializerGenerator.getPregeneratedInstantiatorName(Trade.class)), classNames);
+		for (String className : classNames) {
+			assertTrue(classFile(className).isFile());
+		}
+	}
+
+	@Test
+	public void testSkipsUnsupportedClasses() throws Exception {
+		// no no-arg constructor, so no serializer
+		assertEquals(Arrays.asList(AsmPdxSerializerGenerator.getPregeneratedInstantiatorName(Person.class)),
+				writer.writePdxClasses(Person.class));
+	}
+
+	private File classFile(String className) {
+		return new File(folder.getRoot(), className.replace('.', File.separatorChar) + ".class");
+	}
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2002-2013 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not use this file except in compliance with
+ * the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License is distributed on
+ * an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+package org.springframework.data.gemfire.support;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.gemstone.gemfire.cache.Cache;
+import com.gemstone.gemfire.cache.CacheFactory;
+import com.gemstone.gemfire.cache.DataPolicy;
+import com.gemstone.gemfire.cache.Region;
+import com.gemstone.gemfire.cache.RegionFactory;
+import com.gemstone.gemfire.cache.execute.Execution;
+import com.gemstone.gemfire.cache.execute.FunctionService;
+
+/**
+ * Integration tests for {@link RemoveAllFunction}.
+ */
+public class RemoveAllFunctionIntegrationTest {
+
+	static Cache cache;
+
+	static Region<Object, Object> partitioned;
+
+	static Region<Object, Object> replicated;
+
+	@BeforeClass
+	public static void setUp() {
+		cache = new CacheFactory().set("mcast-port", "0").create();
+
+		RegionFactory<Object, Object> regionFactory = cache.createRegionFactory();
+		regionFactory.setDataPolicy(DataPolicy.PARTITION);
+		partitioned = regionFactory.create("removeAllPartitioned");
+
+		regionFactory = cache.createRegionFactory();
+		regionFactory.setDataPolicy(DataPolicy.REPLICATE);
+		replicated = regionFactory.create("removeAllReplicated");
+
+		FunctionService.registerFunction(new RemoveAllFunction());
+	}
+
+	@AfterClass
+	public static void tearDown() {
+		try {
+			cache.close();
+		}
+		catch (Exception e) {
+		}
+	}
+
+	@Before
+	public void populate() {
+		for (long i = 0; i < 100; i++) {
+			partitioned.put(i, "value" + i);
+			replicated.put(i, "value" + i);
+		}
+	}
+
+	@Test
+	public void removesFilteredKeysOnly() {
+		Set<Object> keys = new HashSet<Object>();
+		keys.add(1L);
+		keys.add(2L);
+		keys.add(1000L);
+
+		assertThat(execute(FunctionService.onRegion(partitioned).withFilter(keys)), is(2));
+		assertThat(partitioned.size(), is(98));
+		assertThat(partitioned.containsKey(1L), is(false));
+		assertThat(partitioned.containsKey(3L), is(true));
+
+		assertThat(execute(FunctionService.onRegion(replicated).withFilter(keys)), is(2));
+		assertThat(replicated.size(), is(98));
+		assertThat(replicated.containsKey(2L), is(false));
+	}
+
+	@Test
+	public void removesLocalPrimaryDataOfPartitionedRegion() {
+		// all buckets are hosted, as primaries, by the only member
+		assertThat(execute(FunctionService.onRegion(partitioned)), is(100));
+		assertThat(partitioned.size(), is(0));
+	}
+
+	@Test
+	public void clearsOtherRegions() {
+		assertThat(execute(FunctionService.onRegion(replicated)), is(100));
+		assertThat(replicated.size(), is(0));
+	}
+
+	/**
+	 * Executes the function returning the number of entries removed by all members.
+	 */
+	private int execute(Execution execution) {
+		int removed = 0;
+		for (Object result : (List<?>) execution.execute(RemoveAllFunction.class.getName()).getResult()) {
+			removed += (Integer) result;
+		}
+		return removed;
+	}
+}